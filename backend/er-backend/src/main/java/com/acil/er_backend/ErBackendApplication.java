@@ -2,8 +2,10 @@ package com.acil.er_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ErBackendApplication {
     public static void main(String[] args) {
         SpringApplication.run(ErBackendApplication.class, args);
@@ -40,7 +40,10 @@ public class SecurityConfig {
                 .requestMatchers("/api/mobile/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/appointments/mobile/queue/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/appointments/waiting-room").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/appointments/waiting-room/stream").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/medical/**").permitAll()
+                // Tüm çıkarım veri setini değiştirir
+                .requestMatchers(HttpMethod.POST, "/api/medical/reload").hasRole("DOCTOR")
                 .requestMatchers("/api/triage/**").hasRole("NURSE")
                 .requestMatchers("/api/doctor-notes/**").hasRole("DOCTOR")
                 .anyRequest().authenticated()
@@ -4,23 +4,34 @@ import com.acil.er_backend.dto.*;
 import com.acil.er_backend.model.Appointment;
 import com.acil.er_backend.model.AppointmentStatus;
 import com.acil.er_backend.service.AppointmentService;
+import com.acil.er_backend.service.MobileQueueWatcher;
+import com.acil.er_backend.service.QueueEventBroadcaster;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/appointments")
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final QueueEventBroadcaster queueEvents;
+    private final MobileQueueWatcher mobileQueueWatcher;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, QueueEventBroadcaster queueEvents,
+            MobileQueueWatcher mobileQueueWatcher) {
         this.appointmentService = appointmentService;
+        this.queueEvents = queueEvents;
+        this.mobileQueueWatcher = mobileQueueWatcher;
     }
 
     @GetMapping
-    public List<Appointment> getToday(@RequestParam(required = false) AppointmentStatus status) {
+    public List<AppointmentSummary> getToday(@RequestParam(required = false) AppointmentStatus status) {
         if (status != null) {
             return appointmentService.getTodayAppointmentsByStatus(status);
         }
@@ -59,6 +70,17 @@ public class AppointmentController {
         }
     }
 
+    // Öncelik sırasındaki ilk bekleyeni çağırır (triyaj seviyesi + bekleme süresi)
+    @PostMapping("/call-next")
+    public ResponseEntity<ApiResponse<Appointment>> callNext() {
+        try {
+            Appointment ap = appointmentService.callNext();
+            return ResponseEntity.ok(ApiResponse.success("Hasta çağrıldı.", ap));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}/detail")
     public ResponseEntity<AppointmentDetailResponse> getDetail(@PathVariable Long id) {
         try {
@@ -69,7 +91,7 @@ public class AppointmentController {
     }
 
     @GetMapping("/by-patient/{tc}")
-    public List<Appointment> getByPatient(@PathVariable String tc) {
+    public List<AppointmentSummary> getByPatient(@PathVariable String tc) {
         return appointmentService.getAppointmentsByPatientTc(tc);
     }
 
@@ -82,6 +104,19 @@ public class AppointmentController {
         }
     }
 
+    @GetMapping("/history/{tc}/timeline")
+    public ResponseEntity<PatientTimelinePage> getPatientTimeline(@PathVariable String tc,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(appointmentService.getPatientTimeline(tc, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/dashboard")
     public DashboardStats getDashboard() {
         return appointmentService.getDashboardStats();
@@ -92,8 +127,29 @@ public class AppointmentController {
         return appointmentService.getWaitingRoomDisplay();
     }
 
+    // Personel listeleri için sıra değişiklikleri (SSE, "queue" olayı)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return queueEvents.subscribeStaff();
+    }
+
+    // Bekleme ekranı: bağlanınca ve her değişiklikte güncel görünüm (SSE, "waiting-room" olayı)
+    @GetMapping(value = "/waiting-room/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter waitingRoomStream() {
+        return queueEvents.subscribeWaitingRoom();
+    }
+
     @GetMapping("/mobile/queue/{tc}")
     public AppointmentService.MobileQueueStatus getMobileQueue(@PathVariable String tc) {
         return appointmentService.getMobileQueueStatus(tc);
     }
+
+    // Uzun yoklama: durum "version"dan farklı olduğunda ya da zaman aşımında döner
+    @GetMapping("/mobile/queue/{tc}/watch")
+    public DeferredResult<AppointmentService.MobileQueueStatus> watchMobileQueue(
+            @PathVariable String tc,
+            @RequestParam(required = false) String version,
+            @RequestParam(required = false) Long timeoutMs) {
+        return mobileQueueWatcher.watch(tc, version, timeoutMs);
+    }
 }
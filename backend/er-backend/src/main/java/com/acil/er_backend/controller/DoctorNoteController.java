@@ -2,6 +2,7 @@ package com.acil.er_backend.controller;
 
 import com.acil.er_backend.dto.ApiResponse;
 import com.acil.er_backend.dto.DoctorNoteRequest;
+import com.acil.er_backend.dto.DoctorNoteView;
 import com.acil.er_backend.model.DoctorNote;
 import com.acil.er_backend.service.DoctorNoteService;
 import jakarta.validation.Valid;
@@ -32,7 +33,7 @@ public class DoctorNoteController {
     }
 
     @GetMapping("/by-appointment/{appointmentId}")
-    public List<DoctorNote> getByAppointment(@PathVariable Long appointmentId) {
+    public List<DoctorNoteView> getByAppointment(@PathVariable Long appointmentId) {
         return doctorNoteService.listByAppointment(appointmentId);
     }
 }
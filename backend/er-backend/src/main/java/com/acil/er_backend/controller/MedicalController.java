@@ -1,9 +1,31 @@
 package com.acil.er_backend.controller;
 
+import com.acil.er_backend.dto.ApiResponse;
+import com.acil.er_backend.dto.BatchInferRequest;
+import com.acil.er_backend.dto.BatchInferResult;
+import com.acil.er_backend.dto.MedicalSuggestion;
+import com.acil.er_backend.model.MedicalRecord;
+import com.acil.er_backend.service.BatchInferenceService;
 import com.acil.er_backend.service.MedicalDataService;
+import com.acil.er_backend.service.MedicalDataset;
 import com.acil.er_backend.service.MedicalInferenceService;
+import com.acil.er_backend.service.MedicalPayloadCache;
+import com.acil.er_backend.service.SuggestionCache;
+import com.acil.er_backend.service.SymptomMatchMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/medical")
@@ -11,45 +33,178 @@ public class MedicalController {
 
     private final MedicalDataService medicalDataService;
     private final MedicalInferenceService inferenceService;
+    private final BatchInferenceService batchInferenceService;
+    private final MedicalPayloadCache payloadCache;
+    private final ObjectMapper objectMapper;
 
-    public MedicalController(MedicalDataService medicalDataService, MedicalInferenceService inferenceService) {
+    public MedicalController(MedicalDataService medicalDataService, MedicalInferenceService inferenceService,
+            BatchInferenceService batchInferenceService, MedicalPayloadCache payloadCache, ObjectMapper objectMapper) {
         this.medicalDataService = medicalDataService;
         this.inferenceService = inferenceService;
+        this.batchInferenceService = batchInferenceService;
+        this.payloadCache = payloadCache;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/symptoms")
-    public Set<String> getAllSymptoms() {
-        return medicalDataService.getAllSymptoms();
+    public ResponseEntity<byte[]> getAllSymptoms(WebRequest request) {
+        return conditional(request, payloadCache.symptoms());
     }
 
+    /**
+     * Parametresiz çağrı tüm veri setini döner. cursor/limit/fields verilirse
+     * {items, total, next_cursor} biçiminde sayfalı ve alan seçimli yanıt döner.
+     */
     @GetMapping("/data")
-    public List<Map<String, Object>> getAllData() {
-        return medicalDataService.getRecords();
+    public ResponseEntity<byte[]> getAllData(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest request) {
+        if (cursor == null && limit == null && fields == null) {
+            return conditional(request, payloadCache.data());
+        }
+        return conditional(request, payloadCache.page(cursor, limit == null ? 100 : limit, fields));
+    }
+
+    @GetMapping("/cache-stats")
+    public SuggestionCache.Stats getCacheStats() {
+        return inferenceService.getCacheStats();
+    }
+
+    /**
+     * Çıkarım veri setini kaynağından yeniden yükler (yalnızca doktor). Dosya
+     * geçersizse 422, okunamıyorsa 500 döner; iki durumda da önceki görüntü
+     * sunulmaya devam eder.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reload() {
+        MedicalDataset dataset;
+        try {
+            dataset = medicalDataService.reload();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            HttpStatus status = e instanceof IllegalArgumentException
+                    ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.INTERNAL_SERVER_ERROR;
+            return ResponseEntity.status(status).body(ApiResponse.error("Veri seti yüklenemedi, önceki sürüm ("
+                    + medicalDataService.getVersion() + ") kullanılmaya devam ediyor: " + e.getMessage()));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Veri seti yeniden yüklendi.", Map.of(
+                "version", dataset.getVersion(),
+                "records", dataset.getRecords().size(),
+                "symptoms", dataset.getAllSymptoms().size())));
     }
 
     @PostMapping("/search")
-    public List<Map<String, Object>> search(@RequestBody Map<String, Object> body) {
+    public List<MedicalRecord> search(@RequestBody Map<String, Object> body) {
         Object symptomsObj = body.get("symptoms");
         if (symptomsObj instanceof List<?> list) {
             List<String> symptoms = new ArrayList<>();
             for (Object s : list) {
                 if (s != null) symptoms.add(s.toString());
             }
-            return medicalDataService.searchBySymptoms(symptoms);
+            SymptomMatchMode mode = SymptomMatchMode.from(body.get("mode"), inferenceService.getDefaultMatchMode());
+            return medicalDataService.searchBySymptoms(symptoms, mode);
         }
         return List.of();
     }
 
     @PostMapping("/infer")
-    public List<Map<String, Object>> infer(@RequestBody Map<String, Object> body) {
+    public List<MedicalSuggestion> infer(@RequestBody Map<String, Object> body) {
         Object symptomsObj = body.get("symptoms");
         if (symptomsObj instanceof List<?> list) {
             List<String> symptoms = new ArrayList<>();
             for (Object s : list) {
                 if (s != null) symptoms.add(s.toString());
             }
-            return inferenceService.suggestTop5(symptoms);
+            SymptomMatchMode mode = SymptomMatchMode.from(body.get("mode"), inferenceService.getDefaultMatchMode());
+            return inferenceService.suggestTop5(symptoms, mode);
+        }
+        // Semptom listesi yoksa serbest metin şikâyetten sırala
+        Object complaint = body.get("complaint");
+        if (complaint != null) {
+            return inferenceService.suggestByComplaint(complaint.toString(), 5);
         }
         return List.of();
     }
+
+    /**
+     * Çok sayıda hastayı tek istekte değerlendirir. Yanıt NDJSON'dur: her
+     * satır bir kalemin sonucudur, girdi sırasıyla ve hazır oldukça gönderilir.
+     */
+    @PostMapping("/infer/batch")
+    public ResponseEntity<StreamingResponseBody> inferBatch(@Valid @RequestBody BatchInferRequest request) {
+        SymptomMatchMode mode = SymptomMatchMode.from(request.getMode(), inferenceService.getDefaultMatchMode());
+        int limit = request.getLimit() == null ? 5 : request.getLimit();
+        List<CompletableFuture<List<MedicalSuggestion>>> results =
+                batchInferenceService.submit(request.getItems(), mode, limit);
+
+        StreamingResponseBody body = out -> {
+            for (int i = 0; i < results.size(); i++) {
+                BatchInferResult line;
+                try {
+                    line = BatchInferResult.success(i, results.get(i).join());
+                } catch (CompletionException e) {
+                    line = BatchInferResult.error(i, "Öneri hesaplanamadı.");
+                }
+                try {
+                    out.write(objectMapper.writeValueAsBytes(line));
+                    out.write('\n');
+                    out.flush();
+                } catch (IOException e) {
+                    // İstemci koptu; henüz başlamamış işler çalıştırılmasın
+                    results.forEach(f -> f.cancel(false));
+                    throw e;
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    // ETag eşleşirse 304 döner; istemci gzip kabul ediyorsa hazır sıkıştırılmış gövde gönderilir.
+    // Kodlamalar farklı bayt ürettiği için her birinin kendi ETag'i vardır.
+    private ResponseEntity<byte[]> conditional(WebRequest request, MedicalPayloadCache.Payload payload) {
+        boolean gzip = payload.getGzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? payload.getGzipEtag() : payload.getEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return response.body(payload.getJson());
+    }
+
+    /**
+     * RFC 9110 Accept-Encoding: gzip (ya da x-gzip) q&gt;0 ile listelenmişse,
+     * listelenmemişse {@code *} q&gt;0 ise kabul edilir. {@code gzip;q=0} reddeder.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        Double gzip = null;
+        Double any = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) gzip = gzip == null ? q : Math.max(gzip, q);
+            else if (coding.equals("*")) any = q;
+        }
+        if (gzip != null) return gzip > 0;
+        return any != null && any > 0;
+    }
 }
@@ -1,21 +1,21 @@
 package com.acil.er_backend.controller;
 
+import com.acil.er_backend.dto.MedicalSuggestion;
 import com.acil.er_backend.dto.MobileRegisterRequest;
 import com.acil.er_backend.dto.MobileTriageRequest;
 import com.acil.er_backend.dto.MobileTriageResponse;
 import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.MedicalRecord;
 import com.acil.er_backend.model.Patient;
 import com.acil.er_backend.repository.AppointmentRepository;
 import com.acil.er_backend.service.AppointmentService;
-import com.acil.er_backend.service.MedicalDataService;
+import com.acil.er_backend.service.MedicalInferenceService;
 import com.acil.er_backend.service.PatientService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -27,16 +27,16 @@ public class MobileController {
 
     private final PatientService patientService;
     private final AppointmentService appointmentService;
-    private final MedicalDataService medicalDataService;
+    private final MedicalInferenceService medicalInferenceService;
     private final AppointmentRepository appointmentRepository;
 
     public MobileController(PatientService patientService,
                             AppointmentService appointmentService,
-                            MedicalDataService medicalDataService,
+                            MedicalInferenceService medicalInferenceService,
                             AppointmentRepository appointmentRepository) {
         this.patientService = patientService;
         this.appointmentService = appointmentService;
-        this.medicalDataService = medicalDataService;
+        this.medicalInferenceService = medicalInferenceService;
         this.appointmentRepository = appointmentRepository;
     }
 
@@ -105,7 +105,7 @@ public class MobileController {
             );
 
             MobileTriageResponse resp = new MobileTriageResponse();
-            enrichWithInference(resp, req.getSymptoms());
+            enrichWithInference(resp, req.getSymptoms(), req.getChiefComplaint());
 
             var queue = appointmentService.getMobileQueueStatus(patient.getTc());
             resp.setQueueNumber(queue.getQueueNumber() != null
@@ -132,58 +132,20 @@ public class MobileController {
     }
 
 
-    private void enrichWithInference(MobileTriageResponse resp, List<String> symptoms) {
-        // Veri setinden eşleşen kayıtları getir (AI inference yok, sadece veri seti)
-        List<Map<String, Object>> matches = medicalDataService.searchBySymptoms(symptoms);
-        if (matches != null && !matches.isEmpty()) {
-            // Eşleşme skoruna göre sırala ve en iyisini al
-            List<Map<String, Object>> scored = new ArrayList<>();
-            for (Map<String, Object> rec : matches) {
-                Object symptomsObj = rec.get("symptoms");
-                int matchCount = 0;
-                if (symptomsObj instanceof List<?> list) {
-                    for (Object s : list) {
-                        if (s != null) {
-                            String lower = s.toString().toLowerCase().trim();
-                            for (String input : symptoms) {
-                                if (lower.equals(input.toLowerCase().trim())) {
-                                    matchCount++;
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                }
-                Map<String, Object> copy = new HashMap<>(rec);
-                copy.put("match_score", matchCount);
-                scored.add(copy);
-            }
-
-            Map<String, Object> best = scored.stream()
-                    .sorted((a, b) -> {
-                        int scoreA = (int) a.getOrDefault("match_score", 0);
-                        int scoreB = (int) b.getOrDefault("match_score", 0);
-                        if (scoreB != scoreA) return scoreB - scoreA;
-                        Object uA = a.get("urgency_level");
-                        Object uB = b.get("urgency_level");
-                        int urgA = uA != null ? Integer.parseInt(uA.toString()) : 0;
-                        int urgB = uB != null ? Integer.parseInt(uB.toString()) : 0;
-                        return urgB - urgA;
-                    })
-                    .findFirst()
-                    .orElse(null);
-
-            if (best != null) {
-                resp.setUrgencyLevel(parseInt(best.get("urgency_level"), 3));
-                resp.setUrgencyLabel(str(best.get("urgency_label"), "BELIRSIZ"));
-                resp.setResponseText(str(best.get("response"),
-                        "Belirtileriniz kaydedildi. Lütfen acil serviste bekleyiniz."));
-                resp.setReasoning(str(best.get("reasoning"), null));
-            } else {
-                resp.setUrgencyLevel(3);
-                resp.setUrgencyLabel("DEGERLENDIRME");
-                resp.setResponseText("Belirtileriniz kaydedildi. Lütfen acil serviste bekleyiniz.");
-            }
+    private void enrichWithInference(MobileTriageResponse resp, List<String> symptoms, String chiefComplaint) {
+        // Veri setinden en iyi eşleşen kaydı getir (AI inference yok, sadece veri seti)
+        List<MedicalSuggestion> top = medicalInferenceService.suggest(symptoms, 1);
+        if (top.isEmpty() && chiefComplaint != null && !chiefComplaint.isBlank()) {
+            // Semptomlar veri setinde yoksa hastanın kendi cümlesiyle ara
+            top = medicalInferenceService.suggestByComplaint(chiefComplaint, 1);
+        }
+        if (!top.isEmpty()) {
+            MedicalRecord best = top.get(0).getRecord();
+            resp.setUrgencyLevel(best.getUrgencyLevel());
+            resp.setUrgencyLabel(str(best.getUrgencyLabel(), "BELIRSIZ"));
+            resp.setResponseText(str(best.getResponse(),
+                    "Belirtileriniz kaydedildi. Lütfen acil serviste bekleyiniz."));
+            resp.setReasoning(best.getReasoning());
         } else {
             resp.setUrgencyLevel(3);
             resp.setUrgencyLabel("DEGERLENDIRME");
@@ -200,15 +162,6 @@ public class MobileController {
         return String.join(", ", symptoms);
     }
 
-    private int parseInt(Object val, int fallback) {
-        try {
-            if (val == null) return fallback;
-            return Integer.parseInt(val.toString());
-        } catch (Exception e) {
-            return fallback;
-        }
-    }
-
     private String str(Object v, String fallback) {
         return v != null ? v.toString() : fallback;
     }
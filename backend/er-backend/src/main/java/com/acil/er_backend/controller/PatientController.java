@@ -1,27 +1,139 @@
 package com.acil.er_backend.controller;
 
 import com.acil.er_backend.dto.ApiResponse;
+import com.acil.er_backend.dto.ImportEvent;
+import com.acil.er_backend.dto.PatientPage;
+import com.acil.er_backend.dto.PatientSearchCriteria;
 import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.service.ImportRowReader;
+import com.acil.er_backend.service.PatientImportService;
 import com.acil.er_backend.service.PatientService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/patients")
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientImportService importService;
+    private final ObjectMapper objectMapper;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, PatientImportService importService,
+            ObjectMapper objectMapper) {
         this.patientService = patientService;
+        this.importService = importService;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Hasta listesi, sayfa sayfa. Süzgeçler isteğe bağlıdır; ad öneki Türkçe
+     * büyük/küçük harf duyarsızdır. Sonraki sayfa için {@code nextCursor}
+     * aynı süzgeçlerle {@code cursor} olarak geri gönderilir.
+     */
     @GetMapping
-    public List<Patient> getAll() {
-        return patientService.getAllPatients();
+    public ResponseEntity<PatientPage> search(@RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer birthYear,
+            @RequestParam(required = false) String gender,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            PatientSearchCriteria criteria = new PatientSearchCriteria(name, birthYear, gender);
+            return ResponseEntity.ok(patientService.searchPatients(criteria, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Süzgece uyan tüm hastalar NDJSON olarak, veritabanından okundukça gönderilir. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer birthYear,
+            @RequestParam(required = false) String gender) {
+        PatientSearchCriteria criteria;
+        try {
+            criteria = new PatientSearchCriteria(name, birthYear, gender);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> patientService.forEachPatient(criteria, patient -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(patient));
+                out.write('\n');
+            } catch (IOException e) {
+                // İstemci koptu; imleç kapanır, sorgu yarıda bırakılır
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    /**
+     * Eski sistemden hasta aktarımı; gövde CSV (başlık satırıyla) ya da NDJSON.
+     * Dosya okundukça işlenir. Cevap NDJSON'dur: hatalı ve mükerrer satırlar
+     * anında, her partiden sonra ilerleme, en sonda özet yazılır.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importPatients(HttpServletRequest request) {
+        return importStream(request, importService::importPatients, "tc", "name");
+    }
+
+    /** Kayıtlı hastaların geçmiş ziyaretleri; tamamlanmış randevu olarak arşive yazılır. */
+    @PostMapping(value = "/import/visits", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importVisits(HttpServletRequest request) {
+        return importStream(request, importService::importVisits, "tc", "arrivedAt");
+    }
+
+    private ResponseEntity<StreamingResponseBody> importStream(HttpServletRequest request, Importer importer,
+            String... required) {
+        ImportRowReader rows;
+        try {
+            ImportRowReader.Format format = ImportRowReader.Format.of(MediaType.parseMediaType(request.getContentType()));
+            rows = ImportRowReader.open(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8),
+                    format, objectMapper, required);
+        } catch (IllegalArgumentException e) {
+            // Eksik CSV başlığı: hiçbir satır işlenmeden reddedilir
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        StreamingResponseBody body = out -> {
+            try (rows) {
+                importer.run(rows, event -> write(out, event));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void write(OutputStream out, ImportEvent event) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+            // Satır hataları tamponda birikebilir; ilerleme ve sonuç hemen gitsin
+            if (event.getType() != ImportEvent.Type.ERROR && event.getType() != ImportEvent.Type.DUPLICATE) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            // İstemci koptu; yazılmış partiler kalır, aynı dosyayla yeniden başlatılabilir
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Importer {
+        void run(ImportRowReader rows, Consumer<ImportEvent> sink) throws IOException;
     }
 
     @GetMapping("/{tc}")
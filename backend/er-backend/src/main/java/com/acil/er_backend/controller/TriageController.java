@@ -2,6 +2,7 @@ package com.acil.er_backend.controller;
 
 import com.acil.er_backend.dto.ApiResponse;
 import com.acil.er_backend.dto.CreateTriageRequest;
+import com.acil.er_backend.dto.TriageRecordView;
 import com.acil.er_backend.model.TriageRecord;
 import com.acil.er_backend.service.TriageService;
 import jakarta.validation.Valid;
@@ -30,7 +31,7 @@ public class TriageController {
     }
 
     @GetMapping("/by-appointment/{appointmentId}")
-    public List<TriageRecord> getByAppointment(@PathVariable Long appointmentId) {
+    public List<TriageRecordView> getByAppointment(@PathVariable Long appointmentId) {
         return triageService.listByAppointment(appointmentId);
     }
 }
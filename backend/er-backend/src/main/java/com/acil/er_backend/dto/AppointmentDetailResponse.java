@@ -1,23 +1,19 @@
 package com.acil.er_backend.dto;
 
-import com.acil.er_backend.model.Appointment;
-import com.acil.er_backend.model.DoctorNote;
-import com.acil.er_backend.model.Patient;
-import com.acil.er_backend.model.TriageRecord;
 import java.util.List;
 
 public class AppointmentDetailResponse {
-    private Appointment appointment;
-    private Patient patient;
-    private List<TriageRecord> triageRecords;
-    private List<DoctorNote> doctorNotes;
+    private AppointmentSummary appointment;
+    private AppointmentSummary.PatientRef patient;
+    private List<TriageRecordView> triageRecords;
+    private List<DoctorNoteView> doctorNotes;
 
-    public Appointment getAppointment() { return appointment; }
-    public void setAppointment(Appointment appointment) { this.appointment = appointment; }
-    public Patient getPatient() { return patient; }
-    public void setPatient(Patient patient) { this.patient = patient; }
-    public List<TriageRecord> getTriageRecords() { return triageRecords; }
-    public void setTriageRecords(List<TriageRecord> triageRecords) { this.triageRecords = triageRecords; }
-    public List<DoctorNote> getDoctorNotes() { return doctorNotes; }
-    public void setDoctorNotes(List<DoctorNote> doctorNotes) { this.doctorNotes = doctorNotes; }
+    public AppointmentSummary getAppointment() { return appointment; }
+    public void setAppointment(AppointmentSummary appointment) { this.appointment = appointment; }
+    public AppointmentSummary.PatientRef getPatient() { return patient; }
+    public void setPatient(AppointmentSummary.PatientRef patient) { this.patient = patient; }
+    public List<TriageRecordView> getTriageRecords() { return triageRecords; }
+    public void setTriageRecords(List<TriageRecordView> triageRecords) { this.triageRecords = triageRecords; }
+    public List<DoctorNoteView> getDoctorNotes() { return doctorNotes; }
+    public void setDoctorNotes(List<DoctorNoteView> doctorNotes) { this.doctorNotes = doctorNotes; }
 }
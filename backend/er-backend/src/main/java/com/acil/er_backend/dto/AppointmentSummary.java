@@ -0,0 +1,77 @@
+package com.acil.er_backend.dto;
+
+import com.acil.er_backend.model.AppointmentStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Liste ve geçmiş ekranları için randevu özeti; JPQL yapıcı ifadesiyle
+ * yalnızca gereken sütunlardan doldurulur. Hasta bilgisi yalnızca günün
+ * listesi ve detay gibi cevabın başka yerinde hasta olmayan durumlarda
+ * taşınır.
+ */
+public class AppointmentSummary {
+
+    private final Long id;
+    private final Integer queueNumber;
+    private final LocalDate appointmentDate;
+    private final AppointmentStatus status;
+    private final String chiefComplaint;
+    private final Integer estimatedWaitMinutes;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime calledAt;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime completedAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final PatientRef patient;
+
+    public AppointmentSummary(Long id, Integer queueNumber, LocalDate appointmentDate, AppointmentStatus status,
+            String chiefComplaint, Integer estimatedWaitMinutes, LocalDateTime createdAt, LocalDateTime calledAt,
+            LocalDateTime startedAt, LocalDateTime completedAt, String patientTc, String patientName) {
+        this.id = id;
+        this.queueNumber = queueNumber;
+        this.appointmentDate = appointmentDate;
+        this.status = status;
+        this.chiefComplaint = chiefComplaint;
+        this.estimatedWaitMinutes = estimatedWaitMinutes;
+        this.createdAt = createdAt;
+        this.calledAt = calledAt;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+        this.patient = patientTc != null ? new PatientRef(patientTc, patientName) : null;
+    }
+
+    /** Hasta bilgisi olmadan (hasta geçmişi gibi hastanın zaten bilindiği cevaplar). */
+    public AppointmentSummary(Long id, Integer queueNumber, LocalDate appointmentDate, AppointmentStatus status,
+            String chiefComplaint, Integer estimatedWaitMinutes, LocalDateTime createdAt, LocalDateTime calledAt,
+            LocalDateTime startedAt, LocalDateTime completedAt) {
+        this(id, queueNumber, appointmentDate, status, chiefComplaint, estimatedWaitMinutes, createdAt, calledAt,
+                startedAt, completedAt, null, null);
+    }
+
+    public static class PatientRef {
+        private final String tc;
+        private final String name;
+
+        public PatientRef(String tc, String name) {
+            this.tc = tc;
+            this.name = name;
+        }
+
+        public String getTc() { return tc; }
+        public String getName() { return name; }
+    }
+
+    public Long getId() { return id; }
+    public Integer getQueueNumber() { return queueNumber; }
+    public LocalDate getAppointmentDate() { return appointmentDate; }
+    public AppointmentStatus getStatus() { return status; }
+    public String getChiefComplaint() { return chiefComplaint; }
+    public Integer getEstimatedWaitMinutes() { return estimatedWaitMinutes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getCalledAt() { return calledAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public PatientRef getPatient() { return patient; }
+}
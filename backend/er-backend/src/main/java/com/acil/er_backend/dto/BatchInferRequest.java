@@ -0,0 +1,36 @@
+package com.acil.er_backend.dto;
+
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public class BatchInferRequest {
+
+    @NotEmpty(message = "En az bir hasta girdisi gerekli.")
+    private List<Item> items;
+
+    // Kalem kendi modunu vermezse kullanılır; o da yoksa uygulama varsayılanı
+    private String mode;
+
+    @Min(1) @Max(50)
+    private Integer limit;
+
+    public static class Item {
+        private List<String> symptoms;
+        private String complaint;
+        private String mode;
+
+        public List<String> getSymptoms() { return symptoms; }
+        public void setSymptoms(List<String> symptoms) { this.symptoms = symptoms; }
+        public String getComplaint() { return complaint; }
+        public void setComplaint(String complaint) { this.complaint = complaint; }
+        public String getMode() { return mode; }
+        public void setMode(String mode) { this.mode = mode; }
+    }
+
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
@@ -0,0 +1,29 @@
+package com.acil.er_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchInferResult {
+    private final int index;
+    private final List<MedicalSuggestion> suggestions;
+    private final String error;
+
+    private BatchInferResult(int index, List<MedicalSuggestion> suggestions, String error) {
+        this.index = index;
+        this.suggestions = suggestions;
+        this.error = error;
+    }
+
+    public static BatchInferResult success(int index, List<MedicalSuggestion> suggestions) {
+        return new BatchInferResult(index, suggestions, null);
+    }
+
+    public static BatchInferResult error(int index, String error) {
+        return new BatchInferResult(index, null, error);
+    }
+
+    public int getIndex() { return index; }
+    public List<MedicalSuggestion> getSuggestions() { return suggestions; }
+    public String getError() { return error; }
+}
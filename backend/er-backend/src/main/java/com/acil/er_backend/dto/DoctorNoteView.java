@@ -0,0 +1,57 @@
+package com.acil.er_backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** Doktor notunun liste görünümü; randevu iç içe nesne yerine kimliğiyle taşınır. */
+public class DoctorNoteView {
+
+    private final Long id;
+    private final Long appointmentId;
+    private final String diagnosis;
+    private final String secondaryDiagnosis;
+    private final String plan;
+    private final String prescription;
+    private final String labOrders;
+    private final LocalDate followUpDate;
+    private final String followUpNotes;
+    private final Boolean referralNeeded;
+    private final String referralDepartment;
+    private final Integer restDays;
+    private final String createdBy;
+    private final LocalDateTime createdAt;
+
+    public DoctorNoteView(Long id, Long appointmentId, String diagnosis, String secondaryDiagnosis, String plan,
+            String prescription, String labOrders, LocalDate followUpDate, String followUpNotes, Boolean referralNeeded,
+            String referralDepartment, Integer restDays, String createdBy, LocalDateTime createdAt) {
+        this.id = id;
+        this.appointmentId = appointmentId;
+        this.diagnosis = diagnosis;
+        this.secondaryDiagnosis = secondaryDiagnosis;
+        this.plan = plan;
+        this.prescription = prescription;
+        this.labOrders = labOrders;
+        this.followUpDate = followUpDate;
+        this.followUpNotes = followUpNotes;
+        this.referralNeeded = referralNeeded;
+        this.referralDepartment = referralDepartment;
+        this.restDays = restDays;
+        this.createdBy = createdBy;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getAppointmentId() { return appointmentId; }
+    public String getDiagnosis() { return diagnosis; }
+    public String getSecondaryDiagnosis() { return secondaryDiagnosis; }
+    public String getPlan() { return plan; }
+    public String getPrescription() { return prescription; }
+    public String getLabOrders() { return labOrders; }
+    public LocalDate getFollowUpDate() { return followUpDate; }
+    public String getFollowUpNotes() { return followUpNotes; }
+    public Boolean getReferralNeeded() { return referralNeeded; }
+    public String getReferralDepartment() { return referralDepartment; }
+    public Integer getRestDays() { return restDays; }
+    public String getCreatedBy() { return createdBy; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,57 @@
+package com.acil.er_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Toplu aktarım cevabının tek satırı (NDJSON). Satır olayları dosyadaki satır
+ * numarasını taşır; ilerleme olayları her parti yazıldıktan sonra o ana kadarki
+ * sayıları verir. Son satır DONE ya da (aktarım yarıda kaldıysa) ABORTED'dır;
+ * ABORTED'dan önce yazılmış partiler kalıcıdır.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportEvent {
+
+    public enum Type { ERROR, DUPLICATE, PROGRESS, DONE, ABORTED }
+
+    private final Type type;
+    private final Integer line;
+    private final String tc;
+    private final String message;
+    private final Integer processed;
+    private final Integer imported;
+    private final Integer duplicates;
+    private final Integer failed;
+
+    private ImportEvent(Type type, Integer line, String tc, String message,
+            Integer processed, Integer imported, Integer duplicates, Integer failed) {
+        this.type = type;
+        this.line = line;
+        this.tc = tc;
+        this.message = message;
+        this.processed = processed;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.failed = failed;
+    }
+
+    public static ImportEvent row(Type type, int line, String tc, String message) {
+        return new ImportEvent(type, line, tc, message, null, null, null, null);
+    }
+
+    public static ImportEvent counts(Type type, int processed, int imported, int duplicates, int failed) {
+        return new ImportEvent(type, null, null, null, processed, imported, duplicates, failed);
+    }
+
+    public static ImportEvent aborted(String message) {
+        return new ImportEvent(Type.ABORTED, null, null, message, null, null, null, null);
+    }
+
+    public Type getType() { return type; }
+    public Integer getLine() { return line; }
+    public String getTc() { return tc; }
+    public String getMessage() { return message; }
+    public Integer getProcessed() { return processed; }
+    public Integer getImported() { return imported; }
+    public Integer getDuplicates() { return duplicates; }
+    public Integer getFailed() { return failed; }
+}
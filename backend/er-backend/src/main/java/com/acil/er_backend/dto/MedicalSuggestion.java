@@ -0,0 +1,32 @@
+package com.acil.er_backend.dto;
+
+import com.acil.er_backend.model.MedicalRecord;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+public class MedicalSuggestion {
+    private final MedicalRecord record;
+    private final int matchScore;
+    private final Double textScore;
+
+    public MedicalSuggestion(MedicalRecord record, int matchScore) {
+        this(record, matchScore, null);
+    }
+
+    public MedicalSuggestion(MedicalRecord record, int matchScore, Double textScore) {
+        this.record = record;
+        this.matchScore = matchScore;
+        this.textScore = textScore;
+    }
+
+    @JsonUnwrapped
+    public MedicalRecord getRecord() { return record; }
+
+    @JsonProperty("match_score")
+    public int getMatchScore() { return matchScore; }
+
+    @JsonProperty("text_score")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Double getTextScore() { return textScore; }
+}
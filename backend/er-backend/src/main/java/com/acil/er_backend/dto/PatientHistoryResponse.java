@@ -1,17 +1,14 @@
 package com.acil.er_backend.dto;
 
-import com.acil.er_backend.model.Appointment;
-import com.acil.er_backend.model.DoctorNote;
 import com.acil.er_backend.model.Patient;
-import com.acil.er_backend.model.TriageRecord;
 import java.util.List;
 import java.time.LocalDateTime;
 
 public class PatientHistoryResponse {
     private Patient patient;
-    private List<Appointment> appointments;
-    private List<TriageRecord> triageRecords;
-    private List<DoctorNote> doctorNotes;
+    private List<AppointmentSummary> appointments;
+    private List<TriageRecordView> triageRecords;
+    private List<DoctorNoteView> doctorNotes;
     private int totalAppointments;
     private int totalTriageRecords;
     private int totalDoctorNotes;
@@ -20,20 +17,20 @@ public class PatientHistoryResponse {
     public Patient getPatient() { return patient; }
     public void setPatient(Patient patient) { this.patient = patient; }
 
-    public List<Appointment> getAppointments() { return appointments; }
-    public void setAppointments(List<Appointment> appointments) {
+    public List<AppointmentSummary> getAppointments() { return appointments; }
+    public void setAppointments(List<AppointmentSummary> appointments) {
         this.appointments = appointments;
         this.totalAppointments = appointments != null ? appointments.size() : 0;
     }
 
-    public List<TriageRecord> getTriageRecords() { return triageRecords; }
-    public void setTriageRecords(List<TriageRecord> triageRecords) {
+    public List<TriageRecordView> getTriageRecords() { return triageRecords; }
+    public void setTriageRecords(List<TriageRecordView> triageRecords) {
         this.triageRecords = triageRecords;
         this.totalTriageRecords = triageRecords != null ? triageRecords.size() : 0;
     }
 
-    public List<DoctorNote> getDoctorNotes() { return doctorNotes; }
-    public void setDoctorNotes(List<DoctorNote> doctorNotes) {
+    public List<DoctorNoteView> getDoctorNotes() { return doctorNotes; }
+    public void setDoctorNotes(List<DoctorNoteView> doctorNotes) {
         this.doctorNotes = doctorNotes;
         this.totalDoctorNotes = doctorNotes != null ? doctorNotes.size() : 0;
     }
@@ -0,0 +1,37 @@
+package com.acil.er_backend.dto;
+
+import java.time.LocalDateTime;
+
+/** Hasta geçmişi başlığı; sayılar patient_history_summary tablosundan okunur, her seferinde hesaplanmaz. */
+public class PatientHistorySummary {
+
+    private final String tc;
+    private final String name;
+    private final Integer birthYear;
+    private final String gender;
+    private final int visitCount;
+    private final LocalDateTime lastVisitAt;
+    private final String lastTriageLevel;
+    private final LocalDateTime lastTriageAt;
+
+    public PatientHistorySummary(String tc, String name, Integer birthYear, String gender, int visitCount,
+            LocalDateTime lastVisitAt, String lastTriageLevel, LocalDateTime lastTriageAt) {
+        this.tc = tc;
+        this.name = name;
+        this.birthYear = birthYear;
+        this.gender = gender;
+        this.visitCount = visitCount;
+        this.lastVisitAt = lastVisitAt;
+        this.lastTriageLevel = lastTriageLevel;
+        this.lastTriageAt = lastTriageAt;
+    }
+
+    public String getTc() { return tc; }
+    public String getName() { return name; }
+    public Integer getBirthYear() { return birthYear; }
+    public String getGender() { return gender; }
+    public int getVisitCount() { return visitCount; }
+    public LocalDateTime getLastVisitAt() { return lastVisitAt; }
+    public String getLastTriageLevel() { return lastTriageLevel; }
+    public LocalDateTime getLastTriageAt() { return lastTriageAt; }
+}
@@ -0,0 +1,16 @@
+package com.acil.er_backend.dto;
+
+import com.acil.er_backend.model.Patient;
+import java.util.List;
+
+/** Hasta listesinin bir sayfası; {@code nextCursor} boşsa son sayfadır. */
+public class PatientPage {
+    private List<Patient> items;
+    private String nextCursor;
+
+    public List<Patient> getItems() { return items; }
+    public void setItems(List<Patient> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
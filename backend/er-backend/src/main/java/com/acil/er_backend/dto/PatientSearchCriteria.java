@@ -0,0 +1,27 @@
+package com.acil.er_backend.dto;
+
+import java.util.Locale;
+
+/**
+ * Hasta listesi süzgeçleri; hepsi isteğe bağlıdır ve birlikte (VE) uygulanır.
+ * Ad öneki Türkçe büyük/küçük harf farkı gözetmeden eşleşir.
+ */
+public class PatientSearchCriteria {
+
+    private final String namePrefix;
+    private final Integer birthYear;
+    private final String gender;
+
+    public PatientSearchCriteria(String namePrefix, Integer birthYear, String gender) {
+        this.namePrefix = namePrefix == null || namePrefix.isBlank() ? null : namePrefix;
+        this.birthYear = birthYear;
+        this.gender = gender == null || gender.isBlank() ? null : gender.trim().toUpperCase(Locale.ROOT);
+        if (this.gender != null && !this.gender.equals("E") && !this.gender.equals("K")) {
+            throw new IllegalArgumentException("Cinsiyet E veya K olmalıdır: " + gender);
+        }
+    }
+
+    public String getNamePrefix() { return namePrefix; }
+    public Integer getBirthYear() { return birthYear; }
+    public String getGender() { return gender; }
+}
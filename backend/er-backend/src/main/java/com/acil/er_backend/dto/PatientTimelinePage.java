@@ -0,0 +1,24 @@
+package com.acil.er_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Hasta zaman çizelgesinin bir sayfası, en yeni kayıt önce. Başlık yalnızca
+ * ilk sayfada gelir; {@code nextCursor} boşsa geçmişin sonuna gelinmiştir.
+ */
+public class PatientTimelinePage {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private PatientHistorySummary summary;
+    private List<TimelineEntry> entries;
+    private String nextCursor;
+
+    public PatientHistorySummary getSummary() { return summary; }
+    public void setSummary(PatientHistorySummary summary) { this.summary = summary; }
+
+    public List<TimelineEntry> getEntries() { return entries; }
+    public void setEntries(List<TimelineEntry> entries) { this.entries = entries; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,33 @@
+package com.acil.er_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Personel akışına giden sıra değişikliği. Hasta bilgisi taşımaz;
+ * istemci yeni randevuda ya da RESET'te listeyi yeniden çeker.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueueEvent {
+
+    public enum Type { CREATED, UPDATED, REMOVED, RESET }
+
+    private Type type;
+    private Long appointmentId;
+    private Integer queueNumber;
+    private String status;
+    private String previousStatus;
+    private String timestamp;
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public Long getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+    public Integer getQueueNumber() { return queueNumber; }
+    public void setQueueNumber(Integer queueNumber) { this.queueNumber = queueNumber; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(String previousStatus) { this.previousStatus = previousStatus; }
+    public String getTimestamp() { return timestamp; }
+    public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
+}
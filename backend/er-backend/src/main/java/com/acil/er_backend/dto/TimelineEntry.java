@@ -0,0 +1,55 @@
+package com.acil.er_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+/**
+ * Hasta zaman çizelgesinin tek satırı: bir randevu, triyaj kaydı ya da doktor
+ * notu. Türüne göre yalnızca ilgili görünüm doludur; hepsi randevu kimliğini
+ * taşır ki istemci kayıtları ziyaretlerine bağlayabilsin.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimelineEntry {
+
+    /** Aynı anda oluşmuş kayıtlarda sıralama: sonraki tür önce gelir. */
+    public enum Type { APPOINTMENT, TRIAGE, NOTE }
+
+    private final Type type;
+    private final Long id;
+    private final Long appointmentId;
+    private final LocalDateTime createdAt;
+    private final AppointmentSummary appointment;
+    private final TriageRecordView triage;
+    private final DoctorNoteView note;
+
+    private TimelineEntry(Type type, Long id, Long appointmentId, LocalDateTime createdAt,
+            AppointmentSummary appointment, TriageRecordView triage, DoctorNoteView note) {
+        this.type = type;
+        this.id = id;
+        this.appointmentId = appointmentId;
+        this.createdAt = createdAt;
+        this.appointment = appointment;
+        this.triage = triage;
+        this.note = note;
+    }
+
+    public static TimelineEntry of(AppointmentSummary ap) {
+        return new TimelineEntry(Type.APPOINTMENT, ap.getId(), ap.getId(), ap.getCreatedAt(), ap, null, null);
+    }
+
+    public static TimelineEntry of(TriageRecordView tr) {
+        return new TimelineEntry(Type.TRIAGE, tr.getId(), tr.getAppointmentId(), tr.getCreatedAt(), null, tr, null);
+    }
+
+    public static TimelineEntry of(DoctorNoteView note) {
+        return new TimelineEntry(Type.NOTE, note.getId(), note.getAppointmentId(), note.getCreatedAt(), null, null, note);
+    }
+
+    public Type getType() { return type; }
+    public Long getId() { return id; }
+    public Long getAppointmentId() { return appointmentId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public AppointmentSummary getAppointment() { return appointment; }
+    public TriageRecordView getTriage() { return triage; }
+    public DoctorNoteView getNote() { return note; }
+}
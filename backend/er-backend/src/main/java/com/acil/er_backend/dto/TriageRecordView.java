@@ -0,0 +1,84 @@
+package com.acil.er_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+/**
+ * Triyaj kaydının liste görünümü. Randevu iç içe nesne yerine kimliğiyle
+ * taşınır. Öneri JSON'u büyük olduğundan yalnızca tek randevunun
+ * kayıtlarında (detay ekranı) doldurulur.
+ */
+public class TriageRecordView {
+
+    private final Long id;
+    private final Long appointmentId;
+    private final String nurseSymptomsCsv;
+    private final Double temperature;
+    private final Integer pulse;
+    private final Integer bpHigh;
+    private final Integer bpLow;
+    private final Integer oxygenSaturation;
+    private final Integer respiratoryRate;
+    private final Integer painLevel;
+    private final Integer bloodGlucose;
+    private final String triageLevel;
+    private final String aiSuggestedLevel;
+    private final Integer aiConfidence;
+    private final String notes;
+    private final String createdBy;
+    private final LocalDateTime createdAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final String suggestionsJson;
+
+    public TriageRecordView(Long id, Long appointmentId, String nurseSymptomsCsv, Double temperature, Integer pulse,
+            Integer bpHigh, Integer bpLow, Integer oxygenSaturation, Integer respiratoryRate, Integer painLevel,
+            Integer bloodGlucose, String triageLevel, String aiSuggestedLevel, Integer aiConfidence, String notes,
+            String createdBy, LocalDateTime createdAt, String suggestionsJson) {
+        this.id = id;
+        this.appointmentId = appointmentId;
+        this.nurseSymptomsCsv = nurseSymptomsCsv;
+        this.temperature = temperature;
+        this.pulse = pulse;
+        this.bpHigh = bpHigh;
+        this.bpLow = bpLow;
+        this.oxygenSaturation = oxygenSaturation;
+        this.respiratoryRate = respiratoryRate;
+        this.painLevel = painLevel;
+        this.bloodGlucose = bloodGlucose;
+        this.triageLevel = triageLevel;
+        this.aiSuggestedLevel = aiSuggestedLevel;
+        this.aiConfidence = aiConfidence;
+        this.notes = notes;
+        this.createdBy = createdBy;
+        this.createdAt = createdAt;
+        this.suggestionsJson = suggestionsJson;
+    }
+
+    /** Öneri JSON'u olmadan (hasta geçmişi). */
+    public TriageRecordView(Long id, Long appointmentId, String nurseSymptomsCsv, Double temperature, Integer pulse,
+            Integer bpHigh, Integer bpLow, Integer oxygenSaturation, Integer respiratoryRate, Integer painLevel,
+            Integer bloodGlucose, String triageLevel, String aiSuggestedLevel, Integer aiConfidence, String notes,
+            String createdBy, LocalDateTime createdAt) {
+        this(id, appointmentId, nurseSymptomsCsv, temperature, pulse, bpHigh, bpLow, oxygenSaturation, respiratoryRate,
+                painLevel, bloodGlucose, triageLevel, aiSuggestedLevel, aiConfidence, notes, createdBy, createdAt, null);
+    }
+
+    public Long getId() { return id; }
+    public Long getAppointmentId() { return appointmentId; }
+    public String getNurseSymptomsCsv() { return nurseSymptomsCsv; }
+    public Double getTemperature() { return temperature; }
+    public Integer getPulse() { return pulse; }
+    public Integer getBpHigh() { return bpHigh; }
+    public Integer getBpLow() { return bpLow; }
+    public Integer getOxygenSaturation() { return oxygenSaturation; }
+    public Integer getRespiratoryRate() { return respiratoryRate; }
+    public Integer getPainLevel() { return painLevel; }
+    public Integer getBloodGlucose() { return bloodGlucose; }
+    public String getTriageLevel() { return triageLevel; }
+    public String getAiSuggestedLevel() { return aiSuggestedLevel; }
+    public Integer getAiConfidence() { return aiConfidence; }
+    public String getNotes() { return notes; }
+    public String getCreatedBy() { return createdBy; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getSuggestionsJson() { return suggestionsJson; }
+}
@@ -25,6 +25,7 @@ public class WaitingRoomDisplay {
         private Integer queueNumber;
         private String status;
         private int aheadCount;
+        private Integer estimatedWaitMinutes;
 
         public Integer getQueueNumber() { return queueNumber; }
         public void setQueueNumber(Integer queueNumber) { this.queueNumber = queueNumber; }
@@ -32,6 +33,8 @@ public class WaitingRoomDisplay {
         public void setStatus(String status) { this.status = status; }
         public int getAheadCount() { return aheadCount; }
         public void setAheadCount(int aheadCount) { this.aheadCount = aheadCount; }
+        public Integer getEstimatedWaitMinutes() { return estimatedWaitMinutes; }
+        public void setEstimatedWaitMinutes(Integer estimatedWaitMinutes) { this.estimatedWaitMinutes = estimatedWaitMinutes; }
     }
 
     public CurrentCall getCurrentCall() { return currentCall; }
@@ -1,19 +1,25 @@
 package com.acil.er_backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
+// LAZY ilişkilerden gelen Hibernate vekilleri yazma cevaplarında serileştirilebilsin
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "appointments")
+// Kısıtı V9 migration'ı kurar; ddl-auto=validate onu denetlemez, buradaki tanım belge niteliğindedir
+@Table(name = "appointments", uniqueConstraints = @UniqueConstraint(
+        name = "uk_appointments_date_queue", columnNames = {"appointment_date", "queue_number"}))
 public class Appointment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_tc", referencedColumnName = "tc")
     private Patient patient;
 
@@ -37,7 +43,8 @@ public class Appointment {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        appointmentDate = LocalDate.now();
+        // Sıra numarası o güne göre dağıtıldı; gece yarısı sınırında tarih kaymasın
+        if (appointmentDate == null) appointmentDate = LocalDate.now();
     }
 
     public Long getActualWaitMinutes() {
@@ -9,10 +9,11 @@ import java.time.LocalDateTime;
 public class DoctorNote {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_notes_seq")
+    @SequenceGenerator(name = "doctor_notes_seq", sequenceName = "doctor_notes_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "appointment_id")
     private Appointment appointment;
 
@@ -0,0 +1,84 @@
+package com.acil.er_backend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.util.List;
+
+/**
+ * medical_data.json içindeki tek bir kaydın değişmez, tipli karşılığı.
+ * JSON görünümü veri setindeki alan adlarını korur; semptomlar ayrıca
+ * veri seti sözlüğündeki artan sıralı kimlikler olarak tutulur.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"id", "input_text", "symptoms", "urgency_level", "urgency_label", "response", "reasoning"})
+public final class MedicalRecord {
+
+    private final int id;
+    private final String inputText;
+    private final List<String> symptoms;
+    private final int[] symptomIds;
+    private final int urgencyLevel;
+    private final String urgencyLabel;
+    private final String response;
+    private final String reasoning;
+
+    public MedicalRecord(int id, String inputText, List<String> symptoms, int[] symptomIds,
+            int urgencyLevel, String urgencyLabel, String response, String reasoning) {
+        this.id = id;
+        this.inputText = inputText;
+        this.symptoms = List.copyOf(symptoms);
+        this.symptomIds = symptomIds.clone();
+        this.urgencyLevel = urgencyLevel;
+        this.urgencyLabel = urgencyLabel;
+        this.response = response;
+        this.reasoning = reasoning;
+    }
+
+    /**
+     * Kaydın semptomlarından kaçının verilen kimlik kümesinde olduğunu sayar.
+     * {@code sortedIds} artan sırada ve tekrarsız olmalıdır.
+     */
+    public int matchCount(int[] sortedIds) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < symptomIds.length && j < sortedIds.length) {
+            if (symptomIds[i] == sortedIds[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (symptomIds[i] < sortedIds[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    @JsonProperty("id")
+    public int getId() { return id; }
+
+    @JsonProperty("input_text")
+    public String getInputText() { return inputText; }
+
+    @JsonProperty("symptoms")
+    public List<String> getSymptoms() { return symptoms; }
+
+    @JsonIgnore
+    public int getSymptomCount() { return symptomIds.length; }
+
+    @JsonProperty("urgency_level")
+    public int getUrgencyLevel() { return urgencyLevel; }
+
+    @JsonProperty("urgency_label")
+    public String getUrgencyLabel() { return urgencyLabel; }
+
+    @JsonProperty("response")
+    public String getResponse() { return response; }
+
+    @JsonProperty("reasoning")
+    public String getReasoning() { return reasoning; }
+}
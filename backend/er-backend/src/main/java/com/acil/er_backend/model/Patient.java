@@ -1,13 +1,19 @@
 package com.acil.er_backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
 @Table(name = "patients")
 public class Patient {
 
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
     @Id
     @Column(length = 11)
     @NotBlank(message = "TC kimlik numarası boş olamaz")
@@ -24,9 +30,25 @@ public class Patient {
 
     private LocalDateTime createdAt;
 
+    // Ad araması için Türkçe küçük harfe çevrilmiş ad (I→ı, İ→i); istemciye gösterilmez
+    @JsonIgnore
+    private String nameFolded;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        nameFolded = foldName(name);
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        nameFolded = foldName(name);
+    }
+
+    /** Arama anahtarı: Türkçe küçük harf, boşluklar tekilleştirilmiş. */
+    public static String foldName(String name) {
+        if (name == null) return null;
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(TURKISH);
     }
 
     public String getTc() { return tc; }
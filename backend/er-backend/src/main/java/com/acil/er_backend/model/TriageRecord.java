@@ -8,10 +8,11 @@ import java.time.LocalDateTime;
 public class TriageRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "triage_records_seq")
+    @SequenceGenerator(name = "triage_records_seq", sequenceName = "triage_records_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "appointment_id")
     private Appointment appointment;
 
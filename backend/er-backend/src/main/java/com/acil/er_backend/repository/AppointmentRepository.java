@@ -1,7 +1,9 @@
 package com.acil.er_backend.repository;
 
+import com.acil.er_backend.dto.AppointmentSummary;
 import com.acil.er_backend.model.Appointment;
 import com.acil.er_backend.model.AppointmentStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,9 +13,30 @@ import java.util.Optional;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
+    String SUMMARY = "SELECT new com.acil.er_backend.dto.AppointmentSummary(a.id, a.queueNumber, a.appointmentDate, "
+            + "a.status, a.chiefComplaint, a.estimatedWaitMinutes, a.createdAt, a.calledAt, a.startedAt, a.completedAt";
+    String SUMMARY_WITH_PATIENT = SUMMARY + ", p.tc, p.name) FROM Appointment a LEFT JOIN a.patient p ";
+
+    // Tek randevu yüklemelerinde hasta aynı sorguda gelir (durum güncelleme, triyaj, doktor notu)
+    @Override
+    @EntityGraph(attributePaths = "patient")
+    Optional<Appointment> findById(Long id);
+
+    @EntityGraph(attributePaths = "patient")
     List<Appointment> findByAppointmentDateOrderByQueueNumberAsc(LocalDate date);
 
-    List<Appointment> findByAppointmentDateAndStatusOrderByQueueNumberAsc(LocalDate date, AppointmentStatus status);
+    @Query(SUMMARY_WITH_PATIENT + "WHERE a.appointmentDate = :date ORDER BY a.queueNumber")
+    List<AppointmentSummary> findSummariesByDate(@Param("date") LocalDate date);
+
+    @Query(SUMMARY_WITH_PATIENT + "WHERE a.appointmentDate = :date AND a.status = :status ORDER BY a.queueNumber")
+    List<AppointmentSummary> findSummariesByDateAndStatus(@Param("date") LocalDate date, @Param("status") AppointmentStatus status);
+
+    @Query(SUMMARY_WITH_PATIENT + "WHERE a.id = :id")
+    Optional<AppointmentSummary> findSummaryById(@Param("id") Long id);
+
+    // Hasta geçmişi: hasta cevabın kendisinde, her satırda tekrarlanmaz
+    @Query(SUMMARY + ") FROM Appointment a WHERE a.patient.tc = :tc ORDER BY a.createdAt DESC")
+    List<AppointmentSummary> findSummariesByPatientTc(@Param("tc") String tc);
 
     @Query("SELECT COALESCE(MAX(a.queueNumber), 0) FROM Appointment a WHERE a.appointmentDate = :date")
     int findTodayMaxQueueNumber(@Param("date") LocalDate date);
@@ -24,7 +47,23 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.appointmentDate = :date AND a.status = :status AND a.queueNumber < :queueNumber")
     long countWaitingAhead(@Param("date") LocalDate date, @Param("status") AppointmentStatus status, @Param("queueNumber") Integer queueNumber);
 
-    List<Appointment> findAllByPatientTcOrderByCreatedAtDesc(String tc);
-
     long countByStatusAndCompletedAtAfter(AppointmentStatus status, java.time.LocalDateTime completedAt);
+
+    // [status, adet, bekleme dakikaları toplamı, bekleme sayısı]; bekleme = çağrılma - kayıt, tam dakikaya aşağı yuvarlanır.
+    // Saniyeden hesaplanır: bazı veritabanlarında dakika farkı geçilen dakika sınırlarını sayar
+    @Query("SELECT a.status, COUNT(a), COALESCE(SUM(FLOOR(((a.calledAt - a.createdAt) BY SECOND) / 60.0)), 0), COUNT(a.calledAt) "
+            + "FROM Appointment a WHERE a.appointmentDate = :date GROUP BY a.status")
+    List<Object[]> summarizeByStatus(@Param("date") LocalDate date);
+
+    // [calledAt, startedAt, completedAt, son triyaj seviyesi]; en yeniden eskiye, bekleme tahmincisini tohumlamak için.
+    // Son triyaj createdAt'e göre seçilir: kimlikler örnek başına dizi bloklarından geldiği için zaman sırası vermez
+    @Query("SELECT a.calledAt, a.startedAt, a.completedAt, "
+            + "(SELECT COALESCE(t.triageLevel, t.aiSuggestedLevel) FROM TriageRecord t WHERE t.appointment = a "
+            + " ORDER BY t.createdAt DESC, t.id DESC LIMIT 1) "
+            + "FROM Appointment a WHERE a.status = :status AND a.completedAt > :since ORDER BY a.completedAt DESC")
+    List<Object[]> findServiceTimesSince(@Param("status") AppointmentStatus status,
+            @Param("since") java.time.LocalDateTime since, org.springframework.data.domain.Pageable page);
+
+    @Query("SELECT a.completedAt FROM Appointment a WHERE a.status = :status AND a.completedAt > :since")
+    List<java.time.LocalDateTime> findCompletedAtAfter(@Param("status") AppointmentStatus status, @Param("since") java.time.LocalDateTime since);
 }
@@ -0,0 +1,92 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.dto.AppointmentSummary;
+import com.acil.er_backend.dto.DoctorNoteView;
+import com.acil.er_backend.dto.TriageRecordView;
+import com.acil.er_backend.model.AppointmentStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Soğuk depolama (*_archive tabloları). Tamamlanmış eski randevuları bağlı
+ * kayıtlarıyla birlikte taşır ve geçmiş ekranları için sıcak tablolarla aynı
+ * görünümlerde (özet/görünüm DTO'ları) okur.
+ */
+@Repository
+public class ArchiveRepository {
+
+    private static final String APPOINTMENT_COLUMNS = "id, patient_tc, queue_number, appointment_date, status, "
+            + "chief_complaint, estimated_wait_minutes, basic_symptoms_csv, created_at, called_at, started_at, completed_at";
+    private static final String TRIAGE_COLUMNS = "id, appointment_id, nurse_symptoms_csv, temperature, pulse, bp_high, "
+            + "bp_low, oxygen_saturation, respiratory_rate, pain_level, blood_glucose, triage_level, ai_suggested_level, "
+            + "ai_confidence, suggestions_json, notes, created_by, created_at";
+    private static final String NOTE_COLUMNS = "id, appointment_id, diagnosis, secondary_diagnosis, plan, prescription, "
+            + "lab_orders, follow_up_date, follow_up_notes, referral_needed, referral_department, rest_days, created_by, created_at";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ArchiveRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * {@code before} tarihinden önceki en fazla {@code limit} tamamlanmış randevuyu
+     * triyaj kayıtları ve doktor notlarıyla birlikte arşive taşır. Satırlar taşıma
+     * boyunca kilitlenir; araya yeni bağlı kayıt giremez.
+     *
+     * @return taşınan randevu sayısı
+     */
+    @Transactional
+    public int moveCompletedBefore(LocalDate before, int limit) {
+        MapSqlParameterSource select = new MapSqlParameterSource()
+                .addValue("before", before)
+                .addValue("statuses", List.of(AppointmentStatus.DONE.name(), AppointmentStatus.NO_SHOW.name()))
+                .addValue("limit", limit);
+        List<Long> ids = jdbc.queryForList("SELECT id FROM appointments WHERE appointment_date < :before "
+                + "AND status IN (:statuses) ORDER BY id LIMIT :limit FOR UPDATE", select, Long.class);
+        if (ids.isEmpty()) return 0;
+
+        MapSqlParameterSource byIds = new MapSqlParameterSource("ids", ids);
+        jdbc.update("INSERT INTO appointments_archive (" + APPOINTMENT_COLUMNS + ") SELECT " + APPOINTMENT_COLUMNS
+                + " FROM appointments WHERE id IN (:ids)", byIds);
+        jdbc.update("INSERT INTO triage_records_archive (" + TRIAGE_COLUMNS + ") SELECT " + TRIAGE_COLUMNS
+                + " FROM triage_records WHERE appointment_id IN (:ids)", byIds);
+        jdbc.update("INSERT INTO doctor_notes_archive (" + NOTE_COLUMNS + ") SELECT " + NOTE_COLUMNS
+                + " FROM doctor_notes WHERE appointment_id IN (:ids)", byIds);
+        jdbc.update("DELETE FROM doctor_notes WHERE appointment_id IN (:ids)", byIds);
+        jdbc.update("DELETE FROM triage_records WHERE appointment_id IN (:ids)", byIds);
+        return jdbc.update("DELETE FROM appointments WHERE id IN (:ids)", byIds);
+    }
+
+    public Optional<AppointmentSummary> findAppointmentById(Long id) {
+        return jdbc.query("SELECT a.*, p.name AS patient_name FROM appointments_archive a "
+                + "LEFT JOIN patients p ON p.tc = a.patient_tc WHERE a.id = :id", Map.of("id", id),
+                (rs, n) -> ViewRows.appointment(rs, true)).stream().findFirst();
+    }
+
+    /** Hastanın arşivdeki randevuları, en yeni önce; hasta bilgisi satırlara konmaz. */
+    public List<AppointmentSummary> findAppointmentsByPatientTc(String tc) {
+        return jdbc.query("SELECT * FROM appointments_archive WHERE patient_tc = :tc ORDER BY created_at DESC",
+                Map.of("tc", tc), (rs, n) -> ViewRows.appointment(rs, false));
+    }
+
+    /** Verilen arşiv randevularının triyaj kayıtları, en yeni önce. */
+    public List<TriageRecordView> findTriageRecords(List<Long> appointmentIds, boolean withSuggestions) {
+        if (appointmentIds.isEmpty()) return List.of();
+        return jdbc.query("SELECT * FROM triage_records_archive WHERE appointment_id IN (:ids) ORDER BY created_at DESC",
+                Map.of("ids", appointmentIds), (rs, n) -> ViewRows.triageRecord(rs, withSuggestions));
+    }
+
+    /** Verilen arşiv randevularının doktor notları, en yeni önce. */
+    public List<DoctorNoteView> findDoctorNotes(List<Long> appointmentIds) {
+        if (appointmentIds.isEmpty()) return List.of();
+        return jdbc.query("SELECT * FROM doctor_notes_archive WHERE appointment_id IN (:ids) ORDER BY created_at DESC",
+                Map.of("ids", appointmentIds), (rs, n) -> ViewRows.doctorNote(rs));
+    }
+}
@@ -1,5 +1,6 @@
 package com.acil.er_backend.repository;
 
+import com.acil.er_backend.dto.DoctorNoteView;
 import com.acil.er_backend.model.DoctorNote;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,8 +9,13 @@ import java.util.List;
 
 public interface DoctorNoteRepository extends JpaRepository<DoctorNote, Long> {
 
-    List<DoctorNote> findByAppointment_IdOrderByCreatedAtDesc(Long appointmentId);
+    String VIEW = "SELECT new com.acil.er_backend.dto.DoctorNoteView(d.id, d.appointment.id, d.diagnosis, "
+            + "d.secondaryDiagnosis, d.plan, d.prescription, d.labOrders, d.followUpDate, d.followUpNotes, "
+            + "d.referralNeeded, d.referralDepartment, d.restDays, d.createdBy, d.createdAt) ";
 
-    @Query("SELECT d FROM DoctorNote d WHERE d.appointment.patient.tc = :tc ORDER BY d.createdAt DESC")
-    List<DoctorNote> findAllByPatientTcOrderByCreatedAtDesc(@Param("tc") String tc);
+    @Query(VIEW + "FROM DoctorNote d WHERE d.appointment.id = :appointmentId ORDER BY d.createdAt DESC")
+    List<DoctorNoteView> findViewsByAppointmentId(@Param("appointmentId") Long appointmentId);
+
+    @Query(VIEW + "FROM DoctorNote d JOIN d.appointment a WHERE a.patient.tc = :tc ORDER BY d.createdAt DESC")
+    List<DoctorNoteView> findViewsByPatientTc(@Param("tc") String tc);
 }
@@ -0,0 +1,124 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.Patient;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Eski sistemden toplu aktarımın yazma tarafı. Her çağrı bir partiyi işler:
+ * mevcut kayıtlar tek bir IN sorgusuyla ayıklanır, yeniler JDBC batch ile
+ * tek transaction'da yazılır. Geçmiş ziyaretler tamamlanmış oldukları için
+ * doğrudan arşiv tablosuna gider; canlı kuyruk ve pano onları görmez.
+ */
+@Repository
+public class PatientImportRepository {
+
+    // V8'deki dizi artışı ve varlıklardaki allocationSize ile aynı
+    private static final int ID_POOL = 50;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final PatientTimelineRepository timeline;
+
+    public PatientImportRepository(NamedParameterJdbcTemplate jdbc, PatientTimelineRepository timeline) {
+        this.jdbc = jdbc;
+        this.timeline = timeline;
+    }
+
+    /** Verilen TC'lerden kayıtlı olanlar. */
+    public Set<String> findExistingTcs(Collection<String> tcs) {
+        if (tcs.isEmpty()) return Set.of();
+        return new HashSet<>(jdbc.queryForList("SELECT tc FROM patients WHERE tc IN (:tcs)",
+                new MapSqlParameterSource("tcs", tcs), String.class));
+    }
+
+    @Transactional
+    public void insertPatients(List<Patient> patients) {
+        if (patients.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        MapSqlParameterSource[] batch = patients.stream().map(p -> new MapSqlParameterSource()
+                .addValue("tc", p.getTc())
+                .addValue("name", p.getName())
+                .addValue("nameFolded", Patient.foldName(p.getName()))
+                .addValue("birthYear", p.getBirthYear())
+                .addValue("gender", p.getGender())
+                .addValue("createdAt", now)).toArray(MapSqlParameterSource[]::new);
+        jdbc.batchUpdate("INSERT INTO patients (tc, name, name_folded, birth_year, gender, created_at) "
+                + "VALUES (:tc, :name, :nameFolded, :birthYear, :gender, :createdAt)", batch);
+    }
+
+    /** Aynı hastanın aynı geliş zamanlı ziyareti (sıcak ya da arşivde) zaten varsa o ziyaretler. */
+    public Set<Visit> findExistingVisits(Collection<Visit> visits) {
+        if (visits.isEmpty()) return Set.of();
+        Set<String> tcs = new HashSet<>();
+        Set<LocalDateTime> times = new HashSet<>();
+        visits.forEach(v -> {
+            tcs.add(v.tc());
+            times.add(v.arrivedAt());
+        });
+        MapSqlParameterSource params = new MapSqlParameterSource("tcs", tcs).addValue("times", times);
+        Set<Visit> keys = new HashSet<>();
+        jdbc.query("SELECT patient_tc, created_at FROM appointments WHERE patient_tc IN (:tcs) AND created_at IN (:times) "
+                + "UNION ALL SELECT patient_tc, created_at FROM appointments_archive "
+                + "WHERE patient_tc IN (:tcs) AND created_at IN (:times)", params,
+                (RowCallbackHandler) rs -> keys.add(Visit.key(rs.getString(1), rs.getObject(2, LocalDateTime.class))));
+        Set<Visit> existing = new HashSet<>();
+        for (Visit v : visits) {
+            if (keys.contains(Visit.key(v.tc(), v.arrivedAt()))) existing.add(v);
+        }
+        return existing;
+    }
+
+    /**
+     * Ziyaretleri tamamlanmış randevu olarak arşive yazar ve hasta geçmişi
+     * başlığını günceller. Kimlikler Hibernate ile aynı diziden, aynı blok
+     * düzeniyle alınır: dönen değer {@value #ID_POOL}'lik bloğun üst ucudur.
+     */
+    @Transactional
+    public void insertArchivedVisits(List<Visit> visits) {
+        if (visits.isEmpty()) return;
+        List<MapSqlParameterSource> batch = new ArrayList<>();
+        Map<String, List<LocalDateTime>> byTc = new HashMap<>();
+        long next = 0;
+        long last = -1;
+        for (Visit v : visits) {
+            if (next > last) {
+                last = jdbc.getJdbcTemplate().queryForObject("SELECT nextval('appointments_seq')", Long.class);
+                // Boş dizinin ilk değeri 1'dir; bloğun sıfır ve altı kısmı kullanılmaz
+                next = Math.max(1, last - ID_POOL + 1);
+            }
+            batch.add(new MapSqlParameterSource()
+                    .addValue("id", next++)
+                    .addValue("tc", v.tc())
+                    .addValue("date", v.arrivedAt().toLocalDate())
+                    .addValue("status", AppointmentStatus.DONE.name())
+                    .addValue("complaint", v.chiefComplaint())
+                    .addValue("createdAt", v.arrivedAt())
+                    .addValue("completedAt", v.completedAt()));
+            byTc.computeIfAbsent(v.tc(), tc -> new ArrayList<>()).add(v.arrivedAt());
+        }
+        jdbc.batchUpdate("INSERT INTO appointments_archive (id, patient_tc, appointment_date, status, chief_complaint, "
+                + "created_at, completed_at) VALUES (:id, :tc, :date, :status, :complaint, :createdAt, :completedAt)",
+                batch.toArray(MapSqlParameterSource[]::new));
+        timeline.recordVisits(byTc);
+    }
+
+    /** Aktarılan tek geçmiş ziyaret; aynı hastada geliş zamanı ziyareti tanımlar. */
+    public record Visit(String tc, LocalDateTime arrivedAt, LocalDateTime completedAt, String chiefComplaint) {
+
+        static Visit key(String tc, LocalDateTime arrivedAt) {
+            return new Visit(tc, arrivedAt, null, null);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.dto.PatientSearchCriteria;
+import com.acil.er_backend.model.Patient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hasta listesi ve araması. Tüm kayıt hiçbir zaman belleğe alınmaz: sayfalar
+ * (ad, tc) ya da tc üzerinde imleçle okunur, dışa aktarım ise sınırlı
+ * fetch size'lı bir JDBC imleciyle satır satır akıtılır. Ad araması
+ * {@link Patient#foldName} ile katlanmış {@code name_folded} sütununda önek
+ * eşleşmesidir ve V7 indeksini kullanır.
+ */
+@Repository
+public class PatientSearchRepository {
+
+    private static final String COLUMNS = "tc, name, birth_year, gender, created_at";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate streaming;
+
+    public PatientSearchRepository(NamedParameterJdbcTemplate jdbc,
+            @Value("${app.patients.stream-fetch-size:500}") int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size en az 1 olmalı: " + fetchSize);
+        }
+        this.jdbc = jdbc;
+        JdbcTemplate template = new JdbcTemplate(jdbc.getJdbcTemplate().getDataSource());
+        template.setFetchSize(fetchSize);
+        this.streaming = new NamedParameterJdbcTemplate(template);
+    }
+
+    /** {@code after} imlecinden sonraki en fazla {@code limit} hasta; ad öneki varsa ada, yoksa tc'ye göre sıralı. */
+    public List<Patient> findPage(PatientSearchCriteria criteria, Cursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM patients");
+        sql.append(where(criteria, params));
+        boolean byName = criteria.getNamePrefix() != null;
+        if (after != null) {
+            if (byName != (after.name() != null)) {
+                throw new IllegalArgumentException("İmleç bu aramaya ait değil.");
+            }
+            params.addValue("afterTc", after.tc());
+            if (byName) {
+                params.addValue("afterName", after.name());
+                sql.append(" AND (name_folded > :afterName OR (name_folded = :afterName AND tc > :afterTc))");
+            } else {
+                sql.append(" AND tc > :afterTc");
+            }
+        }
+        sql.append(byName ? " ORDER BY name_folded, tc" : " ORDER BY tc").append(" LIMIT :limit");
+        return jdbc.query(sql.toString(), params, (rs, n) -> patient(rs));
+    }
+
+    /**
+     * Süzgece uyan tüm hastaları tc sırasıyla {@code sink}'e verir. Satırlar
+     * veritabanı imlecinden fetch size kadar parça parça çekilir; PostgreSQL
+     * imleci yalnızca transaction içinde açtığından metot transaction'lıdır.
+     */
+    @Transactional(readOnly = true)
+    public void forEach(PatientSearchCriteria criteria, Consumer<Patient> sink) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT " + COLUMNS + " FROM patients" + where(criteria, params) + " ORDER BY tc";
+        streaming.query(sql, params, (RowCallbackHandler) rs -> sink.accept(patient(rs)));
+    }
+
+    // Her zaman "WHERE" ile başlar ki imleç koşulu "AND" ile eklenebilsin
+    private static String where(PatientSearchCriteria criteria, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (criteria.getNamePrefix() != null) {
+            params.addValue("prefix", escapeLike(Patient.foldName(criteria.getNamePrefix())) + "%");
+            where.append(" AND name_folded LIKE :prefix ESCAPE '\\'");
+        }
+        if (criteria.getBirthYear() != null) {
+            params.addValue("birthYear", criteria.getBirthYear());
+            where.append(" AND birth_year = :birthYear");
+        }
+        if (criteria.getGender() != null) {
+            params.addValue("gender", criteria.getGender());
+            where.append(" AND gender = :gender");
+        }
+        return where.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static Patient patient(ResultSet rs) throws SQLException {
+        Patient p = new Patient();
+        p.setTc(rs.getString("tc"));
+        p.setName(rs.getString("name"));
+        p.setBirthYear(rs.getObject("birth_year", Integer.class));
+        p.setGender(rs.getString("gender"));
+        p.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        return p;
+    }
+
+    /** Sayfanın son hastasının konumu; istemciye opak bir dize olarak verilir. */
+    public record Cursor(String name, String tc) {
+
+        public static Cursor after(Patient patient, boolean byName) {
+            // Saklanan name_folded ile aynı fonksiyon; ayrıca okumaya gerek yok
+            return new Cursor(byName ? Patient.foldName(patient.getName()) : null, patient.getTc());
+        }
+
+        public static Cursor parse(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                // tc yalnızca rakamdır; ayraç son '~' karakteridir, adın içinde de geçebilir
+                int split = raw.lastIndexOf('~');
+                if (split < 0) throw new IllegalArgumentException("Geçersiz imleç: " + token);
+                String name = raw.substring(0, split);
+                return new Cursor(name.isEmpty() ? null : name.substring(1), raw.substring(split + 1));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Geçersiz imleç: " + token, e);
+            }
+        }
+
+        public String encode() {
+            // Ad varsa başına '=' konur ki boş ad ile "ad yok" ayırt edilebilsin
+            String raw = (name == null ? "" : "=" + name) + "~" + tc;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
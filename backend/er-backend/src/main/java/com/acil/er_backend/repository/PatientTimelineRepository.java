@@ -0,0 +1,266 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.dto.PatientHistorySummary;
+import com.acil.er_backend.dto.TimelineEntry;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import java.nio.charset.StandardCharsets;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Hasta geçmişinin okuma modeli. Randevu, triyaj ve doktor notları sıcak ve
+ * arşiv tablolarından tek bir UNION ALL sorgusuyla, (created_at, tür, id)
+ * üzerinde imleçle sayfalanarak okunur. Her kol kendi indeksinden en fazla
+ * bir sayfa satır getirir; geçmiş büyüdükçe sayfa maliyeti sabit kalır.
+ * Başlıktaki sayılar patient_history_summary tablosunda yazma anında tutulur;
+ * hastanın ilk yazımında satırı aynı anda açmaya çalışan işlemlerden biri
+ * kazanır, diğeri güncellemeye döner.
+ */
+@Repository
+public class PatientTimelineRepository {
+
+    /** Birleşik satır düzeni: sütun adı ve boş kolların NULL dönüşümü için SQL tipi. */
+    private static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", "BIGINT");
+        COLUMNS.put("appointment_id", "BIGINT");
+        COLUMNS.put("created_at", "TIMESTAMP(6)");
+        COLUMNS.put("created_by", "VARCHAR(255)");
+        COLUMNS.put("queue_number", "INTEGER");
+        COLUMNS.put("appointment_date", "DATE");
+        COLUMNS.put("status", "VARCHAR(255)");
+        COLUMNS.put("chief_complaint", "VARCHAR(255)");
+        COLUMNS.put("estimated_wait_minutes", "INTEGER");
+        COLUMNS.put("called_at", "TIMESTAMP(6)");
+        COLUMNS.put("started_at", "TIMESTAMP(6)");
+        COLUMNS.put("completed_at", "TIMESTAMP(6)");
+        COLUMNS.put("nurse_symptoms_csv", "VARCHAR(255)");
+        COLUMNS.put("temperature", "FLOAT(53)");
+        COLUMNS.put("pulse", "INTEGER");
+        COLUMNS.put("bp_high", "INTEGER");
+        COLUMNS.put("bp_low", "INTEGER");
+        COLUMNS.put("oxygen_saturation", "INTEGER");
+        COLUMNS.put("respiratory_rate", "INTEGER");
+        COLUMNS.put("pain_level", "INTEGER");
+        COLUMNS.put("blood_glucose", "INTEGER");
+        COLUMNS.put("triage_level", "VARCHAR(255)");
+        COLUMNS.put("ai_suggested_level", "VARCHAR(255)");
+        COLUMNS.put("ai_confidence", "INTEGER");
+        COLUMNS.put("notes", "TEXT");
+        COLUMNS.put("diagnosis", "TEXT");
+        COLUMNS.put("secondary_diagnosis", "VARCHAR(255)");
+        COLUMNS.put("plan", "TEXT");
+        COLUMNS.put("prescription", "TEXT");
+        COLUMNS.put("lab_orders", "TEXT");
+        COLUMNS.put("follow_up_date", "DATE");
+        COLUMNS.put("follow_up_notes", "TEXT");
+        COLUMNS.put("referral_needed", "BOOLEAN");
+        COLUMNS.put("referral_department", "VARCHAR(255)");
+        COLUMNS.put("rest_days", "INTEGER");
+    }
+
+    private static final Set<String> APPOINTMENT_COLUMNS = Set.of("id", "created_at", "queue_number",
+            "appointment_date", "status", "chief_complaint", "estimated_wait_minutes", "called_at", "started_at",
+            "completed_at");
+    private static final Set<String> TRIAGE_COLUMNS = Set.of("id", "appointment_id", "created_at", "created_by",
+            "nurse_symptoms_csv", "temperature", "pulse", "bp_high", "bp_low", "oxygen_saturation", "respiratory_rate",
+            "pain_level", "blood_glucose", "triage_level", "ai_suggested_level", "ai_confidence", "notes");
+    private static final Set<String> NOTE_COLUMNS = Set.of("id", "appointment_id", "created_at", "created_by",
+            "diagnosis", "secondary_diagnosis", "plan", "prescription", "lab_orders", "follow_up_date",
+            "follow_up_notes", "referral_needed", "referral_department", "rest_days");
+
+    private static final String VISIT_UPDATE = "UPDATE patient_history_summary SET visit_count = visit_count + :count, "
+            + "last_visit_at = CASE WHEN last_visit_at IS NULL OR last_visit_at < :at THEN :at "
+            + "ELSE last_visit_at END WHERE patient_tc = :tc";
+    private static final String VISIT_INSERT = "INSERT INTO patient_history_summary "
+            + "(patient_tc, visit_count, last_visit_at) VALUES (:tc, :count, :at)";
+    private static final String TRIAGE_UPDATE = "UPDATE patient_history_summary SET last_triage_level = :level, "
+            + "last_triage_at = :at WHERE patient_tc = :tc";
+    private static final String TRIAGE_INSERT = "INSERT INTO patient_history_summary "
+            + "(patient_tc, visit_count, last_triage_level, last_triage_at) VALUES (:tc, 0, :level, :at)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public PatientTimelineRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Hastanın {@code after} imlecinden sonraki en fazla {@code limit} kaydı, en yeni önce.
+     * İmleç yoksa en baştan başlar.
+     */
+    public List<TimelineEntry> findPage(String tc, Cursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tc", tc)
+                .addValue("limit", limit);
+        if (after != null) {
+            params.addValue("at", after.createdAt()).addValue("id", after.id());
+        }
+        List<String> branches = new ArrayList<>();
+        for (String suffix : new String[] { "", "_archive" }) {
+            branches.add(branch(TimelineEntry.Type.APPOINTMENT, APPOINTMENT_COLUMNS,
+                    "appointments" + suffix + " x", "x.patient_tc = :tc", after));
+            branches.add(branch(TimelineEntry.Type.TRIAGE, TRIAGE_COLUMNS, "triage_records" + suffix
+                    + " x JOIN appointments" + suffix + " a ON a.id = x.appointment_id", "a.patient_tc = :tc", after));
+            branches.add(branch(TimelineEntry.Type.NOTE, NOTE_COLUMNS, "doctor_notes" + suffix
+                    + " x JOIN appointments" + suffix + " a ON a.id = x.appointment_id", "a.patient_tc = :tc", after));
+        }
+        String sql = "SELECT * FROM (" + String.join(" UNION ALL ", branches) + ") t "
+                + "ORDER BY t.created_at DESC, t.kind DESC, t.id DESC LIMIT :limit";
+        return jdbc.query(sql, params, (rs, n) -> switch (TimelineEntry.Type.values()[rs.getInt("kind")]) {
+            case APPOINTMENT -> TimelineEntry.of(ViewRows.appointment(rs, false));
+            case TRIAGE -> TimelineEntry.of(ViewRows.triageRecord(rs, false));
+            case NOTE -> TimelineEntry.of(ViewRows.doctorNote(rs));
+        });
+    }
+
+    /** Hasta kimliği ve tutulan özet; hasta yoksa boş. Özeti olmayan hasta sıfır ziyaretle döner. */
+    public Optional<PatientHistorySummary> findSummary(String tc) {
+        return jdbc.query("SELECT p.tc, p.name, p.birth_year, p.gender, s.visit_count, s.last_visit_at, "
+                + "s.last_triage_level, s.last_triage_at FROM patients p "
+                + "LEFT JOIN patient_history_summary s ON s.patient_tc = p.tc WHERE p.tc = :tc",
+                Map.of("tc", tc), (rs, n) -> new PatientHistorySummary(
+                        rs.getString("tc"),
+                        rs.getString("name"),
+                        rs.getObject("birth_year", Integer.class),
+                        rs.getString("gender"),
+                        rs.getInt("visit_count"),
+                        rs.getObject("last_visit_at", LocalDateTime.class),
+                        rs.getString("last_triage_level"),
+                        rs.getObject("last_triage_at", LocalDateTime.class))).stream().findFirst();
+    }
+
+    /** Yeni randevu: ziyaret sayısını artırır. Satır hastanın ilk ziyaretinde açılır (eskiler V4 ile dolduruldu). */
+    public void recordVisit(String tc, LocalDateTime at) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tc", tc)
+                .addValue("count", 1)
+                .addValue("at", at);
+        upsert(VISIT_UPDATE, VISIT_INSERT, params);
+    }
+
+    /**
+     * Toplu aktarılan geçmiş ziyaretler, hasta başına tek satır güncellemesiyle.
+     * Aktarılan ziyaretler mevcutlardan eski olabilir; son ziyaret yalnızca ileri alınır.
+     */
+    public void recordVisits(Map<String, List<LocalDateTime>> visitsByTc) {
+        List<MapSqlParameterSource> batch = new ArrayList<>();
+        visitsByTc.forEach((tc, times) -> batch.add(new MapSqlParameterSource()
+                .addValue("tc", tc)
+                .addValue("count", times.size())
+                .addValue("at", times.stream().max(LocalDateTime::compareTo).orElseThrow())));
+        MapSqlParameterSource[] params = batch.toArray(MapSqlParameterSource[]::new);
+        int[] updated = jdbc.batchUpdate(VISIT_UPDATE, params);
+        List<MapSqlParameterSource> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) missing.add(params[i]);
+        }
+        if (missing.isEmpty()) return;
+        MapSqlParameterSource[] inserts = missing.toArray(MapSqlParameterSource[]::new);
+        if (!insertUnlessTaken(() -> jdbc.batchUpdate(VISIT_INSERT, inserts))) {
+            // Partideki bir hastanın satırını araya giren başka bir yazım açtı; tek tek dene
+            missing.forEach(p -> upsert(VISIT_UPDATE, VISIT_INSERT, p));
+        }
+    }
+
+    /** Yeni triyaj kaydı: son triyaj seviyesini günceller. */
+    public void recordTriage(String tc, String level, LocalDateTime at) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tc", tc)
+                .addValue("level", level)
+                .addValue("at", at);
+        upsert(TRIAGE_UPDATE, TRIAGE_INSERT, params);
+    }
+
+    // Önce güncelle; satır yoksa aç. Aynı anda ilk yazımı yapan başka bir işlem satırı
+    // araya girip açtıysa INSERT birincil anahtarda çakışır ve güncelleme yinelenir.
+    private void upsert(String update, String insert, SqlParameterSource params) {
+        if (jdbc.update(update, params) == 0 && !insertUnlessTaken(() -> jdbc.update(insert, params))) {
+            jdbc.update(update, params);
+        }
+    }
+
+    // INSERT'i bir savepoint içinde çalıştırır; birincil anahtar çakışırsa savepoint'e döner ve
+    // false verir. PostgreSQL'de başarısız bir ifade tüm transaction'ı bozar, savepoint bunu önler.
+    private boolean insertUnlessTaken(Runnable insert) {
+        return Boolean.TRUE.equals(jdbc.getJdbcTemplate().execute((ConnectionCallback<Boolean>) con -> {
+            Savepoint savepoint = con.getAutoCommit() ? null : con.setSavepoint();
+            try {
+                insert.run();
+            } catch (DuplicateKeyException e) {
+                if (savepoint != null) con.rollback(savepoint);
+                return false;
+            }
+            if (savepoint != null) con.releaseSavepoint(savepoint);
+            return true;
+        }));
+    }
+
+    // Tek kol: kendi sütunları, diğerleri tipli NULL. İmleç koşulu kolun türüne göre
+    // sadeleşir ki created_at indeksi kullanılabilsin; her kol en fazla bir sayfa getirir.
+    private static String branch(TimelineEntry.Type type, Set<String> own, String from, String where, Cursor after) {
+        StringBuilder sql = new StringBuilder("(SELECT ").append(type.ordinal()).append(" AS kind");
+        COLUMNS.forEach((column, sqlType) -> {
+            sql.append(", ");
+            if (column.equals("appointment_id") && type == TimelineEntry.Type.APPOINTMENT) {
+                sql.append("x.id AS appointment_id");
+            } else if (own.contains(column)) {
+                sql.append("x.").append(column);
+            } else {
+                sql.append("CAST(NULL AS ").append(sqlType).append(") AS ").append(column);
+            }
+        });
+        sql.append(" FROM ").append(from).append(" WHERE ").append(where);
+        if (after != null) {
+            int cmp = Integer.compare(type.ordinal(), after.type().ordinal());
+            if (cmp < 0) {
+                sql.append(" AND x.created_at <= :at");
+            } else if (cmp == 0) {
+                sql.append(" AND (x.created_at < :at OR (x.created_at = :at AND x.id < :id))");
+            } else {
+                sql.append(" AND x.created_at < :at");
+            }
+        }
+        return sql.append(" ORDER BY x.created_at DESC, x.id DESC LIMIT :limit)").toString();
+    }
+
+    /** Sayfanın son kaydının konumu; istemciye opak bir dize olarak verilir. */
+    public record Cursor(LocalDateTime createdAt, TimelineEntry.Type type, long id) {
+
+        public static Cursor after(TimelineEntry entry) {
+            return new Cursor(entry.getCreatedAt(), entry.getType(), entry.getId());
+        }
+
+        public static Cursor parse(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("~");
+                if (parts.length != 3) throw new IllegalArgumentException("Geçersiz imleç: " + token);
+                return new Cursor(LocalDateTime.parse(parts[0]), TimelineEntry.Type.valueOf(parts[1]),
+                        Long.parseLong(parts[2]));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                // NumberFormatException ve Base64 hataları da IllegalArgumentException
+                throw new IllegalArgumentException("Geçersiz imleç: " + token, e);
+            }
+        }
+
+        public String encode() {
+            String raw = createdAt + "~" + type.name() + "~" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,15 +1,32 @@
 package com.acil.er_backend.repository;
 
+import com.acil.er_backend.dto.TriageRecordView;
 import com.acil.er_backend.model.TriageRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TriageRecordRepository extends JpaRepository<TriageRecord, Long> {
 
-    List<TriageRecord> findByAppointment_IdOrderByCreatedAtDesc(Long appointmentId);
+    String VIEW = "SELECT new com.acil.er_backend.dto.TriageRecordView(t.id, t.appointment.id, t.nurseSymptomsCsv, "
+            + "t.temperature, t.pulse, t.bpHigh, t.bpLow, t.oxygenSaturation, t.respiratoryRate, t.painLevel, "
+            + "t.bloodGlucose, t.triageLevel, t.aiSuggestedLevel, t.aiConfidence, t.notes, t.createdBy, t.createdAt";
 
-    @Query("SELECT t FROM TriageRecord t WHERE t.appointment.patient.tc = :tc ORDER BY t.createdAt DESC")
-    List<TriageRecord> findAllByPatientTcOrderByCreatedAtDesc(@Param("tc") String tc);
+    // Tek randevunun kayıtları öneri JSON'uyla birlikte (detay ekranı)
+    @Query(VIEW + ", t.suggestionsJson) FROM TriageRecord t WHERE t.appointment.id = :appointmentId ORDER BY t.createdAt DESC")
+    List<TriageRecordView> findViewsByAppointmentId(@Param("appointmentId") Long appointmentId);
+
+    @Query(VIEW + ") FROM TriageRecord t JOIN t.appointment a WHERE a.patient.tc = :tc ORDER BY t.createdAt DESC")
+    List<TriageRecordView> findViewsByPatientTc(@Param("tc") String tc);
+
+    // [appointmentId, triageLevel, aiSuggestedLevel], eskiden yeniye; randevu başına son kayıt geçerli
+    @Query("SELECT t.appointment.id, t.triageLevel, t.aiSuggestedLevel FROM TriageRecord t "
+            + "WHERE t.appointment.appointmentDate = :date ORDER BY t.createdAt ASC, t.id ASC")
+    List<Object[]> findLevelsForDate(@Param("date") LocalDate date);
+
+    // [triageLevel, adet]
+    @Query("SELECT t.triageLevel, COUNT(t) FROM TriageRecord t WHERE t.appointment.appointmentDate = :date GROUP BY t.triageLevel")
+    List<Object[]> countByLevelForDate(@Param("date") LocalDate date);
 }
@@ -0,0 +1,74 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.dto.AppointmentSummary;
+import com.acil.er_backend.dto.DoctorNoteView;
+import com.acil.er_backend.dto.TriageRecordView;
+import com.acil.er_backend.model.AppointmentStatus;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** JDBC ile okunan satırları (arşiv, zaman çizelgesi) sıcak tablolarla aynı görünüm DTO'larına çevirir. */
+final class ViewRows {
+
+    private ViewRows() {
+    }
+
+    static AppointmentSummary appointment(ResultSet rs, boolean withPatient) throws SQLException {
+        String status = rs.getString("status");
+        return new AppointmentSummary(
+                rs.getLong("id"),
+                rs.getObject("queue_number", Integer.class),
+                rs.getObject("appointment_date", LocalDate.class),
+                status != null ? AppointmentStatus.valueOf(status) : null,
+                rs.getString("chief_complaint"),
+                rs.getObject("estimated_wait_minutes", Integer.class),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("called_at", LocalDateTime.class),
+                rs.getObject("started_at", LocalDateTime.class),
+                rs.getObject("completed_at", LocalDateTime.class),
+                withPatient ? rs.getString("patient_tc") : null,
+                withPatient ? rs.getString("patient_name") : null);
+    }
+
+    static TriageRecordView triageRecord(ResultSet rs, boolean withSuggestions) throws SQLException {
+        return new TriageRecordView(
+                rs.getLong("id"),
+                rs.getObject("appointment_id", Long.class),
+                rs.getString("nurse_symptoms_csv"),
+                rs.getObject("temperature", Double.class),
+                rs.getObject("pulse", Integer.class),
+                rs.getObject("bp_high", Integer.class),
+                rs.getObject("bp_low", Integer.class),
+                rs.getObject("oxygen_saturation", Integer.class),
+                rs.getObject("respiratory_rate", Integer.class),
+                rs.getObject("pain_level", Integer.class),
+                rs.getObject("blood_glucose", Integer.class),
+                rs.getString("triage_level"),
+                rs.getString("ai_suggested_level"),
+                rs.getObject("ai_confidence", Integer.class),
+                rs.getString("notes"),
+                rs.getString("created_by"),
+                rs.getObject("created_at", LocalDateTime.class),
+                withSuggestions ? rs.getString("suggestions_json") : null);
+    }
+
+    static DoctorNoteView doctorNote(ResultSet rs) throws SQLException {
+        return new DoctorNoteView(
+                rs.getLong("id"),
+                rs.getObject("appointment_id", Long.class),
+                rs.getString("diagnosis"),
+                rs.getString("secondary_diagnosis"),
+                rs.getString("plan"),
+                rs.getString("prescription"),
+                rs.getString("lab_orders"),
+                rs.getObject("follow_up_date", LocalDate.class),
+                rs.getString("follow_up_notes"),
+                rs.getObject("referral_needed", Boolean.class),
+                rs.getString("referral_department"),
+                rs.getObject("rest_days", Integer.class),
+                rs.getString("created_by"),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,63 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.repository.ArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+
+/**
+ * Sıcak tabloları küçük tutar: ufuktan ({@code app.archive.horizon-days})
+ * eski tamamlanmış randevuları bağlı kayıtlarıyla birlikte gece, küçük
+ * partiler halinde soğuk tablolara taşır. Her parti ayrı bir transaction'dır;
+ * kilitler kısa sürer, yarıda kalan iş bir sonraki çalışmada devam eder.
+ * Geçmiş ekranları iki depoyu birlikte okur.
+ */
+@Component
+public class AppointmentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentArchiver.class);
+
+    private final ArchiveRepository archive;
+    private final int horizonDays;
+    private final int batchSize;
+
+    public AppointmentArchiver(ArchiveRepository archive,
+            @Value("${app.archive.horizon-days:90}") int horizonDays,
+            @Value("${app.archive.batch-size:500}") int batchSize) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("Arşiv ufku en az 1 gün olmalı: " + horizonDays);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Arşiv parti boyutu en az 1 olmalı: " + batchSize);
+        }
+        this.archive = archive;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        try {
+            archiveBefore(LocalDate.now().minusDays(horizonDays));
+        } catch (Exception e) {
+            log.error("Arşivleme yarıda kaldı, bir sonraki çalışmada devam edecek", e);
+        }
+    }
+
+    /** {@code before} tarihinden önceki tamamlanmış randevuları taşır; taşınan randevu sayısını döner. */
+    public int archiveBefore(LocalDate before) {
+        int total = 0;
+        int moved;
+        do {
+            moved = archive.moveCompletedBefore(before, batchSize);
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("{} tarihinden önceki {} randevu arşive taşındı", before, total);
+        }
+        return total;
+    }
+}
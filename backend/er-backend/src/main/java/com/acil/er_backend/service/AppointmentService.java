@@ -7,12 +7,14 @@ import java.util.List;
 
 public interface AppointmentService {
     Appointment createAppointment(String patientTc, String chiefComplaint, String basicSymptomsCsv);
-    List<Appointment> getTodayAppointments();
-    List<Appointment> getTodayAppointmentsByStatus(AppointmentStatus status);
+    List<AppointmentSummary> getTodayAppointments();
+    List<AppointmentSummary> getTodayAppointmentsByStatus(AppointmentStatus status);
     Appointment updateStatus(Long id, AppointmentStatus status);
+    Appointment callNext();
     AppointmentDetailResponse getDetail(Long id);
-    List<Appointment> getAppointmentsByPatientTc(String tc);
+    List<AppointmentSummary> getAppointmentsByPatientTc(String tc);
     PatientHistoryResponse getPatientHistory(String tc);
+    PatientTimelinePage getPatientTimeline(String tc, String cursor, int limit);
     DashboardStats getDashboardStats();
     WaitingRoomDisplay getWaitingRoomDisplay();
     MobileQueueStatus getMobileQueueStatus(String tc);
@@ -25,6 +27,7 @@ public interface AppointmentService {
         private Integer estimatedWaitMinutes;
         private String patientName;
         private String message;
+        private String version;
 
         public boolean isFound() { return found; }
         public void setFound(boolean found) { this.found = found; }
@@ -40,5 +43,7 @@ public interface AppointmentService {
         public void setPatientName(String patientName) { this.patientName = patientName; }
         public String getMessage() { return message; }
         public void setMessage(String message) { this.message = message; }
+        public String getVersion() { return version; }
+        public void setVersion(String version) { this.version = version; }
     }
 }
@@ -3,27 +3,45 @@ package com.acil.er_backend.service;
 import com.acil.er_backend.dto.*;
 import com.acil.er_backend.model.*;
 import com.acil.er_backend.repository.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 
 @Service
 public class AppointmentServiceImpl implements AppointmentService {
 
+    private static final int MAX_TIMELINE_PAGE = 100;
+
     private final AppointmentRepository appointmentRepo;
     private final PatientRepository patientRepo;
     private final TriageRecordRepository triageRepo;
     private final DoctorNoteRepository noteRepo;
+    private final LiveQueue liveQueue;
+    private final QueueNumberAllocator queueNumbers;
+    private final DashboardAggregator dashboard;
+    private final WaitTimeEstimator waitTimes;
+    private final ArchiveRepository archive;
+    private final PatientTimelineRepository timeline;
 
     public AppointmentServiceImpl(AppointmentRepository appointmentRepo, PatientRepository patientRepo,
-            TriageRecordRepository triageRepo, DoctorNoteRepository noteRepo) {
+            TriageRecordRepository triageRepo, DoctorNoteRepository noteRepo, LiveQueue liveQueue,
+            QueueNumberAllocator queueNumbers, DashboardAggregator dashboard, WaitTimeEstimator waitTimes,
+            ArchiveRepository archive, PatientTimelineRepository timeline) {
         this.appointmentRepo = appointmentRepo;
         this.patientRepo = patientRepo;
         this.triageRepo = triageRepo;
         this.noteRepo = noteRepo;
+        this.liveQueue = liveQueue;
+        this.queueNumbers = queueNumbers;
+        this.dashboard = dashboard;
+        this.waitTimes = waitTimes;
+        this.archive = archive;
+        this.timeline = timeline;
     }
 
     @Override
@@ -32,30 +50,51 @@ public class AppointmentServiceImpl implements AppointmentService {
         Patient patient = patientRepo.findByTc(patientTc)
                 .orElseThrow(() -> new NoSuchElementException("Hasta bulunamadı: " + patientTc));
 
-        int nextQueue = appointmentRepo.findTodayMaxQueueNumber(LocalDate.now()) + 1;
-        int waitingCount = getTodayAppointmentsByStatus(AppointmentStatus.WAITING).size();
+        LocalDate today = LocalDate.now();
 
         Appointment ap = new Appointment();
         ap.setPatient(patient);
-        ap.setQueueNumber(nextQueue);
-        ap.setAppointmentDate(LocalDate.now());
+        ap.setQueueNumber(queueNumbers.next(today));
+        ap.setAppointmentDate(today);
         ap.setStatus(AppointmentStatus.WAITING);
         ap.setChiefComplaint(chiefComplaint);
-        ap.setEstimatedWaitMinutes(waitingCount * 15);
+        // Kayıt anındaki tahmin; sonrası WaitTimeEstimator'dan canlı okunur
+        ap.setEstimatedWaitMinutes(waitTimes.estimateForNewArrival());
         ap.setBasicSymptomsCsv(basicSymptomsCsv);
         ap.setCreatedAt(LocalDateTime.now());
 
-        return appointmentRepo.save(ap);
+        Appointment saved;
+        try {
+            // Kimlik diziden geldiği için INSERT commit'e ertelenir; çakışma burada yakalansın diye hemen yazılır
+            saved = appointmentRepo.saveAndFlush(ap);
+        } catch (DataIntegrityViolationException e) {
+            // Numara başka bir örnekte de verilmiş; sayacı ileri al, bir sonraki deneme tutar
+            queueNumbers.resync(today);
+            throw new IllegalStateException("Sıra numarası çakıştı, lütfen tekrar deneyin.", e);
+        }
+        timeline.recordVisit(patientTc, saved.getCreatedAt());
+        liveQueue.record(saved);
+        return saved;
     }
 
     @Override
-    public List<Appointment> getTodayAppointments() {
-        return appointmentRepo.findByAppointmentDateOrderByQueueNumberAsc(LocalDate.now());
+    public List<AppointmentSummary> getTodayAppointments() {
+        return appointmentRepo.findSummariesByDate(LocalDate.now());
     }
 
     @Override
-    public List<Appointment> getTodayAppointmentsByStatus(AppointmentStatus status) {
-        return appointmentRepo.findByAppointmentDateAndStatusOrderByQueueNumberAsc(LocalDate.now(), status);
+    public List<AppointmentSummary> getTodayAppointmentsByStatus(AppointmentStatus status) {
+        List<AppointmentSummary> appointments =
+                appointmentRepo.findSummariesByDateAndStatus(LocalDate.now(), status);
+        if (status == AppointmentStatus.WAITING) {
+            // Personel listesi de bekleme ekranıyla aynı öncelik sırasını göstersin
+            Map<Long, Integer> rank = new HashMap<>();
+            List<LiveQueue.Entry> order = liveQueue.waitingByPriority();
+            for (int i = 0; i < order.size(); i++) rank.put(order.get(i).id(), i);
+            appointments = new ArrayList<>(appointments);
+            appointments.sort(Comparator.comparingInt(a -> rank.getOrDefault(a.getId(), Integer.MAX_VALUE)));
+        }
+        return appointments;
     }
 
     @Override
@@ -73,26 +112,42 @@ public class AppointmentServiceImpl implements AppointmentService {
             ap.setCompletedAt(LocalDateTime.now());
         }
 
-        return appointmentRepo.save(ap);
+        Appointment saved = appointmentRepo.save(ap);
+        liveQueue.record(saved);
+        return saved;
     }
 
     @Override
-    public AppointmentDetailResponse getDetail(Long id) {
-        Appointment ap = appointmentRepo.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Randevu bulunamadı: " + id));
+    @Transactional
+    public Appointment callNext() {
+        LiveQueue.Entry next = liveQueue.nextWaiting()
+                .orElseThrow(() -> new NoSuchElementException("Bekleyen hasta yok."));
+        return updateStatus(next.id(), AppointmentStatus.CALLED);
+    }
 
+    @Override
+    public AppointmentDetailResponse getDetail(Long id) {
         AppointmentDetailResponse resp = new AppointmentDetailResponse();
-        resp.setAppointment(ap);
-        resp.setPatient(ap.getPatient());
-        resp.setTriageRecords(triageRepo.findByAppointment_IdOrderByCreatedAtDesc(id));
-        resp.setDoctorNotes(noteRepo.findByAppointment_IdOrderByCreatedAtDesc(id));
+        Optional<AppointmentSummary> hot = appointmentRepo.findSummaryById(id);
+        if (hot.isPresent()) {
+            resp.setAppointment(hot.get());
+            resp.setTriageRecords(triageRepo.findViewsByAppointmentId(id));
+            resp.setDoctorNotes(noteRepo.findViewsByAppointmentId(id));
+        } else {
+            resp.setAppointment(archive.findAppointmentById(id)
+                    .orElseThrow(() -> new NoSuchElementException("Randevu bulunamadı: " + id)));
+            resp.setTriageRecords(archive.findTriageRecords(List.of(id), true));
+            resp.setDoctorNotes(archive.findDoctorNotes(List.of(id)));
+        }
+        resp.setPatient(resp.getAppointment().getPatient());
 
         return resp;
     }
 
     @Override
-    public List<Appointment> getAppointmentsByPatientTc(String tc) {
-        return appointmentRepo.findAllByPatientTcOrderByCreatedAtDesc(tc);
+    public List<AppointmentSummary> getAppointmentsByPatientTc(String tc) {
+        return newestFirst(appointmentRepo.findSummariesByPatientTc(tc),
+                archive.findAppointmentsByPatientTc(tc), AppointmentSummary::getCreatedAt);
     }
 
     @Override
@@ -102,69 +157,56 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         PatientHistoryResponse resp = new PatientHistoryResponse();
         resp.setPatient(patient);
-        resp.setAppointments(appointmentRepo.findAllByPatientTcOrderByCreatedAtDesc(tc));
-        resp.setTriageRecords(triageRepo.findAllByPatientTcOrderByCreatedAtDesc(tc));
-        resp.setDoctorNotes(noteRepo.findAllByPatientTcOrderByCreatedAtDesc(tc));
+        // Eski tamamlanmış randevular arşivde; iki depo tek liste olarak döner
+        List<AppointmentSummary> archived = archive.findAppointmentsByPatientTc(tc);
+        List<Long> archivedIds = archived.stream().map(AppointmentSummary::getId).toList();
+        resp.setAppointments(newestFirst(appointmentRepo.findSummariesByPatientTc(tc),
+                archived, AppointmentSummary::getCreatedAt));
+        resp.setTriageRecords(newestFirst(triageRepo.findViewsByPatientTc(tc),
+                archive.findTriageRecords(archivedIds, false), TriageRecordView::getCreatedAt));
+        resp.setDoctorNotes(newestFirst(noteRepo.findViewsByPatientTc(tc),
+                archive.findDoctorNotes(archivedIds), DoctorNoteView::getCreatedAt));
         resp.setUpdatedAt(java.time.LocalDateTime.now());
 
         return resp;
     }
 
     @Override
-    public DashboardStats getDashboardStats() {
-        List<Appointment> today = getTodayAppointments();
-
-        DashboardStats stats = new DashboardStats();
-        stats.setTotalToday(today.size());
-        stats.setWaiting((int) today.stream().filter(a -> a.getStatus() == AppointmentStatus.WAITING).count());
-        stats.setCalled((int) today.stream().filter(a -> a.getStatus() == AppointmentStatus.CALLED).count());
-        stats.setInProgress((int) today.stream().filter(a -> a.getStatus() == AppointmentStatus.IN_PROGRESS).count());
-        stats.setDone((int) today.stream().filter(a -> a.getStatus() == AppointmentStatus.DONE).count());
-        stats.setNoShow((int) today.stream().filter(a -> a.getStatus() == AppointmentStatus.NO_SHOW).count());
-
-        Map<String, Integer> levels = new HashMap<>();
-        List<TriageRecord> triages = new ArrayList<>();
-        for (Appointment ap : today) {
-            triages.addAll(triageRepo.findByAppointment_IdOrderByCreatedAtDesc(ap.getId()));
-        }
-        for (TriageRecord tr : triages) {
-            String level = tr.getTriageLevel() != null ? tr.getTriageLevel() : "BELIRSIZ";
-            levels.put(level, levels.getOrDefault(level, 0) + 1);
+    public PatientTimelinePage getPatientTimeline(String tc, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_TIMELINE_PAGE));
+        PatientTimelineRepository.Cursor after =
+                cursor == null || cursor.isBlank() ? null : PatientTimelineRepository.Cursor.parse(cursor);
+
+        PatientTimelinePage page = new PatientTimelinePage();
+        if (after == null) {
+            // Başlık yalnızca ilk sayfada; hasta yoksa burada düşer
+            page.setSummary(timeline.findSummary(tc)
+                    .orElseThrow(() -> new NoSuchElementException("Hasta bulunamadı: " + tc)));
         }
-        stats.setTriageLevels(levels);
-
-        double totalWait = 0;
-        int waitCount = 0;
-        for (Appointment ap : today) {
-            Long wait = ap.getActualWaitMinutes();
-            if (wait != null) {
-                totalWait += wait;
-                waitCount++;
-            }
+        // Bir fazlası okunur: sonraki sayfa var mı, ayrı sayım sorgusu gerekmez
+        List<TimelineEntry> entries = timeline.findPage(tc, after, size + 1);
+        if (entries.size() > size) {
+            entries = entries.subList(0, size);
+            page.setNextCursor(PatientTimelineRepository.Cursor.after(entries.get(size - 1)).encode());
         }
-        stats.setAvgWaitTime(waitCount > 0 ? totalWait / waitCount : null);
-
-        stats.setDoneLastHour(
-                Math.toIntExact(
-                        appointmentRepo.countByStatusAndCompletedAtAfter(
-                                AppointmentStatus.DONE,
-                                java.time.LocalDateTime.now().minusHours(1)
-                        )
-                )
-        );
-
-        return stats;
+        page.setEntries(entries);
+        return page;
+    }
+
+    @Override
+    public DashboardStats getDashboardStats() {
+        return dashboard.snapshot();
     }
 
     @Override
     public WaitingRoomDisplay getWaitingRoomDisplay() {
         WaitingRoomDisplay display = new WaitingRoomDisplay();
-        List<Appointment> called = getTodayAppointmentsByStatus(AppointmentStatus.CALLED);
-        if (!called.isEmpty()) {
-            Appointment current = called.get(0);
+        Optional<LiveQueue.Entry> called = liveQueue.currentCall();
+        if (called.isPresent()) {
+            LiveQueue.Entry current = called.get();
             WaitingRoomDisplay.CurrentCall call = new WaitingRoomDisplay.CurrentCall();
-            call.setQueueNumber(current.getQueueNumber());
-            String name = current.getPatient().getName();
+            call.setQueueNumber(current.queueNumber());
+            String name = current.patientName();
             String[] parts = name.split(" ");
             String maskedName = parts[0] + " " + (parts.length > 1 ? parts[parts.length - 1].charAt(0) + "***" : "");
             call.setPatientName(maskedName);
@@ -172,14 +214,15 @@ public class AppointmentServiceImpl implements AppointmentService {
             display.setCurrentCall(call);
         }
 
-        List<Appointment> waiting = getTodayAppointmentsByStatus(AppointmentStatus.WAITING);
+        List<LiveQueue.Entry> waiting = liveQueue.waitingByPriority();
         List<WaitingRoomDisplay.WaitingPatient> list = new ArrayList<>();
         for (int i = 0; i < waiting.size(); i++) {
-            Appointment ap = waiting.get(i);
+            LiveQueue.Entry ap = waiting.get(i);
             WaitingRoomDisplay.WaitingPatient wp = new WaitingRoomDisplay.WaitingPatient();
-            wp.setQueueNumber(ap.getQueueNumber());
+            wp.setQueueNumber(ap.queueNumber());
             wp.setStatus("Bekliyor");
             wp.setAheadCount(i);
+            wp.setEstimatedWaitMinutes(waitTimes.estimate(ap.id()));
             list.add(wp);
         }
         display.setWaitingList(list);
@@ -193,32 +236,53 @@ public class AppointmentServiceImpl implements AppointmentService {
     public MobileQueueStatus getMobileQueueStatus(String tc) {
         MobileQueueStatus status = new MobileQueueStatus();
 
-        Optional<Appointment> opt = appointmentRepo.findTodayActiveByTc(tc, LocalDate.now());
+        Optional<LiveQueue.Entry> opt = liveQueue.activeByTc(tc);
         if (opt.isEmpty()) {
             status.setFound(false);
             status.setMessage("Bugün için aktif randevunuz bulunmamaktadır.");
+            status.setVersion(versionOf(status));
             return status;
         }
 
-        Appointment ap = opt.get();
+        LiveQueue.Entry ap = opt.get();
         status.setFound(true);
-        status.setQueueNumber(ap.getQueueNumber());
-        status.setStatus(ap.getStatus().name());
-        status.setPatientName(ap.getPatient().getName());
-        status.setEstimatedWaitMinutes(ap.getEstimatedWaitMinutes());
+        status.setQueueNumber(ap.queueNumber());
+        status.setStatus(ap.status().name());
+        status.setPatientName(ap.patientName());
 
-        if (ap.getStatus() == AppointmentStatus.CALLED) {
+        if (ap.status() == AppointmentStatus.CALLED) {
+            status.setEstimatedWaitMinutes(0);
             status.setWaitingAhead(0);
             status.setMessage("Sıranız geldi! Lütfen muayene odasına geçiniz.");
-        } else if (ap.getStatus() == AppointmentStatus.IN_PROGRESS) {
+        } else if (ap.status() == AppointmentStatus.IN_PROGRESS) {
+            status.setEstimatedWaitMinutes(0);
             status.setWaitingAhead(0);
             status.setMessage("Muayeneniz devam ediyor.");
         } else {
-            long ahead = appointmentRepo.countWaitingAhead(LocalDate.now(), AppointmentStatus.WAITING, ap.getQueueNumber());
-            status.setWaitingAhead((int) ahead);
+            int ahead = liveQueue.waitingAhead(ap);
+            Integer estimate = waitTimes.estimate(ap.id());
+            status.setEstimatedWaitMinutes(estimate != null ? estimate : ap.estimatedWaitMinutes());
+            status.setWaitingAhead(ahead);
             status.setMessage("Sıranızı bekliyorsunuz. Önünüzde " + ahead + " kişi var.");
         }
 
+        status.setVersion(versionOf(status));
         return status;
     }
+
+    // Hastanın gördüğü alanların özeti; değişmediyse uzun yoklama cevap vermez
+    private static String versionOf(MobileQueueStatus s) {
+        return Integer.toHexString(Objects.hash(s.isFound(), s.getQueueNumber(), s.getStatus(),
+                s.getWaitingAhead(), s.getEstimatedWaitMinutes(), s.getPatientName(), s.getMessage()));
+    }
+
+    // Sıcak ve arşiv listeleri ayrı ayrı sıralı gelir; birleşim en yeniden eskiye yeniden sıralanır
+    private static <T> List<T> newestFirst(List<T> hot, List<T> archived, Function<T, LocalDateTime> createdAt) {
+        if (archived.isEmpty()) return hot;
+        List<T> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(createdAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return merged;
+    }
 }
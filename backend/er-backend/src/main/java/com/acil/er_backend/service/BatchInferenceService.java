@@ -0,0 +1,95 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.BatchInferRequest;
+import com.acil.er_backend.dto.MedicalSuggestion;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Toplu hasta girişinde (ör. afet tatbikatı) öneri çıkarımını sınırlı bir
+ * ForkJoin havuzunda paralel yürütür. Tüm parti tek veri seti görüntüsü
+ * üzerinde çalışır; aynı girdiye sahip kalemler tek bir işi paylaşır.
+ */
+@Service
+public class BatchInferenceService {
+
+    private final MedicalDataService medicalDataService;
+    private final MedicalInferenceService inferenceService;
+    private final ForkJoinPool pool;
+    private final int maxBatchSize;
+
+    public BatchInferenceService(MedicalDataService medicalDataService, MedicalInferenceService inferenceService,
+            @Value("${app.medical.batch.parallelism:0}") int parallelism,
+            @Value("${app.medical.batch.max-size:500}") int maxBatchSize) {
+        this.medicalDataService = medicalDataService;
+        this.inferenceService = inferenceService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Her kalem için, girdi sırasıyla bir sonuç döner. Kalem semptom listesi
+     * verirse /infer gibi semptomlardan, vermezse şikâyet metninden sıralanır.
+     * Geçersiz parti işe başlamadan {@link IllegalArgumentException} ile reddedilir.
+     */
+    public List<CompletableFuture<List<MedicalSuggestion>>> submit(
+            List<BatchInferRequest.Item> items, SymptomMatchMode defaultMode, int limit) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("En az bir hasta girdisi gerekli.");
+        }
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Bir partide en fazla " + maxBatchSize + " girdi olabilir.");
+        }
+
+        MedicalDataset data = medicalDataService.current();
+        // Modlar önce doğrulanır ki hatalı bir kalem yarım kalmış iş bırakmasın
+        List<SymptomMatchMode> modes = new ArrayList<>(items.size());
+        for (BatchInferRequest.Item item : items) {
+            modes.add(SymptomMatchMode.from(item == null ? null : item.getMode(), defaultMode));
+        }
+
+        CompletableFuture<List<MedicalSuggestion>> none = CompletableFuture.completedFuture(List.of());
+        Map<Object, CompletableFuture<List<MedicalSuggestion>>> shared = new HashMap<>();
+        List<CompletableFuture<List<MedicalSuggestion>>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BatchInferRequest.Item item = items.get(i);
+            if (item == null) {
+                results.add(none);
+            } else if (item.getSymptoms() != null) {
+                int[] ids = data.resolveSymptomIds(item.getSymptoms(), modes.get(i));
+                results.add(ids.length == 0 ? none : shared.computeIfAbsent(new SymptomKey(ids),
+                        k -> CompletableFuture.supplyAsync(() -> inferenceService.suggest(data, ids, limit), pool)));
+            } else if (item.getComplaint() != null && !item.getComplaint().isBlank()) {
+                String complaint = item.getComplaint();
+                // Aynı terim dizisine inen şikâyetler aynı BM25 skorlarını üretir
+                results.add(shared.computeIfAbsent(ComplaintTextIndex.terms(complaint),
+                        k -> CompletableFuture.supplyAsync(
+                                () -> inferenceService.suggestByComplaint(data, complaint, limit), pool)));
+            } else {
+                results.add(none);
+            }
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private record SymptomKey(int[] ids) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SymptomKey other && Arrays.equals(ids, other.ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(ids);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.acil.er_backend.service;
+
+import java.util.*;
+
+/**
+ * Kayıtların {@code input_text} alanı üzerinde BM25 ters indeksi. Terimler
+ * katlanmış (aksan/harf duyarsız) kelimelerin ilk 5 harfidir; Türkçe ekler
+ * büyük ölçüde bu önekten sonra geldiği için basit ama etkili bir kök bulma
+ * sağlar. Her posting için BM25 ağırlığı yükleme anında hesaplanır, sorgu
+ * yalnızca sorgu terimlerinin listelerini toplar.
+ */
+final class ComplaintTextIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    private static final int STEM_LENGTH = 5;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "ve", "ile", "bir", "cok", "var", "yok", "da", "de", "ben", "bu", "su", "mi",
+            "gibi", "icin", "ama", "daha", "en", "ki", "ne", "o", "hem", "her", "biraz", "sonra");
+
+    @FunctionalInterface
+    interface ScoreConsumer {
+        void accept(int doc, double score, int matchedTerms);
+    }
+
+    private final int docCount;
+    private final Map<String, Integer> termIds;
+    private final int[][] docs;
+    private final float[][] weights;
+
+    ComplaintTextIndex(List<String> texts) {
+        this.docCount = texts.size();
+        Map<String, Integer> ids = new HashMap<>();
+        List<List<int[]>> postings = new ArrayList<>();
+        int[] docLength = new int[docCount];
+        long totalLength = 0;
+
+        for (int doc = 0; doc < docCount; doc++) {
+            String text = texts.get(doc);
+            if (text == null) continue;
+            List<String> terms = terms(text);
+            docLength[doc] = terms.size();
+            totalLength += terms.size();
+
+            Map<Integer, Integer> tf = new LinkedHashMap<>();
+            for (String term : terms) {
+                int id = ids.computeIfAbsent(term, t -> {
+                    postings.add(new ArrayList<>());
+                    return postings.size() - 1;
+                });
+                tf.merge(id, 1, Integer::sum);
+            }
+            for (Map.Entry<Integer, Integer> e : tf.entrySet()) {
+                postings.get(e.getKey()).add(new int[] {doc, e.getValue()});
+            }
+        }
+
+        double avgLength = docCount == 0 ? 0 : (double) totalLength / docCount;
+        this.termIds = Map.copyOf(ids);
+        this.docs = new int[postings.size()][];
+        this.weights = new float[postings.size()][];
+        for (int t = 0; t < postings.size(); t++) {
+            List<int[]> list = postings.get(t);
+            double idf = Math.log(1 + (docCount - list.size() + 0.5) / (list.size() + 0.5));
+            docs[t] = new int[list.size()];
+            weights[t] = new float[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                int doc = list.get(i)[0];
+                int tf = list.get(i)[1];
+                double norm = K1 * (1 - B + B * docLength[doc] / Math.max(avgLength, 1e-9));
+                docs[t][i] = doc;
+                weights[t][i] = (float) (idf * tf * (K1 + 1) / (tf + norm));
+            }
+        }
+    }
+
+    /**
+     * Sorguyla en az bir terimi paylaşan her kayıt için, kayıt sırasıyla,
+     * BM25 skorunu ve eşleşen farklı sorgu terimi sayısını bildirir.
+     */
+    void score(String query, ScoreConsumer consumer) {
+        if (query == null || docCount == 0) return;
+        Set<Integer> queryTerms = new LinkedHashSet<>();
+        for (String term : terms(query)) {
+            Integer id = termIds.get(term);
+            if (id != null) queryTerms.add(id);
+        }
+        if (queryTerms.isEmpty()) return;
+
+        double[] scores = new double[docCount];
+        int[] matched = new int[docCount];
+        for (int t : queryTerms) {
+            int[] d = docs[t];
+            float[] w = weights[t];
+            for (int i = 0; i < d.length; i++) {
+                scores[d[i]] += w[i];
+                matched[d[i]]++;
+            }
+        }
+        for (int doc = 0; doc < docCount; doc++) {
+            if (matched[doc] > 0) consumer.accept(doc, scores[doc], matched[doc]);
+        }
+    }
+
+    static List<String> terms(String text) {
+        List<String> out = new ArrayList<>();
+        for (String token : FuzzySymptomIndex.fold(text).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() < 2 || STOP_WORDS.contains(token)) continue;
+            out.add(token.length() > STEM_LENGTH ? token.substring(0, STEM_LENGTH) : token);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,218 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.DashboardStats;
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.TriageRecord;
+import com.acil.er_backend.repository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Panel sayaçlarının artımlı tutulan hali: durum sayıları, triyaj seviyesi
+ * dağılımı, bekleme süresi toplamı ve son bir saatte tamamlananlar.
+ *
+ * Randevu değişiklikleri {@link LiveQueue.Change} olaylarından, triyaj
+ * kayıtları {@link #recordTriage} ile gelir; {@link #snapshot()}
+ * veritabanına gitmez. Sayaçlar açılışta, gün değişiminde ve belirli
+ * aralıklarla {@link DashboardQueries} ile veritabanından yeniden hesaplanır.
+ *
+ * {@code app.dashboard.in-memory=false} ise (birden çok uygulama örneği
+ * gibi bellek içi durumun tutulamadığı kurulumlar) sayaç tutulmaz, her
+ * okuma doğrudan veritabanına hesaplatılır.
+ */
+@Component
+public class DashboardAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardAggregator.class);
+
+    private final AppointmentRepository appointmentRepo;
+    private final DashboardQueries queries;
+    private final boolean inMemory;
+    private final Clock clock;
+
+    private LocalDate day;
+    // Her artımlı güncellemede artar; mutabakat okuma sırasında değişiklik geldiyse sonucu atar
+    private long version;
+    private final int[] statusCounts = new int[AppointmentStatus.values().length];
+    private final Map<String, Integer> triageLevels = new HashMap<>();
+    private long waitSum;
+    private int waitCount;
+    // Tamamlanma zamanı -> adet; bir saatten eskiler okumada düşülür
+    private final TreeMap<LocalDateTime, Integer> completions = new TreeMap<>();
+    private int completionCount;
+
+    @Autowired
+    public DashboardAggregator(AppointmentRepository appointmentRepo, DashboardQueries queries,
+            @Value("${app.dashboard.in-memory:true}") boolean inMemory) {
+        this(appointmentRepo, queries, inMemory, Clock.systemDefaultZone());
+    }
+
+    DashboardAggregator(AppointmentRepository appointmentRepo, DashboardQueries queries, boolean inMemory, Clock clock) {
+        this.appointmentRepo = appointmentRepo;
+        this.queries = queries;
+        this.inMemory = inMemory;
+        this.clock = clock;
+    }
+
+    public DashboardStats snapshot() {
+        if (!inMemory) return queries.compute(LocalDate.now(clock), LocalDateTime.now(clock));
+        return counters();
+    }
+
+    private synchronized DashboardStats counters() {
+        if (!LocalDate.now(clock).equals(day)) reconcile();
+        evictCompletions();
+
+        DashboardStats stats = new DashboardStats();
+        int total = 0;
+        for (int c : statusCounts) total += c;
+        stats.setTotalToday(total);
+        stats.setWaiting(statusCounts[AppointmentStatus.WAITING.ordinal()]);
+        stats.setCalled(statusCounts[AppointmentStatus.CALLED.ordinal()]);
+        stats.setInProgress(statusCounts[AppointmentStatus.IN_PROGRESS.ordinal()]);
+        stats.setDone(statusCounts[AppointmentStatus.DONE.ordinal()]);
+        stats.setNoShow(statusCounts[AppointmentStatus.NO_SHOW.ordinal()]);
+        stats.setTriageLevels(new HashMap<>(triageLevels));
+        stats.setAvgWaitTime(waitCount > 0 ? (double) waitSum / waitCount : null);
+        stats.setDoneLastHour(completionCount);
+        return stats;
+    }
+
+    @EventListener
+    public synchronized void onQueueChange(LiveQueue.Change change) {
+        if (!inMemory) return;
+        if (change.isReset()) {
+            reconcile();
+            return;
+        }
+        version++;
+        if (change.before() != null) count(change.before(), -1);
+        if (change.after() != null) count(change.after(), +1);
+    }
+
+    /** Bugünkü bir randevuya eklenen triyaj kaydını sayar (varsa işlem commit olduktan sonra). */
+    public void recordTriage(TriageRecord record) {
+        Appointment ap = record.getAppointment();
+        if (!inMemory || ap == null) return;
+        LocalDate date = ap.getAppointmentDate();
+        String level = DashboardQueries.levelOf(record.getTriageLevel());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addTriage(date, level);
+                }
+            });
+        } else {
+            addTriage(date, level);
+        }
+    }
+
+    /**
+     * Sayaçları veritabanından yeniden hesaplar. Okuma sürerken artımlı
+     * bir güncelleme gelirse sonuç atılır ve bir sonraki turda denenir.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-ms:300000}",
+            initialDelayString = "${app.dashboard.reconcile-ms:300000}")
+    public void reconcileScheduled() {
+        if (!inMemory) return;
+        long seen;
+        synchronized (this) {
+            seen = version;
+        }
+        Counts fresh = load();
+        synchronized (this) {
+            if (version != seen || !fresh.day.equals(day)) return;
+            if (!Arrays.equals(fresh.statusCounts, statusCounts) || !fresh.triageLevels.equals(triageLevels)
+                    || fresh.waitSum != waitSum || fresh.waitCount != waitCount) {
+                log.warn("Panel sayaçları veritabanıyla uyuşmuyordu, düzeltildi");
+            }
+            install(fresh);
+        }
+    }
+
+    private synchronized void reconcile() {
+        install(load());
+    }
+
+    private synchronized void addTriage(LocalDate date, String level) {
+        if (day == null || !day.equals(date)) return;
+        version++;
+        triageLevels.merge(level, 1, Integer::sum);
+    }
+
+    private void count(LiveQueue.Entry e, int delta) {
+        statusCounts[e.status().ordinal()] += delta;
+        Long wait = e.actualWaitMinutes();
+        if (wait != null) {
+            waitSum += delta * wait;
+            waitCount += delta;
+        }
+        if (e.status() == AppointmentStatus.DONE && e.completedAt() != null) {
+            completions.merge(e.completedAt(), delta, Integer::sum);
+            completions.remove(e.completedAt(), 0);
+            completionCount += delta;
+        }
+    }
+
+    private void evictCompletions() {
+        LocalDateTime since = LocalDateTime.now(clock).minusHours(1);
+        for (Iterator<Map.Entry<LocalDateTime, Integer>> it = completions.headMap(since, true).entrySet().iterator(); it.hasNext(); ) {
+            completionCount -= it.next().getValue();
+            it.remove();
+        }
+    }
+
+    private Counts load() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDateTime now = LocalDateTime.now(clock);
+        Counts counts = new Counts(today);
+        DashboardQueries.Summary summary = queries.summarize(today);
+        System.arraycopy(summary.statusCounts(), 0, counts.statusCounts, 0, counts.statusCounts.length);
+        counts.waitSum = summary.waitSum();
+        counts.waitCount = summary.waitCount();
+        counts.triageLevels.putAll(queries.triageLevels(today));
+        for (LocalDateTime completedAt : appointmentRepo.findCompletedAtAfter(AppointmentStatus.DONE, now.minusHours(1))) {
+            counts.completions.merge(completedAt, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private void install(Counts counts) {
+        day = counts.day;
+        version++;
+        System.arraycopy(counts.statusCounts, 0, statusCounts, 0, statusCounts.length);
+        triageLevels.clear();
+        triageLevels.putAll(counts.triageLevels);
+        waitSum = counts.waitSum;
+        waitCount = counts.waitCount;
+        completions.clear();
+        completions.putAll(counts.completions);
+        completionCount = completions.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static final class Counts {
+        final LocalDate day;
+        final int[] statusCounts = new int[AppointmentStatus.values().length];
+        final Map<String, Integer> triageLevels = new HashMap<>();
+        final TreeMap<LocalDateTime, Integer> completions = new TreeMap<>();
+        long waitSum;
+        int waitCount;
+
+        Counts(LocalDate day) {
+            this.day = day;
+        }
+    }
+}
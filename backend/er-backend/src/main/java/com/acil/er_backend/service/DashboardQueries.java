@@ -0,0 +1,79 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.DashboardStats;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.repository.AppointmentRepository;
+import com.acil.er_backend.repository.TriageRecordRepository;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Panel istatistiklerini veritabanına hesaplatır: durum başına sayı ve
+ * bekleme toplamı, triyaj seviyesi dağılımı ve son bir saatte
+ * tamamlananlar. Randevu sayısından bağımsız olarak üç sorgu çalışır.
+ */
+@Component
+public class DashboardQueries {
+
+    static final String UNKNOWN_LEVEL = "BELIRSIZ";
+
+    private final AppointmentRepository appointmentRepo;
+    private final TriageRecordRepository triageRepo;
+
+    public DashboardQueries(AppointmentRepository appointmentRepo, TriageRecordRepository triageRepo) {
+        this.appointmentRepo = appointmentRepo;
+        this.triageRepo = triageRepo;
+    }
+
+    public DashboardStats compute(LocalDate day, LocalDateTime now) {
+        Summary summary = summarize(day);
+        DashboardStats stats = new DashboardStats();
+        int total = 0;
+        for (int c : summary.statusCounts()) total += c;
+        stats.setTotalToday(total);
+        stats.setWaiting(summary.count(AppointmentStatus.WAITING));
+        stats.setCalled(summary.count(AppointmentStatus.CALLED));
+        stats.setInProgress(summary.count(AppointmentStatus.IN_PROGRESS));
+        stats.setDone(summary.count(AppointmentStatus.DONE));
+        stats.setNoShow(summary.count(AppointmentStatus.NO_SHOW));
+        stats.setAvgWaitTime(summary.waitCount() > 0 ? (double) summary.waitSum() / summary.waitCount() : null);
+        stats.setTriageLevels(triageLevels(day));
+        stats.setDoneLastHour(Math.toIntExact(
+                appointmentRepo.countByStatusAndCompletedAtAfter(AppointmentStatus.DONE, now.minusHours(1))));
+        return stats;
+    }
+
+    /** Günün durum sayıları ve bekleme süresi toplamı, tek gruplu sorguyla. */
+    Summary summarize(LocalDate day) {
+        int[] counts = new int[AppointmentStatus.values().length];
+        long waitSum = 0;
+        int waitCount = 0;
+        for (Object[] row : appointmentRepo.summarizeByStatus(day)) {
+            counts[((AppointmentStatus) row[0]).ordinal()] = ((Number) row[1]).intValue();
+            waitSum += ((Number) row[2]).longValue();
+            waitCount += ((Number) row[3]).intValue();
+        }
+        return new Summary(counts, waitSum, waitCount);
+    }
+
+    Map<String, Integer> triageLevels(LocalDate day) {
+        Map<String, Integer> levels = new HashMap<>();
+        for (Object[] row : triageRepo.countByLevelForDate(day)) {
+            levels.merge(levelOf((String) row[0]), ((Number) row[1]).intValue(), Integer::sum);
+        }
+        return levels;
+    }
+
+    static String levelOf(String triageLevel) {
+        return triageLevel != null ? triageLevel : UNKNOWN_LEVEL;
+    }
+
+    record Summary(int[] statusCounts, long waitSum, int waitCount) {
+        int count(AppointmentStatus status) {
+            return statusCounts[status.ordinal()];
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.acil.er_backend.service;
 
 import com.acil.er_backend.dto.DoctorNoteRequest;
+import com.acil.er_backend.dto.DoctorNoteView;
 import com.acil.er_backend.model.Appointment;
 import com.acil.er_backend.model.AppointmentStatus;
 import com.acil.er_backend.model.DoctorNote;
@@ -18,10 +19,12 @@ public class DoctorNoteService {
 
     private final DoctorNoteRepository noteRepo;
     private final AppointmentRepository appointmentRepo;
+    private final LiveQueue liveQueue;
 
-    public DoctorNoteService(DoctorNoteRepository noteRepo, AppointmentRepository appointmentRepo) {
+    public DoctorNoteService(DoctorNoteRepository noteRepo, AppointmentRepository appointmentRepo, LiveQueue liveQueue) {
         this.noteRepo = noteRepo;
         this.appointmentRepo = appointmentRepo;
+        this.liveQueue = liveQueue;
     }
 
     @Transactional
@@ -54,13 +57,13 @@ public class DoctorNoteService {
         if (markDone) {
             ap.setStatus(AppointmentStatus.DONE);
             ap.setCompletedAt(LocalDateTime.now());
-            appointmentRepo.save(ap);
+            liveQueue.record(appointmentRepo.save(ap));
         }
 
         return saved;
     }
 
-    public List<DoctorNote> listByAppointment(Long appointmentId) {
-        return noteRepo.findByAppointment_IdOrderByCreatedAtDesc(appointmentId);
+    public List<DoctorNoteView> listByAppointment(Long appointmentId) {
+        return noteRepo.findViewsByAppointmentId(appointmentId);
     }
 }
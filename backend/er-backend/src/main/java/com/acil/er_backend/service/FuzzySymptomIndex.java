@@ -0,0 +1,160 @@
+package com.acil.er_backend.service;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Semptom sözlüğü üzerinde yazım hatası toleranslı arama. Semptomlar aksan ve
+ * harf duyarsız bir anahtara katlanır ("Göğüs Ağrısı" -> "gogus agrisi");
+ * adaylar 3-gram indeksinden bulunur ve yalnızca onlar için sınırlı
+ * Damerau-Levenshtein mesafesi hesaplanır.
+ */
+final class FuzzySymptomIndex {
+
+    static final Locale TURKISH = Locale.forLanguageTag("tr");
+    private static final int[] NONE = new int[0];
+
+    // Katlanmış anahtar indeksi -> anahtar / o anahtara düşen semptom kimlikleri
+    private final String[] keys;
+    private final int[][] keyIds;
+    private final Map<String, Integer> keyIndex;
+    private final Map<String, int[]> gramIndex;
+    // Uzunluk -> o uzunluktaki anahtarlar; trigram süzgecinin işe yaramadığı kısa sorgular için
+    private final int[][] keysByLength;
+    private final ThreadLocal<int[]> scratch;
+
+    FuzzySymptomIndex(List<String> vocabulary) {
+        Map<String, List<Integer>> byKey = new LinkedHashMap<>();
+        for (int id = 0; id < vocabulary.size(); id++) {
+            String key = fold(vocabulary.get(id));
+            if (!key.isEmpty()) byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+        }
+
+        this.keys = byKey.keySet().toArray(new String[0]);
+        this.keyIds = new int[keys.length][];
+        this.keyIndex = new HashMap<>(keys.length * 2);
+        Map<String, List<Integer>> grams = new HashMap<>();
+        for (int k = 0; k < keys.length; k++) {
+            keyIds[k] = byKey.get(keys[k]).stream().mapToInt(Integer::intValue).toArray();
+            keyIndex.put(keys[k], k);
+            for (String gram : grams(keys[k])) {
+                List<Integer> list = grams.computeIfAbsent(gram, g -> new ArrayList<>());
+                if (list.isEmpty() || list.get(list.size() - 1) != k) list.add(k);
+            }
+        }
+        this.gramIndex = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, list) -> gramIndex.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+
+        int longest = Arrays.stream(keys).mapToInt(String::length).max().orElse(0);
+        List<List<Integer>> byLength = new ArrayList<>();
+        for (int len = 0; len <= longest; len++) byLength.add(new ArrayList<>());
+        for (int k = 0; k < keys.length; k++) byLength.get(keys[k].length()).add(k);
+        this.keysByLength = byLength.stream()
+                .map(list -> list.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+        int keyCount = keys.length;
+        this.scratch = ThreadLocal.withInitial(() -> new int[keyCount]);
+    }
+
+    /**
+     * Girdiye en yakın semptomların kimlikleri. Katlanmış anahtar birebir
+     * tutuyorsa onlar, değilse izin verilen mesafe içindeki en yakın anahtarlar.
+     */
+    int[] lookup(String input) {
+        String key = fold(input);
+        if (key.isEmpty()) return NONE;
+
+        Integer exact = keyIndex.get(key);
+        if (exact != null) return keyIds[exact];
+
+        int maxDistance = maxDistance(key.length());
+        if (maxDistance == 0) return NONE;
+
+        // q-gram lemması: OSA'da bir düzenleme (bitişik yer değiştirme dahil) en fazla q + 1 = 4 trigramı bozar.
+        // shared ayrık trigramları saydığı için sınır da ayrık sorgu trigramlarından hesaplanır.
+        Set<String> queryGrams = new HashSet<>(grams(key));
+        int minShared = queryGrams.size() - 4 * maxDistance;
+        List<Integer> candidates = new ArrayList<>();
+        if (minShared <= 0) {
+            // Kısa sorguda tek düzenleme hiç ortak trigram bırakmayabilir; uzunluğu uyan her anahtar aday
+            for (int len = key.length() - maxDistance; len <= key.length() + maxDistance; len++) {
+                if (len < 0 || len >= keysByLength.length) continue;
+                for (int k : keysByLength[len]) candidates.add(k);
+            }
+        } else {
+            // Sayaçlar yalnızca ilanlarda geçen anahtarlar için tutulur; dizi iş parçacığı başına bir kez ayrılır
+            int[] shared = scratch.get();
+            List<Integer> touched = new ArrayList<>();
+            for (String gram : queryGrams) {
+                int[] postings = gramIndex.get(gram);
+                if (postings == null) continue;
+                for (int k : postings) {
+                    if (shared[k]++ == 0) touched.add(k);
+                }
+            }
+            for (int k : touched) {
+                if (shared[k] >= minShared && Math.abs(keys[k].length() - key.length()) <= maxDistance) candidates.add(k);
+                shared[k] = 0;
+            }
+        }
+
+        int best = maxDistance + 1;
+        List<Integer> bestKeys = new ArrayList<>();
+        for (int k : candidates) {
+            int d = distance(key, keys[k], Math.min(best, maxDistance));
+            if (d > maxDistance) continue;
+            if (d < best) {
+                best = d;
+                bestKeys.clear();
+            }
+            if (d == best) bestKeys.add(k);
+        }
+        if (bestKeys.isEmpty()) return NONE;
+
+        return bestKeys.stream().flatMapToInt(k -> Arrays.stream(keyIds[k])).sorted().toArray();
+    }
+
+    static String fold(String s) {
+        String lower = s.trim().toLowerCase(TURKISH).replace('ı', 'i');
+        String stripped = Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return stripped.replaceAll("\\s+", " ");
+    }
+
+    private static int maxDistance(int length) {
+        if (length <= 3) return 0;
+        if (length <= 6) return 1;
+        return 2;
+    }
+
+    private static List<String> grams(String key) {
+        String padded = "^" + key + "$";
+        List<String> out = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) out.add(padded.substring(i, i + 3));
+        return out;
+    }
+
+    // Sınırlı OSA (bitişik yer değiştirmeli Levenshtein); limit aşılırsa limit + 1 döner
+    private static int distance(String a, String b, int limit) {
+        int n = a.length();
+        int m = b.length();
+        int[] prev2 = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    v = Math.min(v, prev2[j - 2] + 1);
+                }
+                cur[j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (rowMin > limit) return limit + 1;
+            int[] t = prev2; prev2 = prev; prev = cur; cur = t;
+        }
+        return Math.min(prev[m], limit + 1);
+    }
+}
@@ -0,0 +1,151 @@
+package com.acil.er_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toplu aktarım dosyasını satır satır okur; dosyanın tamamı hiçbir zaman
+ * belleğe alınmaz. NDJSON'da her satır bir JSON nesnesidir, CSV'de ilk satır
+ * alan adlarını verir (JSON'daki adlarla aynı, ör. {@code birthYear}).
+ * Tırnaklı CSV alanları ayraç ve "" içerebilir ama satır sonu içeremez.
+ * Bozuk bir satır aktarımı durdurmaz; hatasıyla birlikte döner.
+ */
+public class ImportRowReader implements Closeable {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(MediaType contentType) {
+            if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) return CSV;
+            if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) return NDJSON;
+            throw new IllegalArgumentException("Desteklenmeyen içerik türü: " + contentType);
+        }
+    }
+
+    /** Dosyadaki tek kayıt: alanları ya da okunamadıysa hatası. */
+    public record Row(int line, Map<String, String> fields, String error) {
+
+        public String get(String name) {
+            String value = fields.get(name);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    private final BufferedReader in;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private final List<String> header;
+    private int line;
+
+    private ImportRowReader(Reader in, Format format, ObjectMapper objectMapper, List<String> required)
+            throws IOException {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.header = format == Format.CSV ? readHeader(required) : null;
+    }
+
+    /** CSV başlığında {@code required} alanlarından biri yoksa {@link IllegalArgumentException} fırlatır. */
+    public static ImportRowReader open(Reader in, Format format, ObjectMapper objectMapper, String... required)
+            throws IOException {
+        return new ImportRowReader(in, format, objectMapper, List.of(required));
+    }
+
+    /** Sıradaki kayıt; dosya bittiyse {@code null}. Boş satırlar atlanır. */
+    public Row next() throws IOException {
+        String text;
+        do {
+            text = in.readLine();
+            line++;
+            if (text == null) return null;
+        } while (text.isBlank());
+        try {
+            return new Row(line, format == Format.CSV ? csvRow(text) : jsonRow(text), null);
+        } catch (IllegalArgumentException e) {
+            return new Row(line, Map.of(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private List<String> readHeader(List<String> required) throws IOException {
+        String text = in.readLine();
+        line++;
+        if (text == null) throw new IllegalArgumentException("CSV başlık satırı yok.");
+        // Excel'in yazdığı UTF-8 BOM ilk alan adına yapışmasın
+        if (text.startsWith("\uFEFF")) text = text.substring(1);
+        List<String> names = split(text).stream().map(String::trim).toList();
+        for (String name : required) {
+            if (!names.contains(name)) throw new IllegalArgumentException("CSV başlığında " + name + " alanı yok.");
+        }
+        return names;
+    }
+
+    private Map<String, String> csvRow(String text) {
+        List<String> values = split(text);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException(header.size() + " alan beklenirken " + values.size() + " alan var.");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) fields.put(header.get(i), values.get(i));
+        return fields;
+    }
+
+    private Map<String, String> jsonRow(String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Geçersiz JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) throw new IllegalArgumentException("Her satır bir JSON nesnesi olmalı.");
+        Map<String, String> fields = new HashMap<>();
+        node.fields().forEachRemaining(f -> {
+            if (f.getValue().isValueNode() && !f.getValue().isNull()) fields.put(f.getKey(), f.getValue().asText());
+        });
+        return fields;
+    }
+
+    // RFC 4180 alanları; tırnak içinde ayraç ve çift tırnak ("") kaçışı
+    private static List<String> split(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && value.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Kapanmamış tırnak.");
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,344 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.TriageRecord;
+import com.acil.er_backend.repository.AppointmentRepository;
+import com.acil.er_backend.repository.TriageRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Bugünün randevu sırasının bellek içi modeli. Bekleme salonu, mobil sıra
+ * durumu ve panel sayaçları veritabanına gitmeden buradan okunur.
+ *
+ * Randevuyu değiştiren servisler kaydettikleri varlığı {@link #record}
+ * ile bildirir; değişiklik işlem commit olduktan sonra uygulanır, geri
+ * alınan işlem modeli bozmaz. Model açılışta ve gün değiştiğinde
+ * veritabanından yeniden kurulur. Her değişiklik bir {@link Change}
+ * uygulama olayı olarak yayınlanır.
+ *
+ * Bekleyenler ayrıca {@link TriagePriority}'ye göre öncelik sırasında
+ * tutulur: bekleme ekranı, mobil sıra ve "sıradakini çağır" bu sırayı
+ * kullanır. Yeni triyaj kaydı hastayı O(log n)'de yeniden sıralar.
+ */
+@Component
+public class LiveQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveQueue.class);
+    private static final Set<AppointmentStatus> ACTIVE =
+            EnumSet.of(AppointmentStatus.WAITING, AppointmentStatus.CALLED, AppointmentStatus.IN_PROGRESS);
+    private static final Comparator<Entry> QUEUE_ORDER =
+            Comparator.comparingInt(Entry::queueNumber).thenComparingLong(Entry::id);
+
+    private final AppointmentRepository appointmentRepo;
+    private final TriageRecordRepository triageRepo;
+    private final TriagePriority priority;
+    private final ApplicationEventPublisher events;
+    private final Clock clock;
+    private final Comparator<Entry> priorityOrder;
+
+    private LocalDate day;
+    private final Map<Long, Entry> byId = new HashMap<>();
+    private final Map<AppointmentStatus, TreeSet<Entry>> byStatus = new EnumMap<>(AppointmentStatus.class);
+    // Durum başına sıra numarası -> adet; "önümde kaç kişi var" sorusu O(log n)
+    private final Map<AppointmentStatus, Fenwick> ranks = new EnumMap<>(AppointmentStatus.class);
+    private final Map<String, TreeSet<Entry>> activeByTc = new HashMap<>();
+    // Bekleyenler öncelik sırasında; sıra anahtarı dakika kovası, kova başına adet Fenwick'te
+    private final TreeSet<Entry> waitingByPriority;
+    private final Fenwick priorityRanks = new Fenwick();
+
+    @Autowired
+    public LiveQueue(AppointmentRepository appointmentRepo, TriageRecordRepository triageRepo,
+            TriagePriority priority, ApplicationEventPublisher events) {
+        this(appointmentRepo, triageRepo, priority, events, Clock.systemDefaultZone());
+    }
+
+    LiveQueue(AppointmentRepository appointmentRepo, TriageRecordRepository triageRepo,
+            TriagePriority priority, ApplicationEventPublisher events, Clock clock) {
+        this.appointmentRepo = appointmentRepo;
+        this.triageRepo = triageRepo;
+        this.priority = priority;
+        this.events = events;
+        this.clock = clock;
+        this.priorityOrder = Comparator.comparingInt(this::priorityBucket)
+                .thenComparing(Entry::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(QUEUE_ORDER);
+        this.waitingByPriority = new TreeSet<>(priorityOrder);
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            byStatus.put(status, new TreeSet<>(QUEUE_ORDER));
+            ranks.put(status, new Fenwick());
+        }
+    }
+
+    /** Bir randevunun güncel halini modele yazar (varsa işlem commit olduktan sonra). */
+    public void record(Appointment appointment) {
+        Entry entry = Entry.of(appointment);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(entry);
+                }
+            });
+        } else {
+            apply(entry);
+        }
+    }
+
+    /** Randevuya eklenen triyaj kaydının seviyesini uygular (varsa işlem commit olduktan sonra). */
+    public void recordTriage(TriageRecord record) {
+        if (record.getAppointment() == null) return;
+        Long appointmentId = record.getAppointment().getId();
+        String level = TriagePriority.levelOf(record);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyTriage(appointmentId, level);
+                }
+            });
+        } else {
+            applyTriage(appointmentId, level);
+        }
+    }
+
+    /** Hasta adı değiştiğinde bugünkü kayıtlarının görünen adını günceller. */
+    public synchronized void renamePatient(String tc, String name) {
+        if (day == null) return;
+        for (Entry e : List.copyOf(byId.values())) {
+            if (Objects.equals(e.patientTc(), tc)) apply(e.withPatientName(name));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 0 * * *")
+    public synchronized void rebuild() {
+        LocalDate today = LocalDate.now(clock);
+        List<Appointment> appointments = appointmentRepo.findByAppointmentDateOrderByQueueNumberAsc(today);
+        Map<Long, String> levels = new HashMap<>();
+        for (Object[] row : triageRepo.findLevelsForDate(today)) {
+            String level = TriagePriority.levelOf((String) row[1], (String) row[2]);
+            if (level != null) levels.put((Long) row[0], level);
+        }
+        clear();
+        day = today;
+        for (Appointment ap : appointments) insert(Entry.of(ap).withTriageLevel(levels.get(ap.getId())));
+        log.info("Canlı sıra {} için yeniden kuruldu: {} randevu", today, appointments.size());
+        events.publishEvent(new Change(null, null));
+    }
+
+    public synchronized Optional<Entry> currentCall() {
+        ensureToday();
+        TreeSet<Entry> called = byStatus.get(AppointmentStatus.CALLED);
+        return called.isEmpty() ? Optional.empty() : Optional.of(called.first());
+    }
+
+    /** Verilen durumdaki bugünkü randevular, sıra numarasına göre. */
+    public synchronized List<Entry> list(AppointmentStatus status) {
+        ensureToday();
+        return List.copyOf(byStatus.get(status));
+    }
+
+    public synchronized List<Entry> all() {
+        ensureToday();
+        List<Entry> all = new ArrayList<>(byId.values());
+        all.sort(QUEUE_ORDER);
+        return all;
+    }
+
+    public synchronized int count(AppointmentStatus status) {
+        ensureToday();
+        return byStatus.get(status).size();
+    }
+
+    /** Sıra numarası {@code queueNumber}'dan küçük olan, {@code status} durumundaki randevu sayısı. */
+    public synchronized int countAhead(AppointmentStatus status, int queueNumber) {
+        ensureToday();
+        return ranks.get(status).prefix(queueNumber - 1);
+    }
+
+    /** Bekleyenler öncelik sırasında (triyaj seviyesi avansı + bekleme süresi). */
+    public synchronized List<Entry> waitingByPriority() {
+        ensureToday();
+        return List.copyOf(waitingByPriority);
+    }
+
+    /** Öncelik sırasında ilk bekleyen; "sıradakini çağır" bunu çağırır. */
+    public synchronized Optional<Entry> nextWaiting() {
+        ensureToday();
+        return waitingByPriority.isEmpty() ? Optional.empty() : Optional.of(waitingByPriority.first());
+    }
+
+    /** Öncelik sırasında bu bekleyen hastanın önündeki kişi sayısı, O(log n). */
+    public synchronized int waitingAhead(Entry entry) {
+        ensureToday();
+        Entry current = byId.get(entry.id());
+        if (current == null || current.status() != AppointmentStatus.WAITING) return 0;
+        int bucket = priorityBucket(current);
+        int ahead = priorityRanks.prefix(bucket - 1);
+        // Aynı dakika kovasındakiler azdır; aralarındaki sıra doğrudan sayılır
+        for (Entry e : waitingByPriority.headSet(current, false).descendingSet()) {
+            if (priorityBucket(e) != bucket) break;
+            ahead++;
+        }
+        return ahead;
+    }
+
+    /** Hastanın bugünkü aktif (bekleyen, çağrılan ya da muayenedeki) ilk randevusu. */
+    public synchronized Optional<Entry> activeByTc(String tc) {
+        ensureToday();
+        TreeSet<Entry> entries = activeByTc.get(tc);
+        return entries == null || entries.isEmpty() ? Optional.empty() : Optional.of(entries.first());
+    }
+
+    synchronized void apply(Entry entry) {
+        ensureToday();
+        Entry previous = byId.get(entry.id());
+        // Randevu kaydında triyaj seviyesi yok; önceki bilinen seviye korunur
+        if (previous != null && entry.triageLevel() == null) entry = entry.withTriageLevel(previous.triageLevel());
+        if (previous != null) remove(previous);
+        boolean today = day.equals(entry.appointmentDate());
+        if (today) insert(entry);
+        if (previous != null || today) events.publishEvent(new Change(previous, today ? entry : null));
+    }
+
+    private synchronized void applyTriage(Long appointmentId, String level) {
+        ensureToday();
+        Entry current = byId.get(appointmentId);
+        if (current == null || Objects.equals(current.triageLevel(), level)) return;
+        apply(current.withTriageLevel(level));
+    }
+
+    // Dakika cinsinden "etkin geliş": kayıt dakikası - seviye avansı (en büyük avans kadar kaydırılmış, >= 1)
+    private int priorityBucket(Entry e) {
+        int minute = e.createdAt() == null ? 0
+                : (int) Math.max(0, ChronoUnit.MINUTES.between(e.appointmentDate().atStartOfDay(), e.createdAt()));
+        return minute - priority.headStartMinutes(e.triageLevel()) + priority.maxHeadStartMinutes() + 1;
+    }
+
+    private void ensureToday() {
+        if (!LocalDate.now(clock).equals(day)) rebuild();
+    }
+
+    private void insert(Entry e) {
+        byId.put(e.id(), e);
+        byStatus.get(e.status()).add(e);
+        ranks.get(e.status()).add(e.queueNumber(), 1);
+        if (ACTIVE.contains(e.status()) && e.patientTc() != null) {
+            activeByTc.computeIfAbsent(e.patientTc(), k -> new TreeSet<>(QUEUE_ORDER)).add(e);
+        }
+        if (e.status() == AppointmentStatus.WAITING) {
+            waitingByPriority.add(e);
+            priorityRanks.add(priorityBucket(e), 1);
+        }
+    }
+
+    private void remove(Entry e) {
+        byId.remove(e.id());
+        byStatus.get(e.status()).remove(e);
+        ranks.get(e.status()).add(e.queueNumber(), -1);
+        TreeSet<Entry> active = activeByTc.get(e.patientTc());
+        if (active != null && active.remove(e) && active.isEmpty()) activeByTc.remove(e.patientTc());
+        if (waitingByPriority.remove(e)) priorityRanks.add(priorityBucket(e), -1);
+    }
+
+    private void clear() {
+        byId.clear();
+        byStatus.values().forEach(TreeSet::clear);
+        ranks.values().forEach(Fenwick::clear);
+        activeByTc.clear();
+        waitingByPriority.clear();
+        priorityRanks.clear();
+    }
+
+    /**
+     * Sıradaki bir değişiklik: {@code before == null} yeni randevu,
+     * {@code after == null} sıradan çıkma; ikisi de {@code null} ise model
+     * baştan kuruldu.
+     */
+    public record Change(Entry before, Entry after) {
+        public boolean isReset() {
+            return before == null && after == null;
+        }
+    }
+
+    /** Bir randevunun sıra için gereken alanlarının değişmez kopyası. */
+    public record Entry(Long id, int queueNumber, LocalDate appointmentDate, AppointmentStatus status,
+                        String patientTc, String patientName, Integer estimatedWaitMinutes,
+                        LocalDateTime createdAt, LocalDateTime calledAt, LocalDateTime startedAt,
+                        LocalDateTime completedAt, String triageLevel) {
+
+        static Entry of(Appointment ap) {
+            return new Entry(ap.getId(), ap.getQueueNumber() != null ? ap.getQueueNumber() : 0,
+                    ap.getAppointmentDate(), ap.getStatus(),
+                    ap.getPatient() != null ? ap.getPatient().getTc() : null,
+                    ap.getPatient() != null ? ap.getPatient().getName() : null,
+                    ap.getEstimatedWaitMinutes(), ap.getCreatedAt(), ap.getCalledAt(), ap.getStartedAt(),
+                    ap.getCompletedAt(), null);
+        }
+
+        Entry withPatientName(String name) {
+            return new Entry(id, queueNumber, appointmentDate, status, patientTc, name,
+                    estimatedWaitMinutes, createdAt, calledAt, startedAt, completedAt, triageLevel);
+        }
+
+        Entry withTriageLevel(String level) {
+            return new Entry(id, queueNumber, appointmentDate, status, patientTc, patientName,
+                    estimatedWaitMinutes, createdAt, calledAt, startedAt, completedAt, level);
+        }
+
+        /** {@link Appointment#getActualWaitMinutes()} ile aynı. */
+        public Long actualWaitMinutes() {
+            return calledAt != null && createdAt != null ? ChronoUnit.MINUTES.between(createdAt, calledAt) : null;
+        }
+    }
+
+    // Sıra numaraları üzerinde Fenwick (binary indexed) ağacı; numara 1'den başlar, gerekirse büyür
+    private static final class Fenwick {
+        private int[] tree = new int[64];
+
+        void add(int queueNumber, int delta) {
+            if (queueNumber <= 0) return;
+            while (queueNumber >= tree.length) tree = grow();
+            for (int i = queueNumber; i < tree.length; i += i & -i) tree[i] += delta;
+        }
+
+        int prefix(int queueNumber) {
+            int sum = 0;
+            for (int i = Math.min(queueNumber, tree.length - 1); i > 0; i -= i & -i) sum += tree[i];
+            return sum;
+        }
+
+        void clear() {
+            Arrays.fill(tree, 0);
+        }
+
+        // Boyut ikiye katlanır; yeni üst yarının düğümleri alt yarının toplamını da taşımalı
+        private int[] grow() {
+            int n = tree.length;
+            int[] next = Arrays.copyOf(tree, n * 2);
+            next[n] = prefixOf(n - 1);
+            return next;
+        }
+
+        private int prefixOf(int i) {
+            int sum = 0;
+            for (; i > 0; i -= i & -i) sum += tree[i];
+            return sum;
+        }
+    }
+}
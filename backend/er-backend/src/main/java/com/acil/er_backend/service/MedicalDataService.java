@@ -1,70 +1,145 @@
 package com.acil.er_backend.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.acil.er_backend.model.MedicalRecord;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
-import org.springframework.core.io.ClassPathResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class MedicalDataService {
 
-    private List<Map<String, Object>> records = List.of();
-    private Set<String> allSymptoms = Set.of();
+    private static final Logger log = LoggerFactory.getLogger(MedicalDataService.class);
+
+    private final Resource location;
+    private final Resource binaryLocation;
+    private final boolean watch;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Veri seti her yüklendiğinde artar; önbellekler buna göre geçersizlenir
+    private final AtomicLong versions = new AtomicLong();
+
+    // Okuyucular kilitsiz okur; yeni görüntü tamamen kurulduktan sonra tek atamayla yayınlanır
+    private volatile MedicalDataset dataset = MedicalDataset.empty(0);
+    private volatile long loadedModified = -1;
+
+    public MedicalDataService(
+            @Value("${app.medical.data-location:classpath:medical_data.json}") Resource location,
+            @Value("${app.medical.binary-location:classpath:medical_data.bin}") Resource binaryLocation,
+            @Value("${app.medical.watch:false}") boolean watch) {
+        this.location = location;
+        this.binaryLocation = binaryLocation;
+        this.watch = watch;
+    }
 
     @PostConstruct
     public void init() {
+        if (loadBinary()) return;
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Tıbbi veri seti yüklenemedi ({}), öneriler boş kalacak: {}", location, e.getMessage());
+        }
+    }
+
+    /**
+     * Veri setini yeniden okur, doğrular ve indeksleriyle birlikte kurar.
+     * Dosya okunamaz ya da geçersizse mevcut görüntü olduğu gibi kalır.
+     */
+    public synchronized MedicalDataset reload() {
+        long modified = lastModified();
+        MedicalDataset next;
+        try (InputStream is = location.getInputStream()) {
+            next = MedicalDataset.fromJson(objectMapper.readTree(is), versions.incrementAndGet());
+        } catch (IOException e) {
+            throw new IllegalStateException("Veri seti okunamadı: " + e.getMessage(), e);
+        }
+        this.dataset = next;
+        this.loadedModified = modified;
+        log.info("Tıbbi veri seti yüklendi: {} kayıt, {} semptom (sürüm {})",
+                next.getRecords().size(), next.getAllSymptoms().size(), next.getVersion());
+        return next;
+    }
+
+    // Derleme sırasında üretilen ikili dosya JSON'un bugünkü içeriğinden (SHA-256) üretildiyse onu kullanır
+    private synchronized boolean loadBinary() {
+        if (binaryLocation == null || !binaryLocation.exists()) return false;
+        long modified = lastModified();
+        try (InputStream source = location.getInputStream();
+             DataInputStream in = new DataInputStream(new BufferedInputStream(binaryLocation.getInputStream()))) {
+            byte[] sourceDigest = MedicalDatasetCodec.digest(source);
+            MedicalDataset next = MedicalDatasetCodec.read(in, sourceDigest, versions.incrementAndGet());
+            this.dataset = next;
+            this.loadedModified = modified;
+            log.info("Tıbbi veri seti ikili dosyadan yüklendi: {} kayıt, {} semptom (sürüm {})",
+                    next.getRecords().size(), next.getAllSymptoms().size(), next.getVersion());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("İkili veri seti kullanılamadı ({}), JSON okunacak: {}", binaryLocation, e.getMessage());
+            return false;
+        }
+    }
+
+    // app.medical.watch=true ve konum bir dosyaysa değişiklikte kendiliğinden yükler
+    @Scheduled(fixedDelayString = "${app.medical.watch-interval-ms:10000}")
+    public void reloadIfChanged() {
+        if (!watch) return;
+        long modified = lastModified();
+        if (modified <= 0 || modified == loadedModified) return;
         try {
-            InputStream is = new ClassPathResource("medical_data.json").getInputStream();
-            ObjectMapper om = new ObjectMapper();
-            this.records = om.readValue(is, new TypeReference<>() {});
-
-            Set<String> syms = new HashSet<>();
-            for (Map<String, Object> rec : records) {
-                Object symptomsObj = rec.get("symptoms");
-                if (symptomsObj instanceof List<?> list) {
-                    for (Object s : list) {
-                        if (s != null) syms.add(s.toString().toLowerCase().trim());
-                    }
-                }
-            }
-            this.allSymptoms = syms;
-        } catch (Exception e) {
-            this.records = List.of();
-            this.allSymptoms = Set.of();
+            reload();
+        } catch (RuntimeException e) {
+            loadedModified = modified;
+            log.warn("Değişen veri seti reddedildi, önceki sürüm kullanılmaya devam ediyor: {}", e.getMessage());
         }
     }
 
-    public List<Map<String, Object>> getRecords() {
-        return records;
+    public MedicalDataset current() {
+        return dataset;
+    }
+
+    public List<MedicalRecord> getRecords() {
+        return dataset.getRecords();
     }
 
     public Set<String> getAllSymptoms() {
-        return allSymptoms;
+        return dataset.getAllSymptoms();
+    }
+
+    public long getVersion() {
+        return dataset.getVersion();
+    }
+
+    public List<MedicalRecord> searchBySymptoms(List<String> symptoms) {
+        return dataset.searchBySymptoms(symptoms, SymptomMatchMode.EXACT);
+    }
+
+    public List<MedicalRecord> searchBySymptoms(List<String> symptoms, SymptomMatchMode mode) {
+        return dataset.searchBySymptoms(symptoms, mode);
+    }
+
+    public int[] resolveSymptomIds(List<String> symptoms) {
+        return dataset.resolveSymptomIds(symptoms, SymptomMatchMode.EXACT);
     }
 
-    public List<Map<String, Object>> searchBySymptoms(List<String> symptoms) {
-        if (symptoms == null || symptoms.isEmpty()) return List.of();
-
-        Set<String> lower = symptoms.stream()
-                .map(s -> s.toLowerCase().trim())
-                .collect(Collectors.toSet());
-
-        return records.stream()
-                .filter(rec -> {
-                    Object symptomsObj = rec.get("symptoms");
-                    if (symptomsObj instanceof List<?> list) {
-                        for (Object s : list) {
-                            if (s != null && lower.contains(s.toString().toLowerCase().trim())) {
-                                return true;
-                            }
-                        }
-                    }
-                    return false;
-                })
-                .collect(Collectors.toList());
+    public int[] resolveSymptomIds(List<String> symptoms, SymptomMatchMode mode) {
+        return dataset.resolveSymptomIds(symptoms, mode);
+    }
+
+    private long lastModified() {
+        try {
+            return location.isFile() ? location.lastModified() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
     }
 }
@@ -0,0 +1,215 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.MedicalRecord;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Yüklenmiş veri setinin değişmez anlık görüntüsü: kayıtlar, semptom sözlüğü,
+ * ters indeks ve türetilmiş bulanık/metin indeksleri. Yeniden yüklemede
+ * yenisi tamamen kurulduktan sonra tek referansla yayınlanır; okuyucular bir
+ * istek boyunca aynı görüntüyü kullanır.
+ */
+public final class MedicalDataset {
+
+    private static final int[] NO_IDS = new int[0];
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final long version;
+    private final List<MedicalRecord> records;
+    // Normalize edilmiş semptom -> sözlük kimliği
+    private final Map<String, Integer> symptomIds;
+    private final Set<String> allSymptoms;
+    // Sözlük kimliği -> o semptomu içeren kayıtların (artan) indeksleri
+    private final int[][] postings;
+    private final FuzzySymptomIndex fuzzyIndex;
+    private final ComplaintTextIndex complaintIndex;
+
+    MedicalDataset(long version, List<MedicalRecord> records, List<String> vocabulary, int[][] postings) {
+        Map<String, Integer> ids = new LinkedHashMap<>(vocabulary.size() * 2);
+        for (int i = 0; i < vocabulary.size(); i++) ids.put(vocabulary.get(i), i);
+
+        this.version = version;
+        this.records = List.copyOf(records);
+        this.symptomIds = Collections.unmodifiableMap(ids);
+        this.allSymptoms = Collections.unmodifiableSet(ids.keySet());
+        this.postings = postings;
+        this.fuzzyIndex = new FuzzySymptomIndex(vocabulary);
+        this.complaintIndex = new ComplaintTextIndex(this.records.stream().map(MedicalRecord::getInputText).toList());
+    }
+
+    static MedicalDataset empty(long version) {
+        return new MedicalDataset(version, List.of(), List.of(), new int[0][]);
+    }
+
+    /**
+     * medical_data.json içeriğinden görüntü kurar. Dosya yapısal olarak
+     * bozuksa hiçbir şey kurulmadan {@link IllegalArgumentException} atılır.
+     */
+    static MedicalDataset fromJson(JsonNode root, long version) {
+        validate(root);
+
+        Map<String, String> strings = new HashMap<>();
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        List<List<Integer>> postingLists = new ArrayList<>();
+        List<MedicalRecord> loaded = new ArrayList<>(root.size());
+
+        for (JsonNode node : root) {
+            int idx = loaded.size();
+            List<String> symptoms = new ArrayList<>();
+            SortedSet<Integer> ids = new TreeSet<>();
+            JsonNode symptomsNode = node.get("symptoms");
+            if (symptomsNode != null && symptomsNode.isArray()) {
+                for (JsonNode s : symptomsNode) {
+                    if (s.isNull()) continue;
+                    String text = intern(strings, s.asText());
+                    symptoms.add(text);
+                    int id = dictionary.computeIfAbsent(intern(strings, normalize(text)), k -> {
+                        postingLists.add(new ArrayList<>());
+                        return postingLists.size() - 1;
+                    });
+                    // Aynı kayıtta tekrar eden semptom listeyi şişirmesin
+                    if (ids.add(id)) postingLists.get(id).add(idx);
+                }
+            }
+
+            loaded.add(new MedicalRecord(
+                    node.path("id").asInt(),
+                    text(node, "input_text", strings),
+                    symptoms,
+                    ids.stream().mapToInt(Integer::intValue).toArray(),
+                    node.path("urgency_level").asInt(0),
+                    text(node, "urgency_label", strings),
+                    text(node, "response", strings),
+                    text(node, "reasoning", strings)));
+        }
+
+        int[][] index = new int[postingLists.size()][];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = postingLists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new MedicalDataset(version, loaded, new ArrayList<>(dictionary.keySet()), index);
+    }
+
+    private static void validate(JsonNode root) {
+        if (root == null || !root.isArray()) {
+            throw new IllegalArgumentException("Veri seti bir JSON dizisi olmalıdır.");
+        }
+        if (root.isEmpty()) {
+            throw new IllegalArgumentException("Veri seti boş olamaz.");
+        }
+
+        List<String> errors = new ArrayList<>();
+        int withSymptoms = 0;
+        int i = 0;
+        for (JsonNode node : root) {
+            String where = "kayıt #" + i++;
+            if (!node.isObject()) {
+                errors.add(where + ": nesne değil");
+                continue;
+            }
+            JsonNode level = node.get("urgency_level");
+            if (level == null || !level.canConvertToInt() || level.asInt() < 1 || level.asInt() > 5) {
+                errors.add(where + ": urgency_level 1-5 arası tam sayı olmalı");
+            }
+            JsonNode symptoms = node.get("symptoms");
+            if (symptoms != null) {
+                if (!symptoms.isArray()) {
+                    errors.add(where + ": symptoms bir dizi olmalı");
+                } else if (!symptoms.isEmpty()) {
+                    withSymptoms++;
+                }
+            }
+        }
+        if (withSymptoms == 0) {
+            errors.add("hiçbir kayıtta semptom yok");
+        }
+        if (!errors.isEmpty()) {
+            String summary = String.join("; ", errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS)));
+            throw new IllegalArgumentException("Geçersiz veri seti (" + errors.size() + " hata): " + summary);
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<MedicalRecord> getRecords() {
+        return records;
+    }
+
+    public Set<String> getAllSymptoms() {
+        return allSymptoms;
+    }
+
+    public List<MedicalRecord> searchBySymptoms(List<String> symptoms, SymptomMatchMode mode) {
+        if (symptoms == null || symptoms.isEmpty()) return List.of();
+
+        BitSet hits = matchingRecordIndexes(resolveSymptomIds(symptoms, mode));
+        List<MedicalRecord> result = new ArrayList<>(hits.cardinality());
+        for (int idx = hits.nextSetBit(0); idx >= 0; idx = hits.nextSetBit(idx + 1)) {
+            result.add(records.get(idx));
+        }
+        return result;
+    }
+
+    /**
+     * Verilen semptom kimliklerinden en az birini içeren kayıtların
+     * {@link #getRecords()} içindeki indeksleri.
+     */
+    public BitSet matchingRecordIndexes(int[] ids) {
+        BitSet hits = new BitSet(records.size());
+        for (int id : ids) {
+            for (int idx : postings[id]) hits.set(idx);
+        }
+        return hits;
+    }
+
+    /**
+     * Girilen semptomları sözlük kimliklerine çevirir. Eşleşmeyenler atlanır;
+     * sonuç artan sıralı ve tekrarsızdır. FUZZY modda birebir karşılığı
+     * olmayan girdi en yakın yazımlı semptom(lar)a bağlanır.
+     */
+    public int[] resolveSymptomIds(List<String> symptoms, SymptomMatchMode mode) {
+        if (symptoms == null || symptoms.isEmpty()) return NO_IDS;
+        IntStream.Builder ids = IntStream.builder();
+        for (String s : symptoms) {
+            if (s == null) continue;
+            Integer id = symptomIds.get(normalize(s));
+            if (id != null) {
+                ids.add(id);
+            } else if (mode == SymptomMatchMode.FUZZY) {
+                for (int fuzzyId : fuzzyIndex.lookup(s)) ids.add(fuzzyId);
+            }
+        }
+        return ids.build().sorted().distinct().toArray();
+    }
+
+    List<String> vocabulary() {
+        return List.copyOf(symptomIds.keySet());
+    }
+
+    int[] postings(int symptomId) {
+        return postings[symptomId];
+    }
+
+    // input_text üzerinde BM25; bkz. ComplaintTextIndex
+    void scoreComplaint(String complaint, ComplaintTextIndex.ScoreConsumer consumer) {
+        complaintIndex.score(complaint, consumer);
+    }
+
+    // Varsayılan yerel ayar İ/ı harflerini yanlış çevirdiği için Türkçe kurallar kullanılır
+    static String normalize(String symptom) {
+        return symptom.trim().toLowerCase(FuzzySymptomIndex.TURKISH);
+    }
+
+    private static String text(JsonNode node, String field, Map<String, String> strings) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : intern(strings, value.asText());
+    }
+
+    private static String intern(Map<String, String> strings, String s) {
+        return strings.computeIfAbsent(s, k -> k);
+    }
+}
@@ -0,0 +1,163 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.MedicalRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Veri setinin derlenmiş ikili biçimi. JSON doğruluk kaynağı olarak kalır;
+ * bu dosya derleme sırasında ondan üretilir (bkz. build.gradle
+ * compileMedicalDataset) ve açılışta yansıma kullanmadan tek geçişte okunur.
+ *
+ * <pre>
+ * int magic, short formatVersion, 32 x byte sourceDigest   kaynak JSON'un SHA-256 özeti
+ * int n, n x UTF            dize tablosu (diğer alanlar buraya indeks verir, -1 = null)
+ * int v, v x int            semptom sözlüğü (normalize edilmiş ad)
+ * v x (int n, n x int)      posting listeleri
+ * int r, r x kayıt          id, input_text, semptomlar, semptom kimlikleri,
+ *                           urgency_level, urgency_label, response, reasoning
+ * </pre>
+ */
+public final class MedicalDatasetCodec {
+
+    static final int MAGIC = 0x45524D44; // "ERMD"
+    static final short FORMAT_VERSION = 2;
+    static final int DIGEST_LENGTH = 32;
+
+    private MedicalDatasetCodec() {}
+
+    /** Derleme zamanı girişi: {@code <medical_data.json> <medical_data.bin>} */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Kullanım: MedicalDatasetCodec <json> <bin>");
+        }
+        Path source = Path.of(args[0]);
+        Path target = Path.of(args[1]);
+        MedicalDataset dataset = MedicalDataset.fromJson(new ObjectMapper().readTree(source.toFile()), 0);
+
+        byte[] sourceDigest;
+        try (InputStream in = Files.newInputStream(source)) {
+            sourceDigest = digest(in);
+        }
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+            write(dataset, sourceDigest, out);
+        }
+    }
+
+    /** Kaynak JSON'un SHA-256 özeti; ikili dosyanın hangi JSON'dan üretildiğini tanımlar. */
+    static byte[] digest(InputStream in) throws IOException {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor.", e);
+        }
+        byte[] buffer = new byte[8192];
+        for (int n; (n = in.read(buffer)) != -1; ) sha.update(buffer, 0, n);
+        return sha.digest();
+    }
+
+    static void write(MedicalDataset dataset, byte[] sourceDigest, DataOutput out) throws IOException {
+        if (sourceDigest.length != DIGEST_LENGTH) {
+            throw new IllegalArgumentException("Kaynak özeti " + DIGEST_LENGTH + " bayt olmalı: " + sourceDigest.length);
+        }
+        List<String> vocabulary = dataset.vocabulary();
+        Map<String, Integer> table = new LinkedHashMap<>();
+        for (String symptom : vocabulary) ref(table, symptom);
+        for (MedicalRecord rec : dataset.getRecords()) {
+            ref(table, rec.getInputText());
+            rec.getSymptoms().forEach(s -> ref(table, s));
+            ref(table, rec.getUrgencyLabel());
+            ref(table, rec.getResponse());
+            ref(table, rec.getReasoning());
+        }
+
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        out.write(sourceDigest);
+
+        out.writeInt(table.size());
+        for (String s : table.keySet()) out.writeUTF(s);
+
+        out.writeInt(vocabulary.size());
+        for (String symptom : vocabulary) out.writeInt(table.get(symptom));
+        for (int id = 0; id < vocabulary.size(); id++) writeInts(out, dataset.postings(id));
+
+        out.writeInt(dataset.getRecords().size());
+        for (MedicalRecord rec : dataset.getRecords()) {
+            out.writeInt(rec.getId());
+            out.writeInt(ref(table, rec.getInputText()));
+            out.writeInt(rec.getSymptoms().size());
+            for (String s : rec.getSymptoms()) out.writeInt(ref(table, s));
+            writeInts(out, dataset.resolveSymptomIds(rec.getSymptoms(), SymptomMatchMode.EXACT));
+            out.writeByte(rec.getUrgencyLevel());
+            out.writeInt(ref(table, rec.getUrgencyLabel()));
+            out.writeInt(ref(table, rec.getResponse()));
+            out.writeInt(ref(table, rec.getReasoning()));
+        }
+    }
+
+    /**
+     * İkili dosyayı okur. Dosya farklı bir biçim sürümündeyse ya da üretildiği
+     * JSON'un özeti {@code expectedSourceDigest} ile uyuşmuyorsa (eskimiş
+     * derleme) {@link IllegalStateException} atılır; {@code null} denetimi atlar.
+     */
+    static MedicalDataset read(DataInput in, byte[] expectedSourceDigest, long version) throws IOException {
+        if (in.readInt() != MAGIC) throw new IllegalStateException("Tanınmayan veri seti dosyası.");
+        short format = in.readShort();
+        if (format != FORMAT_VERSION) throw new IllegalStateException("Desteklenmeyen biçim sürümü: " + format);
+        byte[] sourceDigest = new byte[DIGEST_LENGTH];
+        in.readFully(sourceDigest);
+        if (expectedSourceDigest != null && !MessageDigest.isEqual(sourceDigest, expectedSourceDigest)) {
+            throw new IllegalStateException("İkili veri seti JSON kaynağıyla uyuşmuyor (eskimiş derleme).");
+        }
+
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) strings[i] = in.readUTF();
+
+        String[] vocabulary = new String[in.readInt()];
+        for (int i = 0; i < vocabulary.length; i++) vocabulary[i] = strings[in.readInt()];
+        int[][] postings = new int[vocabulary.length][];
+        for (int i = 0; i < postings.length; i++) postings[i] = readInts(in);
+
+        MedicalRecord[] records = new MedicalRecord[in.readInt()];
+        for (int r = 0; r < records.length; r++) {
+            int id = in.readInt();
+            String inputText = str(strings, in.readInt());
+            String[] symptoms = new String[in.readInt()];
+            for (int i = 0; i < symptoms.length; i++) symptoms[i] = strings[in.readInt()];
+            int[] symptomIds = readInts(in);
+            int urgencyLevel = in.readByte();
+            records[r] = new MedicalRecord(id, inputText, Arrays.asList(symptoms), symptomIds, urgencyLevel,
+                    str(strings, in.readInt()), str(strings, in.readInt()), str(strings, in.readInt()));
+        }
+
+        return new MedicalDataset(version, Arrays.asList(records), Arrays.asList(vocabulary), postings);
+    }
+
+    private static int ref(Map<String, Integer> table, String s) {
+        return s == null ? -1 : table.computeIfAbsent(s, k -> table.size());
+    }
+
+    private static String str(String[] strings, int ref) {
+        return ref < 0 ? null : strings[ref];
+    }
+
+    private static void writeInts(DataOutput out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int v : values) out.writeInt(v);
+    }
+
+    private static int[] readInts(DataInput in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) values[i] = in.readInt();
+        return values;
+    }
+}
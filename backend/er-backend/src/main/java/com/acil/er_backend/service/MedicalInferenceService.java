@@ -1,57 +1,175 @@
 package com.acil.er_backend.service;
 
+import com.acil.er_backend.dto.MedicalSuggestion;
+import com.acil.er_backend.model.MedicalRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class MedicalInferenceService {
 
     private final MedicalDataService medicalDataService;
+    private final SuggestionCache suggestionCache;
+    private final SymptomMatchMode defaultMatchMode;
 
-    public MedicalInferenceService(MedicalDataService medicalDataService) {
+    public MedicalInferenceService(MedicalDataService medicalDataService, SuggestionCache suggestionCache,
+            @Value("${app.medical.match-mode:EXACT}") SymptomMatchMode defaultMatchMode) {
         this.medicalDataService = medicalDataService;
+        this.suggestionCache = suggestionCache;
+        this.defaultMatchMode = defaultMatchMode;
     }
 
-    public List<Map<String, Object>> suggestTop5(List<String> symptoms) {
-        if (symptoms == null || symptoms.isEmpty()) return List.of();
-
-        List<Map<String, Object>> matches = medicalDataService.searchBySymptoms(symptoms);
-
-        List<Map<String, Object>> scored = new ArrayList<>();
-        for (Map<String, Object> rec : matches) {
-            Object symptomsObj = rec.get("symptoms");
-            int matchCount = 0;
-            if (symptomsObj instanceof List<?> list) {
-                for (Object s : list) {
-                    if (s != null) {
-                        String lower = s.toString().toLowerCase().trim();
-                        for (String input : symptoms) {
-                            if (lower.equals(input.toLowerCase().trim())) {
-                                matchCount++;
-                                break;
-                            }
-                        }
-                    }
-                }
+    public SymptomMatchMode getDefaultMatchMode() {
+        return defaultMatchMode;
+    }
+
+    public List<MedicalSuggestion> suggestTop5(List<String> symptoms) {
+        return suggest(symptoms, 5);
+    }
+
+    public List<MedicalSuggestion> suggestTop5(List<String> symptoms, SymptomMatchMode mode) {
+        return suggest(symptoms, 5, mode);
+    }
+
+    public List<MedicalSuggestion> suggest(List<String> symptoms, int limit) {
+        return suggest(symptoms, limit, defaultMatchMode);
+    }
+
+    /**
+     * Girilen semptomlarla en çok örtüşen {@code limit} kaydı döner.
+     * Sıralama: eşleşme skoru (azalan), aciliyet (azalan), veri setindeki sıra.
+     */
+    public List<MedicalSuggestion> suggest(List<String> symptoms, int limit, SymptomMatchMode mode) {
+        if (symptoms == null || symptoms.isEmpty() || limit <= 0) return List.of();
+
+        MedicalDataset data = medicalDataService.current();
+        return suggest(data, data.resolveSymptomIds(symptoms, mode), limit);
+    }
+
+    // Kimlikleri çözülmüş girdiyi verilen görüntü üzerinde sıralar (toplu çıkarım da bunu kullanır)
+    List<MedicalSuggestion> suggest(MedicalDataset data, int[] inputIds, int limit) {
+        if (inputIds.length == 0 || limit <= 0) return List.of();
+
+        List<MedicalSuggestion> cached = suggestionCache.get(data.getVersion(), inputIds, limit);
+        if (cached != null) return cached;
+
+        List<MedicalSuggestion> ranked = rank(data, inputIds, limit);
+        suggestionCache.put(data.getVersion(), inputIds, limit, ranked);
+        return ranked;
+    }
+
+    /**
+     * Serbest metin şikâyeti veri setindeki input_text alanlarına karşı BM25
+     * ile sıralar. match_score eşleşen farklı terim sayısıdır.
+     */
+    public List<MedicalSuggestion> suggestByComplaint(String complaint, int limit) {
+        return suggestByComplaint(medicalDataService.current(), complaint, limit);
+    }
+
+    List<MedicalSuggestion> suggestByComplaint(MedicalDataset data, String complaint, int limit) {
+        if (complaint == null || complaint.isBlank() || limit <= 0) return List.of();
+        TopK top = new TopK(data.getRecords(), limit, true);
+        data.scoreComplaint(complaint, top::offer);
+        return top.drain();
+    }
+
+    public SuggestionCache.Stats getCacheStats() {
+        return suggestionCache.stats();
+    }
+
+    private List<MedicalSuggestion> rank(MedicalDataset data, int[] inputIds, int limit) {
+        List<MedicalRecord> records = data.getRecords();
+        BitSet candidates = data.matchingRecordIndexes(inputIds);
+
+        TopK top = new TopK(records, Math.min(limit, candidates.cardinality()), false);
+        for (int idx = candidates.nextSetBit(0); idx >= 0; idx = candidates.nextSetBit(idx + 1)) {
+            int matches = records.get(idx).matchCount(inputIds);
+            top.offer(idx, matches, matches);
+        }
+        return top.drain();
+    }
+
+    // Sabit kapasiteli min-heap; kökte o ana kadarki en zayıf aday durur.
+    private static final class TopK {
+        private final List<MedicalRecord> records;
+        private final boolean textScores;
+        private final int[] idx;
+        private final double[] score;
+        private final int[] matches;
+        private int size;
+
+        TopK(List<MedicalRecord> records, int capacity, boolean textScores) {
+            this.records = records;
+            this.textScores = textScores;
+            this.idx = new int[capacity];
+            this.score = new double[capacity];
+            this.matches = new int[capacity];
+        }
+
+        void offer(int recordIdx, double recordScore, int matchCount) {
+            if (idx.length == 0) return;
+            if (size < idx.length) {
+                set(size, recordIdx, recordScore, matchCount);
+                siftUp(size++);
+            } else if (weaker(0, recordIdx, recordScore)) {
+                set(0, recordIdx, recordScore, matchCount);
+                siftDown(0);
+            }
+        }
+
+        List<MedicalSuggestion> drain() {
+            MedicalSuggestion[] out = new MedicalSuggestion[size];
+            for (int i = size - 1; i >= 0; i--) {
+                out[i] = new MedicalSuggestion(records.get(idx[0]), matches[0], textScores ? score[0] : null);
+                set(0, idx[size - 1], score[size - 1], matches[size - 1]);
+                size--;
+                siftDown(0);
+            }
+            return List.of(out);
+        }
+
+        private void set(int i, int recordIdx, double recordScore, int matchCount) {
+            idx[i] = recordIdx;
+            score[i] = recordScore;
+            matches[i] = matchCount;
+        }
+
+        // Heap'teki i. aday, (recordIdx, recordScore) adayından daha mı zayıf?
+        private boolean weaker(int i, int recordIdx, double recordScore) {
+            if (score[i] != recordScore) return score[i] < recordScore;
+            int urgI = records.get(idx[i]).getUrgencyLevel();
+            int urg = records.get(recordIdx).getUrgencyLevel();
+            if (urgI != urg) return urgI < urg;
+            return idx[i] > recordIdx;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!weaker(i, idx[parent], score[parent])) break;
+                swap(i, parent);
+                i = parent;
             }
-            Map<String, Object> copy = new HashMap<>(rec);
-            copy.put("match_score", matchCount);
-            scored.add(copy);
-        }
-
-        return scored.stream()
-                .sorted((a, b) -> {
-                    int scoreA = (int) a.getOrDefault("match_score", 0);
-                    int scoreB = (int) b.getOrDefault("match_score", 0);
-                    if (scoreB != scoreA) return scoreB - scoreA;
-                    Object uA = a.get("urgency_level");
-                    Object uB = b.get("urgency_level");
-                    int urgA = uA != null ? Integer.parseInt(uA.toString()) : 0;
-                    int urgB = uB != null ? Integer.parseInt(uB.toString()) : 0;
-                    return urgB - urgA;
-                })
-                .limit(5)
-                .collect(Collectors.toList());
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) break;
+                int weakest = left;
+                int right = left + 1;
+                if (right < size && weaker(right, idx[left], score[left])) weakest = right;
+                if (!weaker(weakest, idx[i], score[i])) break;
+                swap(i, weakest);
+                i = weakest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int t = idx[a]; idx[a] = idx[b]; idx[b] = t;
+            t = matches[a]; matches[a] = matches[b]; matches[b] = t;
+            double s = score[a]; score[a] = score[b]; score[b] = s;
+        }
     }
 }
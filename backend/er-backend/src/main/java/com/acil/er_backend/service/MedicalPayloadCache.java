@@ -0,0 +1,190 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.MedicalRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * /api/medical/data ve /api/medical/symptoms için önceden serileştirilmiş
+ * (düz ve gzip) gövdeler. Gövdeler veri seti görüntüsü başına bir kez kurulur;
+ * ETag içerik özetidir, böylece yeniden başlatma sonrasında da aynı veri
+ * için aynı kalır ve istemci önbellekleri geçerliliğini korur.
+ */
+@Component
+public class MedicalPayloadCache {
+
+    public static final List<String> RECORD_FIELDS = List.of(
+            "id", "input_text", "symptoms", "urgency_level", "urgency_label", "response", "reasoning");
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final MedicalDataService medicalDataService;
+    private final ObjectMapper objectMapper;
+    private volatile Snapshot snapshot;
+
+    public MedicalPayloadCache(MedicalDataService medicalDataService, ObjectMapper objectMapper) {
+        this.medicalDataService = medicalDataService;
+        this.objectMapper = objectMapper;
+    }
+
+    public Payload symptoms() {
+        return snapshot().symptoms;
+    }
+
+    public Payload data() {
+        return snapshot().data;
+    }
+
+    /**
+     * Veri setinin {@code cursor} konumundan başlayan en fazla {@code limit}
+     * kaydı; {@code fields} boşsa tüm alanlar. İmleç başka bir veri seti
+     * içeriğine aitse {@link IllegalArgumentException} atılır.
+     */
+    public Payload page(String cursor, int limit, List<String> fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit 1-" + MAX_PAGE_SIZE + " arasında olmalı.");
+        }
+        List<String> selected = fields == null || fields.isEmpty() ? RECORD_FIELDS : fields;
+        for (String field : selected) {
+            if (!RECORD_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Bilinmeyen alan: " + field);
+            }
+        }
+
+        Snapshot s = snapshot();
+        List<MedicalRecord> records = s.dataset.getRecords();
+        int offset = decodeCursor(cursor, s.tag, records.size());
+        int end = Math.min(records.size(), offset + limit);
+
+        ObjectNode body = objectMapper.createObjectNode();
+        ArrayNode items = body.putArray("items");
+        for (int i = offset; i < end; i++) {
+            ObjectNode node = objectMapper.valueToTree(records.get(i));
+            node.retain(selected);
+            items.add(node);
+        }
+        body.put("total", records.size());
+        if (end < records.size()) body.put("next_cursor", encodeCursor(s.tag, end));
+        else body.putNull("next_cursor");
+
+        // Sayfalar istek başına kurulur; sıkıştırılmış kopya tutulmaz
+        String key = s.tag + "|" + offset + "|" + limit + "|" + String.join(",", selected);
+        return new Payload(serialize(body), null, etag(digest(key.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private Snapshot snapshot() {
+        MedicalDataset current = medicalDataService.current();
+        Snapshot s = snapshot;
+        if (s != null && s.dataset == current) return s;
+        synchronized (this) {
+            s = snapshot;
+            if (s == null || s.dataset != current) {
+                s = new Snapshot(current, Payload.of(serialize(current.getAllSymptoms())),
+                        Payload.of(serialize(current.getRecords())));
+                snapshot = s;
+            }
+            return s;
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Yanıt serileştirilemedi: " + e.getMessage(), e);
+        }
+    }
+
+    private static int decodeCursor(String cursor, String tag, int size) {
+        if (cursor == null || cursor.isBlank()) return 0;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = decoded.lastIndexOf(':');
+            int offset = Integer.parseInt(decoded.substring(sep + 1));
+            if (sep > 0 && decoded.substring(0, sep).equals(tag) && offset >= 0 && offset <= size) {
+                return offset;
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // Aşağıdaki ortak hata mesajına düşer
+        }
+        throw new IllegalArgumentException("Sayfa imleci geçersiz ya da veri seti değişti; ilk sayfadan başlayın.");
+    }
+
+    private static String encodeCursor(String tag, int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((tag + ":" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String etag(String hash) {
+        return "\"" + hash + "\"";
+    }
+
+    private static final class Snapshot {
+        final MedicalDataset dataset;
+        final Payload symptoms;
+        final Payload data;
+        // Sayfa imleçleri ve ETag'leri için veri seti içeriğinin özeti
+        final String tag;
+
+        Snapshot(MedicalDataset dataset, Payload symptoms, Payload data) {
+            this.dataset = dataset;
+            this.symptoms = symptoms;
+            this.data = data;
+            this.tag = data.getEtag().substring(1, 17);
+        }
+    }
+
+    public static final class Payload {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+
+        private Payload(byte[] json, byte[] gzip, String etag) {
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+        }
+
+        static Payload of(byte[] json) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+                gz.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new Payload(json, out.toByteArray(), etag(digest(json)));
+        }
+
+        public byte[] getJson() { return json; }
+        /** Önceden sıkıştırılmış gövde; yoksa {@code null}. */
+        public byte[] getGzip() { return gzip; }
+        public String getEtag() { return etag; }
+
+        /**
+         * Sıkıştırılmış gövdenin ETag'i. Baytları düz gövdeden farklı olduğu
+         * için güçlü ETag'i de ayrıdır; ikisi aynı özetten türetilir.
+         */
+        public String getGzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.acil.er_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Mobil uygulama için hasta başına uzun yoklama. İstemci son gördüğü
+ * {@code version} ile bağlanır; sırası ya da durumu değişene kadar (en
+ * fazla zaman aşımı kadar) cevap bekletilir.
+ *
+ * Durum {@link LiveQueue} üzerinden hesaplandığı için bekleyen hastalar
+ * veritabanına yük bindirmez; her {@link LiveQueue.Change} sonrası yalnızca
+ * bekleyen TC'ler bellekte yeniden değerlendirilir.
+ */
+@Component
+public class MobileQueueWatcher {
+
+    private static final long MAX_TIMEOUT_MS = 60_000;
+
+    private final AppointmentService appointmentService;
+    private final long defaultTimeoutMs;
+    private final Map<String, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final Executor notifier;
+
+    @Autowired
+    public MobileQueueWatcher(AppointmentService appointmentService,
+            @Value("${app.queue.watch-timeout-ms:25000}") long defaultTimeoutMs) {
+        this(appointmentService, defaultTimeoutMs, Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "queue-watch");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    MobileQueueWatcher(AppointmentService appointmentService, long defaultTimeoutMs, Executor notifier) {
+        this.appointmentService = appointmentService;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.notifier = notifier;
+    }
+
+    /**
+     * Güncel durum {@code version}'dan farklıysa hemen, değilse ilk
+     * değişiklikte döner. Zaman aşımında aynı sürümle güncel durum döner.
+     */
+    public DeferredResult<AppointmentService.MobileQueueStatus> watch(String tc, String version, Long timeoutMs) {
+        long timeout = timeoutMs == null ? defaultTimeoutMs : Math.max(1_000, Math.min(timeoutMs, MAX_TIMEOUT_MS));
+        DeferredResult<AppointmentService.MobileQueueStatus> result = new DeferredResult<>(timeout);
+        AppointmentService.MobileQueueStatus current = appointmentService.getMobileQueueStatus(tc);
+        if (version == null || !version.equals(current.getVersion())) {
+            result.setResult(current);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(version, result);
+        waiters.compute(tc, (k, set) -> {
+            if (set == null) set = ConcurrentHashMap.newKeySet();
+            set.add(waiter);
+            return set;
+        });
+        result.onTimeout(() -> result.setResult(appointmentService.getMobileQueueStatus(tc)));
+        result.onCompletion(() -> waiters.computeIfPresent(tc, (k, set) -> {
+            set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        }));
+        // Kayıt ile ilk okuma arasında gelen değişiklik kaçmasın
+        notifyIfChanged(tc, Set.of(waiter));
+        return result;
+    }
+
+    @EventListener
+    public void onQueueChange(LiveQueue.Change change) {
+        if (waiters.isEmpty()) return;
+        notifier.execute(() -> waiters.forEach(this::notifyIfChanged));
+    }
+
+    public int getWaiterCount() {
+        return waiters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (notifier instanceof ExecutorService executor) executor.shutdownNow();
+    }
+
+    // TC başına durum bir kez hesaplanır; aynı hastanın birden çok cihazı olabilir
+    private void notifyIfChanged(String tc, Set<Waiter> set) {
+        AppointmentService.MobileQueueStatus status = null;
+        for (Waiter w : set) {
+            if (w.result().isSetOrExpired()) continue;
+            if (status == null) status = appointmentService.getMobileQueueStatus(tc);
+            if (!Objects.equals(w.version(), status.getVersion())) w.result().setResult(status);
+        }
+    }
+
+    private record Waiter(String version, DeferredResult<AppointmentService.MobileQueueStatus> result) {
+    }
+}
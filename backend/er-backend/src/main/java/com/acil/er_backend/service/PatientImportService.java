@@ -0,0 +1,236 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.ImportEvent;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.repository.PatientImportRepository;
+import com.acil.er_backend.repository.PatientImportRepository.Visit;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Eski sistemden hasta ve geçmiş ziyaret aktarımı. Satırlar okundukça
+ * doğrulanır ve {@code app.import.chunk-size}'lık partilere toplanır; her
+ * parti kendi transaction'ında yazılır, ardından ilerleme bildirilir. Bellekte
+ * hiçbir zaman bir partiden fazlası tutulmaz. Zaten kayıtlı olanlar atlandığı
+ * için yarıda kalan bir aktarım aynı dosyayla baştan çalıştırılabilir.
+ */
+@Service
+public class PatientImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientImportService.class);
+
+    private final PatientImportRepository imports;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public PatientImportService(PatientImportRepository imports, Validator validator,
+            @Value("${app.import.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Aktarım parti boyutu en az 1 olmalı: " + chunkSize);
+        }
+        this.imports = imports;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /** Alanlar: tc, name, birthYear, gender; doğrulama {@link Patient} kısıtlarıyla yapılır. */
+    public ImportEvent importPatients(ImportRowReader rows, Consumer<ImportEvent> sink) throws IOException {
+        return run(rows, sink, this::patient, this::writePatients);
+    }
+
+    /** Alanlar: tc, arrivedAt, completedAt, chiefComplaint; hasta önceden kayıtlı olmalı. */
+    public ImportEvent importVisits(ImportRowReader rows, Consumer<ImportEvent> sink) throws IOException {
+        return run(rows, sink, this::visit, this::writeVisits);
+    }
+
+    private <T> ImportEvent run(ImportRowReader rows, Consumer<ImportEvent> sink,
+            RowParser<T> parser, ChunkWriter<T> writer) throws IOException {
+        Counts counts = new Counts(sink);
+        List<Parsed<T>> chunk = new ArrayList<>(chunkSize);
+        ImportRowReader.Row row;
+        try {
+            while ((row = rows.next()) != null) {
+                counts.processed++;
+                if (row.error() != null) {
+                    counts.fail(row.line(), null, row.error());
+                    continue;
+                }
+                try {
+                    chunk.add(new Parsed<>(row.line(), row.get("tc"), parser.parse(row)));
+                } catch (IllegalArgumentException e) {
+                    counts.fail(row.line(), row.get("tc"), e.getMessage());
+                    continue;
+                }
+                if (chunk.size() == chunkSize) {
+                    writer.write(chunk, counts);
+                    chunk.clear();
+                    sink.accept(counts.event(ImportEvent.Type.PROGRESS));
+                }
+            }
+            if (!chunk.isEmpty()) writer.write(chunk, counts);
+        } catch (DataAccessException e) {
+            // Yazılmış partiler kalıcıdır; son PROGRESS olayı neyin yazıldığını söyler
+            log.error("Toplu aktarım {} kayıt işlendikten sonra durdu", counts.processed, e);
+            ImportEvent aborted = ImportEvent.aborted("Veritabanı hatası, aktarım durdu: "
+                    + e.getMostSpecificCause().getMessage());
+            sink.accept(aborted);
+            return aborted;
+        }
+        ImportEvent done = counts.event(ImportEvent.Type.DONE);
+        sink.accept(done);
+        return done;
+    }
+
+    private Patient patient(ImportRowReader.Row row) {
+        Patient p = new Patient();
+        p.setTc(row.get("tc"));
+        p.setName(row.get("name"));
+        String birthYear = row.get("birthYear");
+        try {
+            p.setBirthYear(birthYear == null ? null : Integer.valueOf(birthYear));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Doğum yılı sayı olmalıdır: " + birthYear);
+        }
+        p.setGender(row.get("gender"));
+        Set<ConstraintViolation<Patient>> violations = validator.validate(p);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ",
+                    violations.stream().map(ConstraintViolation::getMessage).sorted().toList()));
+        }
+        return p;
+    }
+
+    private Visit visit(ImportRowReader.Row row) {
+        String tc = row.get("tc");
+        if (tc == null) throw new IllegalArgumentException("TC kimlik numarası boş olamaz");
+        LocalDateTime arrivedAt = time(row, "arrivedAt");
+        if (arrivedAt == null) throw new IllegalArgumentException("Geliş zamanı (arrivedAt) boş olamaz");
+        if (!arrivedAt.toLocalDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Geçmiş ziyaret bugünden önce olmalıdır: " + arrivedAt);
+        }
+        LocalDateTime completedAt = time(row, "completedAt");
+        if (completedAt != null && completedAt.isBefore(arrivedAt)) {
+            throw new IllegalArgumentException("Bitiş zamanı gelişten önce olamaz");
+        }
+        String complaint = row.get("chiefComplaint");
+        if (complaint != null && complaint.length() > 255) {
+            throw new IllegalArgumentException("Şikâyet en fazla 255 karakter olabilir");
+        }
+        return new Visit(tc, arrivedAt, completedAt, complaint);
+    }
+
+    // Veritabanı mikro saniye tutar; tekrar aktarımda aynı ziyaret eşleşebilsin
+    private static LocalDateTime time(ImportRowReader.Row row, String field) {
+        String value = row.get(field);
+        try {
+            return value == null ? null : LocalDateTime.parse(value).truncatedTo(ChronoUnit.MICROS);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(field + " ISO tarih-saat olmalıdır (ör. 2024-05-01T14:30): " + value);
+        }
+    }
+
+    private void writePatients(List<Parsed<Patient>> chunk, Counts counts) {
+        Map<String, Parsed<Patient>> unique = unique(chunk, Parsed::tc, counts);
+        Set<String> existing;
+        for (int attempt = 1; ; attempt++) {
+            existing = imports.findExistingTcs(unique.keySet());
+            Set<String> skip = existing;
+            try {
+                imports.insertPatients(unique.values().stream()
+                        .filter(p -> !skip.contains(p.tc())).map(Parsed::value).toList());
+                break;
+            } catch (DuplicateKeyException e) {
+                // Ayıklamayla yazma arasında aynı TC başka bir istekle kaydedildi; bir kez yeniden ayıkla
+                if (attempt == 2) throw e;
+            }
+        }
+        for (Parsed<Patient> p : unique.values()) {
+            if (existing.contains(p.tc())) counts.duplicate(p);
+            else counts.imported++;
+        }
+    }
+
+    private void writeVisits(List<Parsed<Visit>> chunk, Counts counts) {
+        Map<String, Parsed<Visit>> unique = unique(chunk, p -> p.tc() + "@" + p.value().arrivedAt(), counts);
+        Set<String> known = imports.findExistingTcs(unique.values().stream().map(Parsed::tc).distinct().toList());
+        List<Parsed<Visit>> candidates = new ArrayList<>();
+        for (Parsed<Visit> p : unique.values()) {
+            if (known.contains(p.tc())) candidates.add(p);
+            else counts.fail(p.line(), p.tc(), "Hasta bulunamadı: " + p.tc());
+        }
+        Set<Visit> existing = imports.findExistingVisits(candidates.stream().map(Parsed::value).toList());
+        List<Visit> fresh = new ArrayList<>();
+        for (Parsed<Visit> p : candidates) {
+            if (existing.contains(p.value())) counts.duplicate(p);
+            else fresh.add(p.value());
+        }
+        imports.insertArchivedVisits(fresh);
+        counts.imported += fresh.size();
+    }
+
+    // Dosya içinde tekrar eden kayıtlardan ilki kalır, sonrakiler mükerrer sayılır
+    private static <T, K> Map<K, Parsed<T>> unique(List<Parsed<T>> chunk,
+            Function<Parsed<T>, K> key, Counts counts) {
+        Map<K, Parsed<T>> unique = new LinkedHashMap<>();
+        for (Parsed<T> p : chunk) {
+            if (unique.putIfAbsent(key.apply(p), p) != null) counts.duplicate(p);
+        }
+        return unique;
+    }
+
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(ImportRowReader.Row row);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<Parsed<T>> chunk, Counts counts);
+    }
+
+    private record Parsed<T>(int line, String tc, T value) {}
+
+    private static final class Counts {
+        final Consumer<ImportEvent> sink;
+        int processed;
+        int imported;
+        int duplicates;
+        int failed;
+
+        Counts(Consumer<ImportEvent> sink) {
+            this.sink = sink;
+        }
+
+        void fail(int line, String tc, String message) {
+            failed++;
+            sink.accept(ImportEvent.row(ImportEvent.Type.ERROR, line, tc, message));
+        }
+
+        void duplicate(Parsed<?> p) {
+            duplicates++;
+            sink.accept(ImportEvent.row(ImportEvent.Type.DUPLICATE, p.line(), p.tc(), "Zaten kayıtlı."));
+        }
+
+        ImportEvent event(ImportEvent.Type type) {
+            return ImportEvent.counts(type, processed, imported, duplicates, failed);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.acil.er_backend.service;
 
+import com.acil.er_backend.dto.PatientPage;
+import com.acil.er_backend.dto.PatientSearchCriteria;
 import com.acil.er_backend.model.Patient;
-import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PatientService {
     Patient savePatient(Patient patient);
-    List<Patient> getAllPatients();
+    PatientPage searchPatients(PatientSearchCriteria criteria, String cursor, int limit);
+    void forEachPatient(PatientSearchCriteria criteria, Consumer<Patient> sink);
     Optional<Patient> getPatientByTc(String tc);
     void deletePatient(String tc);
     boolean existsByTc(String tc);
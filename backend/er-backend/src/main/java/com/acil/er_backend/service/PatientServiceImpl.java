@@ -1,19 +1,30 @@
 package com.acil.er_backend.service;
 
+import com.acil.er_backend.dto.PatientPage;
+import com.acil.er_backend.dto.PatientSearchCriteria;
 import com.acil.er_backend.model.Patient;
 import com.acil.er_backend.repository.PatientRepository;
+import com.acil.er_backend.repository.PatientSearchRepository;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class PatientServiceImpl implements PatientService {
 
+    private static final int MAX_PAGE = 200;
+
     private final PatientRepository patientRepository;
+    private final LiveQueue liveQueue;
+    private final PatientSearchRepository search;
 
-    public PatientServiceImpl(PatientRepository patientRepository) {
+    public PatientServiceImpl(PatientRepository patientRepository, LiveQueue liveQueue,
+            PatientSearchRepository search) {
         this.patientRepository = patientRepository;
+        this.liveQueue = liveQueue;
+        this.search = search;
     }
 
     @Override
@@ -22,8 +33,25 @@ public class PatientServiceImpl implements PatientService {
     }
 
     @Override
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    public PatientPage searchPatients(PatientSearchCriteria criteria, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE));
+        PatientSearchRepository.Cursor after =
+                cursor == null || cursor.isBlank() ? null : PatientSearchRepository.Cursor.parse(cursor);
+        // Bir fazlası okunur: sonraki sayfa var mı, ayrı sayım sorgusu gerekmez
+        List<Patient> items = search.findPage(criteria, after, size + 1);
+        PatientPage page = new PatientPage();
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            boolean byName = criteria.getNamePrefix() != null;
+            page.setNextCursor(PatientSearchRepository.Cursor.after(items.get(size - 1), byName).encode());
+        }
+        page.setItems(items);
+        return page;
+    }
+
+    @Override
+    public void forEachPatient(PatientSearchCriteria criteria, Consumer<Patient> sink) {
+        search.forEach(criteria, sink);
     }
 
     @Override
@@ -48,7 +76,9 @@ public class PatientServiceImpl implements PatientService {
         existing.setName(updated.getName());
         if (updated.getBirthYear() != null) existing.setBirthYear(updated.getBirthYear());
         if (updated.getGender() != null) existing.setGender(updated.getGender());
-        return patientRepository.save(existing);
+        Patient saved = patientRepository.save(existing);
+        liveQueue.renamePatient(tc, saved.getName());
+        return saved;
     }
 
     @Override
@@ -58,6 +88,8 @@ public class PatientServiceImpl implements PatientService {
         if (patch.getName() != null) existing.setName(patch.getName());
         if (patch.getBirthYear() != null) existing.setBirthYear(patch.getBirthYear());
         if (patch.getGender() != null) existing.setGender(patch.getGender());
-        return patientRepository.save(existing);
+        Patient saved = patientRepository.save(existing);
+        liveQueue.renamePatient(tc, saved.getName());
+        return saved;
     }
 }
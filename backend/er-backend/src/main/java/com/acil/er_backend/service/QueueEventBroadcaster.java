@@ -0,0 +1,153 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.QueueEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sıra değişikliklerini SSE ile yayınlar. {@link LiveQueue.Change} başına
+ * olay bir kez serileştirilir ve tek bir arka plan iş parçacığından tüm
+ * abonelere yazılır; ekran sayısı veritabanı yükünü artırmaz.
+ *
+ * İki kanal vardır: personel listeleri için randevu kimlikli değişiklikler
+ * ("queue" olayı) ve herkese açık bekleme ekranları için maskelenmiş tam
+ * görünüm ("waiting-room" olayı).
+ */
+@Component
+public class QueueEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(QueueEventBroadcaster.class);
+
+    private final AppointmentService appointmentService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final List<SseEmitter> staff = new CopyOnWriteArrayList<>();
+    private final List<SseEmitter> displays = new CopyOnWriteArrayList<>();
+    // Tek iş parçacığı: olaylar üretildikleri sırayla gider, yavaş istemci commit eden isteği bekletmez
+    private final ExecutorService fanOut = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "queue-sse");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public QueueEventBroadcaster(AppointmentService appointmentService, ObjectMapper objectMapper,
+            @Value("${app.queue.stream-timeout-ms:1800000}") long timeoutMs) {
+        this.appointmentService = appointmentService;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter subscribeStaff() {
+        return register(staff, null);
+    }
+
+    public SseEmitter subscribeWaitingRoom() {
+        return register(displays, "waiting-room");
+    }
+
+    @EventListener
+    public void onQueueChange(LiveQueue.Change change) {
+        QueueEvent event = toEvent(change);
+        fanOut.execute(() -> {
+            send(staff, "queue", json(event));
+            if (!displays.isEmpty()) send(displays, "waiting-room", json(appointmentService.getWaitingRoomDisplay()));
+        });
+    }
+
+    // Vekil sunucular boşta kalan bağlantıyı kesmesin
+    @Scheduled(fixedRateString = "${app.queue.stream-heartbeat-ms:25000}")
+    public void heartbeat() {
+        fanOut.execute(() -> {
+            sendRaw(staff, SseEmitter.event().comment("ping"));
+            sendRaw(displays, SseEmitter.event().comment("ping"));
+        });
+    }
+
+    public int getSubscriberCount() {
+        return staff.size() + displays.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdownNow();
+        staff.forEach(SseEmitter::complete);
+        displays.forEach(SseEmitter::complete);
+    }
+
+    private SseEmitter register(List<SseEmitter> channel, String initialEvent) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> channel.remove(emitter));
+        emitter.onTimeout(() -> channel.remove(emitter));
+        emitter.onError(e -> channel.remove(emitter));
+        channel.add(emitter);
+        // İlk durum da yayın iş parçacığından gider; sonraki olaylarla sırası karışmaz
+        fanOut.execute(() -> {
+            try {
+                if (initialEvent != null) {
+                    emitter.send(SseEmitter.event().name(initialEvent)
+                            .data(json(appointmentService.getWaitingRoomDisplay()), MediaType.APPLICATION_JSON));
+                } else {
+                    emitter.send(SseEmitter.event().comment("connected"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                channel.remove(emitter);
+            }
+        });
+        return emitter;
+    }
+
+    private void send(List<SseEmitter> channel, String name, String data) {
+        sendRaw(channel, SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+    }
+
+    private void sendRaw(List<SseEmitter> channel, SseEmitter.SseEventBuilder event) {
+        for (SseEmitter emitter : channel) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Kopan istemci; Spring emitter'ı ayrıca tamamlar
+                channel.remove(emitter);
+            }
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static QueueEvent toEvent(LiveQueue.Change change) {
+        QueueEvent event = new QueueEvent();
+        event.setTimestamp(LocalDateTime.now().toString());
+        if (change.isReset()) {
+            event.setType(QueueEvent.Type.RESET);
+            return event;
+        }
+        LiveQueue.Entry current = change.after() != null ? change.after() : change.before();
+        event.setType(change.before() == null ? QueueEvent.Type.CREATED
+                : change.after() == null ? QueueEvent.Type.REMOVED : QueueEvent.Type.UPDATED);
+        event.setAppointmentId(current.id());
+        event.setQueueNumber(current.queueNumber());
+        if (change.after() != null) event.setStatus(change.after().status().name());
+        if (change.before() != null) event.setPreviousStatus(change.before().status().name());
+        return event;
+    }
+}
@@ -0,0 +1,57 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.repository.AppointmentRepository;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Günlük sıra numarası dağıtıcısı. Her gün için sayaç ilk kullanımda
+ * veritabanındaki en büyük numaradan tohumlanır, sonrası kilitsiz bir
+ * atomik artırmadır. Geri alınan kayıtların numaraları boşluk olarak
+ * kalır. (appointment_date, queue_number) tekil kısıtı (V9 migration'ı)
+ * son güvencedir; çakışma olursa (ör. birden çok örnek) {@link #resync}
+ * sayacı ileri alır.
+ */
+@Component
+public class QueueNumberAllocator {
+
+    private final AppointmentRepository appointmentRepo;
+    private volatile DayCounter counter;
+
+    public QueueNumberAllocator(AppointmentRepository appointmentRepo) {
+        this.appointmentRepo = appointmentRepo;
+    }
+
+    public int next(LocalDate day) {
+        DayCounter c = counter;
+        if (c == null || !c.day.equals(day)) c = seed(day);
+        return c.last.incrementAndGet();
+    }
+
+    /** Sayacı veritabanında o gün kullanılmış en büyük numaranın ötesine taşır. */
+    public synchronized void resync(LocalDate day) {
+        DayCounter c = seed(day);
+        int max = appointmentRepo.findTodayMaxQueueNumber(day);
+        c.last.accumulateAndGet(max, Math::max);
+    }
+
+    private synchronized DayCounter seed(LocalDate day) {
+        DayCounter c = counter;
+        if (c == null || !c.day.equals(day)) {
+            c = new DayCounter(day, appointmentRepo.findTodayMaxQueueNumber(day));
+            counter = c;
+        }
+        return c;
+    }
+
+    private static final class DayCounter {
+        final LocalDate day;
+        final AtomicInteger last;
+
+        DayCounter(LocalDate day, int last) {
+            this.day = day;
+            this.last = new AtomicInteger(last);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.MedicalSuggestion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Semptom önerileri için sınırlı boyutlu LRU önbellek. Anahtar, girdinin
+ * sıralı ve tekrarsız semptom kimlikleri ile istenen öneri sayısıdır;
+ * daha yeni bir veri seti sürümü görüldüğünde tüm içerik düşürülür.
+ * Yeniden yükleme sırasında önceki görüntüyle çalışmaya devam eden
+ * istekler önbelleği ne okur ne yazar; kimlikleri yeni sürümle uyuşmaz.
+ */
+@Component
+public class SuggestionCache {
+
+    private final int capacity;
+    private final LinkedHashMap<Key, List<MedicalSuggestion>> entries;
+    private long datasetVersion = Long.MIN_VALUE;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public SuggestionCache(@Value("${app.medical.suggestion-cache.size:1024}") int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<MedicalSuggestion>> eldest) {
+                if (size() > SuggestionCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized List<MedicalSuggestion> get(long version, int[] symptomIds, int limit) {
+        List<MedicalSuggestion> value = syncVersion(version) ? entries.get(new Key(symptomIds, limit)) : null;
+        if (value != null) hits++;
+        else misses++;
+        return value;
+    }
+
+    public synchronized void put(long version, int[] symptomIds, int limit, List<MedicalSuggestion> value) {
+        if (capacity == 0 || !syncVersion(version)) return;
+        entries.put(new Key(symptomIds, limit), value);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        Stats stats = new Stats();
+        stats.setSize(entries.size());
+        stats.setCapacity(capacity);
+        stats.setHits(hits);
+        stats.setMisses(misses);
+        stats.setEvictions(evictions);
+        stats.setDatasetVersion(datasetVersion);
+        return stats;
+    }
+
+    // Sürüm yalnızca ileri gider; eski sürümden gelen çağrı için false döner
+    private boolean syncVersion(long version) {
+        if (version > datasetVersion) {
+            entries.clear();
+            datasetVersion = version;
+        }
+        return version == datasetVersion;
+    }
+
+    private record Key(int[] symptomIds, int limit) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && limit == other.limit && Arrays.equals(symptomIds, other.symptomIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(symptomIds) + limit;
+        }
+    }
+
+    public static class Stats {
+        private int size;
+        private int capacity;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long datasetVersion;
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        public int getSize() { return size; }
+        public void setSize(int size) { this.size = size; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public long getHits() { return hits; }
+        public void setHits(long hits) { this.hits = hits; }
+        public long getMisses() { return misses; }
+        public void setMisses(long misses) { this.misses = misses; }
+        public long getEvictions() { return evictions; }
+        public void setEvictions(long evictions) { this.evictions = evictions; }
+        public long getDatasetVersion() { return datasetVersion; }
+        public void setDatasetVersion(long datasetVersion) { this.datasetVersion = datasetVersion; }
+    }
+}
@@ -0,0 +1,19 @@
+package com.acil.er_backend.service;
+
+import java.util.Locale;
+
+public enum SymptomMatchMode {
+    // Türkçe küçük harfe çevrilmiş semptom adıyla birebir eşleşme
+    EXACT,
+    // Aksan/harf duyarsız anahtar ve yazım hatası toleranslı eşleşme
+    FUZZY;
+
+    public static SymptomMatchMode from(Object value, SymptomMatchMode fallback) {
+        if (value == null || value.toString().isBlank()) return fallback;
+        try {
+            return valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Geçersiz eşleşme modu: " + value);
+        }
+    }
+}
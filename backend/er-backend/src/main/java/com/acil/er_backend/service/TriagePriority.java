@@ -0,0 +1,68 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.TriageRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bekleyen hastaların öncelik politikası. Her triyaj seviyesi bir "avans"
+ * alır: KIRMIZI hasta varsayılan olarak 120 dakika önce gelmiş gibi
+ * sıralanır. Herkes aynı hızda yaşlandığı için sıra zamanla değişmez;
+ * avansından daha uzun süredir bekleyen düşük öncelikli hasta yine öne
+ * geçer (açlık olmaz).
+ */
+@Component
+public class TriagePriority {
+
+    static final String DEFAULT_HEAD_STARTS = "KIRMIZI:120,SARI:30,YESIL:0";
+
+    private final Map<String, Integer> headStarts;
+    private final int maxHeadStart;
+
+    public TriagePriority(@Value("${app.queue.priority.head-start-minutes:" + DEFAULT_HEAD_STARTS + "}") String spec) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) continue;
+            String[] kv = part.split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Geçersiz öncelik tanımı: " + part);
+            }
+            int minutes = Integer.parseInt(kv[1].trim());
+            if (minutes < 0) {
+                throw new IllegalArgumentException("Öncelik avansı negatif olamaz: " + part);
+            }
+            parsed.put(normalize(kv[0]), minutes);
+        }
+        this.headStarts = Map.copyOf(parsed);
+        this.maxHeadStart = parsed.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    /** Seviyenin avansı (dakika); bilinmeyen ya da boş seviye 0. */
+    public int headStartMinutes(String level) {
+        return level == null ? 0 : headStarts.getOrDefault(normalize(level), 0);
+    }
+
+    public int maxHeadStartMinutes() {
+        return maxHeadStart;
+    }
+
+    /** Hemşirenin verdiği seviye; yoksa veri setinden önerilen seviye. */
+    public static String levelOf(TriageRecord record) {
+        return levelOf(record.getTriageLevel(), record.getAiSuggestedLevel());
+    }
+
+    static String levelOf(String triageLevel, String aiSuggestedLevel) {
+        String level = triageLevel != null && !triageLevel.isBlank() ? triageLevel : aiSuggestedLevel;
+        return level == null || level.isBlank() ? null : normalize(level);
+    }
+
+    // "Yeşil", "YEŞİL" ve "YESIL" aynı seviye
+    static String normalize(String level) {
+        return level.trim().toUpperCase(Locale.forLanguageTag("tr"))
+                .replace('Ş', 'S').replace('İ', 'I').replace('Ğ', 'G')
+                .replace('Ü', 'U').replace('Ö', 'O').replace('Ç', 'C');
+    }
+}
@@ -0,0 +1,215 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.repository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bekleme süresi tahmini. Tamamlanan muayenelerden (başlama ya da çağrılma
+ * ile bitiş arası) triyaj seviyesi ve günün saati başına üstel hareketli
+ * ortalama (EWMA) öğrenir; aynı anda kaç hastaya bakıldığını da çağrılar
+ * sırasında gözler.
+ *
+ * Her {@link LiveQueue.Change} sonrası ve dakikada bir, bekleyenlerin
+ * tahmini öncelik sırası üzerinden tek geçişte bellekte yeniden hesaplanır:
+ * önündekilerin beklenen muayene süreleri ile muayenedekilerin kalan
+ * süreleri toplanır, paralel muayene sayısına bölünür.
+ */
+@Component
+public class WaitTimeEstimator {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitTimeEstimator.class);
+    private static final String[] LEVELS = {"KIRMIZI", "SARI", "YESIL"};
+    // Bir hücre bu kadar örnek görmeden daha genel ortalamaya düşülür
+    private static final int MIN_SAMPLES = 3;
+    private static final double MAX_SERVICE_MINUTES = 240;
+
+    private final LiveQueue liveQueue;
+    private final AppointmentRepository appointmentRepo;
+    private final double alpha;
+    private final double defaultServiceMinutes;
+    private final Clock clock;
+
+    // [seviye][saat], [seviye], genel; son seviye indeksi "bilinmiyor"
+    private final Ewma[][] byLevelHour = new Ewma[LEVELS.length + 1][24];
+    private final Ewma[] byLevel = new Ewma[LEVELS.length + 1];
+    private final Ewma overall = new Ewma();
+    private final Ewma parallel = new Ewma();
+    private boolean seeded;
+
+    // Her değişiklikte artar; dakikalık tur okurken değişiklik geldiyse sonucu yazmaz
+    private long sequence;
+    private Map<Long, Integer> estimates = Map.of();
+    private int newArrivalEstimate;
+
+    @Autowired
+    public WaitTimeEstimator(LiveQueue liveQueue, AppointmentRepository appointmentRepo,
+            @Value("${app.queue.estimator.alpha:0.2}") double alpha,
+            @Value("${app.queue.estimator.default-service-minutes:15}") double defaultServiceMinutes) {
+        this(liveQueue, appointmentRepo, alpha, defaultServiceMinutes, Clock.systemDefaultZone());
+    }
+
+    WaitTimeEstimator(LiveQueue liveQueue, AppointmentRepository appointmentRepo, double alpha,
+            double defaultServiceMinutes, Clock clock) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("EWMA katsayısı (0, 1] aralığında olmalı: " + alpha);
+        }
+        this.liveQueue = liveQueue;
+        this.appointmentRepo = appointmentRepo;
+        this.alpha = alpha;
+        this.defaultServiceMinutes = defaultServiceMinutes;
+        this.clock = clock;
+        for (int l = 0; l < byLevel.length; l++) {
+            byLevel[l] = new Ewma();
+            for (int h = 0; h < 24; h++) byLevelHour[l][h] = new Ewma();
+        }
+    }
+
+    /** Bekleyen randevunun güncel tahmini (dakika); bilinmiyorsa {@code null}. */
+    public synchronized Integer estimate(Long appointmentId) {
+        return estimates.get(appointmentId);
+    }
+
+    /** Şimdi kayıt olan (triyajsız) hastanın tahmini. */
+    public synchronized int estimateForNewArrival() {
+        return newArrivalEstimate;
+    }
+
+    /** Seviye ve saat için beklenen muayene süresi (dakika). */
+    public synchronized double expectedServiceMinutes(String level, int hour) {
+        int l = levelIndex(level);
+        if (byLevelHour[l][hour].samples >= MIN_SAMPLES) return byLevelHour[l][hour].mean;
+        if (byLevel[l].samples >= MIN_SAMPLES) return byLevel[l].mean;
+        if (overall.samples > 0) return overall.mean;
+        return defaultServiceMinutes;
+    }
+
+    // Diğer dinleyiciler (SSE, mobil uzun yoklama) güncel tahmini görsün diye önce çalışır.
+    // LiveQueue kilidi altında çağrılır; listeler tutarlı okunur
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onQueueChange(LiveQueue.Change change) {
+        if (change.isReset()) seed();
+        int active = liveQueue.count(AppointmentStatus.CALLED) + liveQueue.count(AppointmentStatus.IN_PROGRESS);
+        synchronized (this) {
+            sequence++;
+            if (!change.isReset()) learn(change, active);
+        }
+        recompute(-1);
+    }
+
+    // Zaman ilerledikçe muayenedekilerin kalan süresi ve saat hücresi değişir
+    @Scheduled(fixedRate = 60_000, initialDelay = 60_000)
+    public void tick() {
+        long seen;
+        synchronized (this) {
+            seen = sequence;
+        }
+        recompute(seen);
+    }
+
+    private void learn(LiveQueue.Change change, int active) {
+        LiveQueue.Entry before = change.before();
+        LiveQueue.Entry after = change.after();
+        if (after == null) return;
+        if (after.status() == AppointmentStatus.CALLED && (before == null || before.status() != AppointmentStatus.CALLED)) {
+            // Çağrı anında muayenede/çağrılmış olan sayısı paralel muayene kapasitesini gösterir
+            parallel.add(active, alpha);
+        }
+        if (after.status() == AppointmentStatus.DONE && before != null && before.status() != AppointmentStatus.DONE) {
+            LocalDateTime start = after.startedAt() != null ? after.startedAt() : after.calledAt();
+            observe(after.triageLevel(), start, after.completedAt());
+        }
+    }
+
+    private void observe(String level, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) return;
+        double minutes = Duration.between(start, end).getSeconds() / 60.0;
+        if (minutes <= 0 || minutes > MAX_SERVICE_MINUTES) return;
+        int l = levelIndex(level);
+        byLevelHour[l][start.getHour()].add(minutes, alpha);
+        byLevel[l].add(minutes, alpha);
+        overall.add(minutes, alpha);
+    }
+
+    // Açılışta son iki haftanın tamamlanan muayeneleriyle (en fazla 1000) ısınır
+    private void seed() {
+        synchronized (this) {
+            if (seeded) return;
+            seeded = true;
+        }
+        List<Object[]> rows = appointmentRepo.findServiceTimesSince(AppointmentStatus.DONE,
+                LocalDateTime.now(clock).minusDays(14), PageRequest.of(0, 1000));
+        synchronized (this) {
+            // Sorgu yeniden eskiye döner; EWMA eskiden yeniye beslenmeli
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                Object[] row = rows.get(i);
+                LocalDateTime start = row[1] != null ? (LocalDateTime) row[1] : (LocalDateTime) row[0];
+                String level = row[3] != null ? TriagePriority.normalize((String) row[3]) : null;
+                observe(level, start, (LocalDateTime) row[2]);
+            }
+        }
+        log.info("Bekleme tahmincisi {} tamamlanmış muayeneyle başlatıldı", rows.size());
+    }
+
+    private void recompute(long expectedSequence) {
+        List<LiveQueue.Entry> waiting = liveQueue.waitingByPriority();
+        List<LiveQueue.Entry> inService = new ArrayList<>(liveQueue.list(AppointmentStatus.CALLED));
+        inService.addAll(liveQueue.list(AppointmentStatus.IN_PROGRESS));
+        LocalDateTime now = LocalDateTime.now(clock);
+        int hour = now.getHour();
+
+        synchronized (this) {
+            if (expectedSequence >= 0 && expectedSequence != sequence) return;
+            double servers = Math.max(1.0, parallel.samples > 0 ? parallel.mean : 1.0);
+            double backlog = 0;
+            for (LiveQueue.Entry e : inService) {
+                LocalDateTime start = e.startedAt() != null ? e.startedAt() : e.calledAt();
+                double elapsed = start == null ? 0 : Duration.between(start, now).getSeconds() / 60.0;
+                backlog += Math.max(0, expectedServiceMinutes(e.triageLevel(), hour) - elapsed);
+            }
+            Map<Long, Integer> next = new HashMap<>(waiting.size() * 2);
+            for (LiveQueue.Entry e : waiting) {
+                next.put(e.id(), (int) Math.round(backlog / servers));
+                backlog += expectedServiceMinutes(e.triageLevel(), hour);
+            }
+            estimates = next;
+            newArrivalEstimate = (int) Math.round(backlog / servers);
+        }
+    }
+
+    private static int levelIndex(String level) {
+        if (level != null) {
+            for (int i = 0; i < LEVELS.length; i++) {
+                if (LEVELS[i].equals(level)) return i;
+            }
+        }
+        return LEVELS.length;
+    }
+
+    private static final class Ewma {
+        double mean;
+        int samples;
+
+        void add(double value, double alpha) {
+            mean = samples == 0 ? value : mean + alpha * (value - mean);
+            samples++;
+        }
+    }
+}
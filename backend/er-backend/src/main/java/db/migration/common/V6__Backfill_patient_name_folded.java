@@ -0,0 +1,52 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Locale;
+
+/**
+ * Mevcut hastaların {@code name_folded} sütununu doldurur. Türkçe küçük harf
+ * dönüşümü SQL'de taşınabilir yapılamadığından (lower() I/İ'yi bilmez)
+ * Java'da yapılır. Dönüşüm bu sürümdeki {@code Patient.foldName}'in
+ * dondurulmuş bir kopyasıdır: uygulama kodu ileride değişse de migration
+ * her veritabanında aynı sonucu üretmeli.
+ * Satırlar imleçle okunur ve partiler halinde yazılır; bellek sabit kalır.
+ */
+public class V6__Backfill_patient_name_folded extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT tc, name FROM patients WHERE name IS NOT NULL AND name_folded IS NULL");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE patients SET name_folded = ? WHERE tc = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rs = select.executeQuery()) {
+                int pending = 0;
+                while (rs.next()) {
+                    update.setString(1, fold(rs.getString("name")));
+                    update.setString(2, rs.getString("tc"));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) update.executeBatch();
+            }
+        }
+    }
+
+    // Değiştirmeyin: V6 ile doldurulan satırların anahtarı budur
+    private static String fold(String name) {
+        if (name == null) return null;
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(TURKISH);
+    }
+}
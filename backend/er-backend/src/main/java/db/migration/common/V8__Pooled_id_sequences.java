@@ -0,0 +1,53 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * IDENTITY kimlik sütunlarını havuzlu dizilere (sequence) taşır. IDENTITY'de
+ * Hibernate kimliği ancak INSERT'ten sonra öğrenebildiği için her kayıt ayrı
+ * bir gidiş-dönüş olur ve JDBC batch devre dışı kalır; dizilerle kimlikler
+ * {@value #POOL_SIZE}'lik bloklar halinde önceden alınır.
+ *
+ * <p>Hibernate'in pooled optimizer'ı dizinin döndürdüğü değeri bloğun üst
+ * ucu sayar, bu yüzden başlangıç değeri mevcut en büyük kimliğin bir blok
+ * ötesidir. Arşive taşınan kayıtlar kimliklerini koruduğundan arşiv
+ * tabloları da hesaba katılır. Başlangıç değeri veriye bağlı olduğu için
+ * betik yerine Java'dadır; CREATE SEQUENCE ve DROP IDENTITY sözdizimi
+ * PostgreSQL ile H2'de aynıdır.
+ */
+public class V8__Pooled_id_sequences extends BaseJavaMigration {
+
+    /** Varlıklardaki {@code allocationSize} ile aynı olmalı; Hibernate açılışta karşılaştırır. */
+    static final int POOL_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            pool(statement, "appointments", "appointments_archive");
+            pool(statement, "triage_records", "triage_records_archive");
+            pool(statement, "doctor_notes", "doctor_notes_archive");
+            pool(statement, "users", null);
+        }
+    }
+
+    private static void pool(Statement statement, String table, String archive) throws Exception {
+        long max = max(statement, table);
+        if (archive != null) max = Math.max(max, max(statement, archive));
+        long start = max == 0 ? 1 : max + POOL_SIZE;
+        statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + start + " INCREMENT BY " + POOL_SIZE);
+        // Tek kimlik kaynağı kalsın; kimliksiz bir INSERT diziyle çakışacak değer üretmesin
+        statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+    }
+
+    private static long max(Statement statement, String table) throws Exception {
+        try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * (appointment_date, queue_number) tekil kısıtını ekler; QueueNumberAllocator
+ * birden çok örnekte aynı numarayı ancak bu kısıt sayesinde yakalar.
+ * Bu sürümden önce ddl-auto=update ile kurulup sürüm 1 kabul edilen
+ * veritabanlarında kısıt yoktu ve eski MAX+1 ataması çift numara bırakmış
+ * olabilir. Kısıt eklenmeden önce her çiftte en erken kayıt numarasını
+ * korur, diğerleri o günün en büyük numarasının ardına taşınır ve her
+ * değişiklik loglanır. Kısıt zaten varsa (ör. ddl-auto=update eklemişse)
+ * dokunulmaz.
+ */
+public class V9__Unique_daily_queue_number extends BaseJavaMigration {
+
+    static final String CONSTRAINT = "uk_appointments_date_queue";
+
+    // Birden çok randevuya verilmiş (gün, numara) çiftleri
+    private static final String DUPLICATES = "(SELECT appointment_date, queue_number FROM appointments "
+            + "WHERE appointment_date IS NOT NULL AND queue_number IS NOT NULL "
+            + "GROUP BY appointment_date, queue_number HAVING COUNT(*) > 1)";
+
+    private static final Logger log = LoggerFactory.getLogger(V9__Unique_daily_queue_number.class);
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (constraintExists(connection)) return;
+        renumberDuplicates(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE appointments ADD CONSTRAINT " + CONSTRAINT
+                    + " UNIQUE (appointment_date, queue_number)");
+        }
+    }
+
+    private static boolean constraintExists(Connection connection) throws Exception {
+        // H2 adları büyük harfle, PostgreSQL küçük harfle saklar
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT COUNT(*) FROM information_schema.table_constraints "
+                        + "WHERE LOWER(table_name) = 'appointments' AND LOWER(constraint_name) = ?")) {
+            select.setString(1, CONSTRAINT);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                return rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static void renumberDuplicates(Connection connection) throws Exception {
+        Map<LocalDate, Integer> dayMax = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT appointment_date, MAX(queue_number) FROM appointments "
+                     + "WHERE appointment_date IN (SELECT appointment_date FROM " + DUPLICATES + " d) "
+                     + "GROUP BY appointment_date")) {
+            while (rs.next()) dayMax.put(rs.getObject(1, LocalDate.class), rs.getInt(2));
+        }
+        if (dayMax.isEmpty()) return;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT a.id, a.appointment_date, a.queue_number FROM appointments a "
+                     + "JOIN " + DUPLICATES + " d "
+                     + "ON d.appointment_date = a.appointment_date AND d.queue_number = a.queue_number "
+                     + "ORDER BY a.appointment_date, a.queue_number, a.created_at, a.id");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE appointments SET queue_number = ? WHERE id = ?")) {
+            LocalDate day = null;
+            int number = 0;
+            int moved = 0;
+            while (rs.next()) {
+                long id = rs.getLong(1);
+                LocalDate d = rs.getObject(2, LocalDate.class);
+                int n = rs.getInt(3);
+                if (!d.equals(day) || n != number) {
+                    // Çiftin ilk (en erken) kaydı numarasını korur
+                    day = d;
+                    number = n;
+                    continue;
+                }
+                int next = dayMax.merge(d, 1, Integer::sum);
+                log.warn("Çift sıra numarası: randevu {} ({} tarihli, {} numara) {} numaraya taşındı", id, d, n, next);
+                update.setInt(1, next);
+                update.setLong(2, id);
+                update.addBatch();
+                moved++;
+            }
+            update.executeBatch();
+            log.warn("{} randevunun sıra numarası tekil kısıt için değiştirildi", moved);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+-- Şemanın Flyway'den önce ddl-auto=update ile oluşan hali. O dönemde kurulmuş veritabanları
+-- baseline-on-migrate ile sürüm 1 kabul edilir; bu betik yalnızca boş veritabanında çalışır.
+-- Sonradan eklenen her şey (ör. V9'daki sıra numarası tekil kısıtı) ayrı migration'dadır ki
+-- iki yoldan gelen veritabanları aynı şemaya ulaşsın.
+
+CREATE TABLE patients (
+    tc VARCHAR(11) NOT NULL,
+    name VARCHAR(255),
+    birth_year INTEGER,
+    gender VARCHAR(255),
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (tc)
+);
+
+CREATE TABLE appointments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    patient_tc VARCHAR(11),
+    queue_number INTEGER,
+    appointment_date DATE,
+    status VARCHAR(255) CHECK (status IN ('WAITING', 'CALLED', 'IN_PROGRESS', 'DONE', 'NO_SHOW')),
+    chief_complaint VARCHAR(255),
+    estimated_wait_minutes INTEGER,
+    basic_symptoms_csv VARCHAR(4096),
+    created_at TIMESTAMP(6),
+    called_at TIMESTAMP(6),
+    started_at TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE triage_records (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    appointment_id BIGINT,
+    nurse_symptoms_csv VARCHAR(255),
+    temperature FLOAT(53),
+    pulse INTEGER,
+    bp_high INTEGER,
+    bp_low INTEGER,
+    oxygen_saturation INTEGER,
+    respiratory_rate INTEGER,
+    pain_level INTEGER,
+    blood_glucose INTEGER,
+    triage_level VARCHAR(255),
+    ai_suggested_level VARCHAR(255),
+    ai_confidence INTEGER,
+    suggestions_json TEXT,
+    notes TEXT,
+    created_by VARCHAR(255),
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE doctor_notes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    appointment_id BIGINT,
+    diagnosis TEXT,
+    secondary_diagnosis VARCHAR(255),
+    plan TEXT,
+    prescription TEXT,
+    lab_orders TEXT,
+    follow_up_date DATE,
+    follow_up_notes TEXT,
+    referral_needed BOOLEAN,
+    referral_department VARCHAR(255),
+    rest_days INTEGER,
+    created_by VARCHAR(255),
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255),
+    role VARCHAR(255) NOT NULL CHECK (role IN ('NURSE', 'DOCTOR')),
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6),
+    last_login_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+-- Kısıt adları Hibernate'in ürettikleriyle aynı; eski ve yeni kurulumlar aynı şemaya sahip olur
+ALTER TABLE appointments ADD CONSTRAINT FKbwpj5lc81d5wk98a3nwdebri1
+    FOREIGN KEY (patient_tc) REFERENCES patients (tc);
+
+ALTER TABLE triage_records ADD CONSTRAINT FK4ed8piu9i6w3krdqd33b90nih
+    FOREIGN KEY (appointment_id) REFERENCES appointments (id);
+
+ALTER TABLE doctor_notes ADD CONSTRAINT FK6t6ohsf7cdqngath9v1x45nat
+    FOREIGN KEY (appointment_id) REFERENCES appointments (id);
@@ -0,0 +1,67 @@
+-- Soğuk depolama: ufku geçmiş tamamlanmış randevular ve bağlı triyaj/doktor notları
+-- AppointmentArchiver ile buraya taşınır. Kimlikler korunur (IDENTITY yok).
+-- Sıcak tablolara eklenen her sütun buraya ve ArchiveRepository sütun listelerine de eklenmeli.
+
+CREATE TABLE appointments_archive (
+    id BIGINT NOT NULL,
+    patient_tc VARCHAR(11),
+    queue_number INTEGER,
+    appointment_date DATE,
+    status VARCHAR(255),
+    chief_complaint VARCHAR(255),
+    estimated_wait_minutes INTEGER,
+    basic_symptoms_csv VARCHAR(4096),
+    created_at TIMESTAMP(6),
+    called_at TIMESTAMP(6),
+    started_at TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_appointments_archive_patient FOREIGN KEY (patient_tc) REFERENCES patients (tc)
+);
+
+CREATE TABLE triage_records_archive (
+    id BIGINT NOT NULL,
+    appointment_id BIGINT,
+    nurse_symptoms_csv VARCHAR(255),
+    temperature FLOAT(53),
+    pulse INTEGER,
+    bp_high INTEGER,
+    bp_low INTEGER,
+    oxygen_saturation INTEGER,
+    respiratory_rate INTEGER,
+    pain_level INTEGER,
+    blood_glucose INTEGER,
+    triage_level VARCHAR(255),
+    ai_suggested_level VARCHAR(255),
+    ai_confidence INTEGER,
+    suggestions_json TEXT,
+    notes TEXT,
+    created_by VARCHAR(255),
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_triage_records_archive_appointment FOREIGN KEY (appointment_id) REFERENCES appointments_archive (id)
+);
+
+CREATE TABLE doctor_notes_archive (
+    id BIGINT NOT NULL,
+    appointment_id BIGINT,
+    diagnosis TEXT,
+    secondary_diagnosis VARCHAR(255),
+    plan TEXT,
+    prescription TEXT,
+    lab_orders TEXT,
+    follow_up_date DATE,
+    follow_up_notes TEXT,
+    referral_needed BOOLEAN,
+    referral_department VARCHAR(255),
+    rest_days INTEGER,
+    created_by VARCHAR(255),
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_doctor_notes_archive_appointment FOREIGN KEY (appointment_id) REFERENCES appointments_archive (id)
+);
+
+-- Geçmiş ekranı: hastanın randevuları, ardından randevu kimlikleriyle triyaj ve notlar
+CREATE INDEX ix_appointments_archive_patient_created ON appointments_archive (patient_tc, created_at DESC);
+CREATE INDEX ix_triage_records_archive_appointment ON triage_records_archive (appointment_id, created_at);
+CREATE INDEX ix_doctor_notes_archive_appointment ON doctor_notes_archive (appointment_id, created_at);
@@ -0,0 +1,47 @@
+-- Hasta geçmişi başlığı: ziyaret sayısı ve son triyaj seviyesi her okumada
+-- hesaplanmaz; randevu ve triyaj kaydı yazılırken PatientTimelineRepository
+-- tarafından güncel tutulur. Arşive taşıma sayıları değiştirmez; türetilmiş
+-- veri olduğundan hasta silinince satırı da silinir.
+
+CREATE TABLE patient_history_summary (
+    patient_tc VARCHAR(11) NOT NULL,
+    visit_count INTEGER NOT NULL,
+    last_visit_at TIMESTAMP(6),
+    last_triage_level VARCHAR(255),
+    last_triage_at TIMESTAMP(6),
+    PRIMARY KEY (patient_tc),
+    CONSTRAINT fk_patient_history_summary_patient FOREIGN KEY (patient_tc) REFERENCES patients (tc) ON DELETE CASCADE
+);
+
+-- Mevcut veriden ilk doldurma (sıcak + arşiv)
+INSERT INTO patient_history_summary (patient_tc, visit_count, last_visit_at)
+SELECT v.patient_tc, COUNT(*), MAX(v.created_at)
+FROM (
+    SELECT patient_tc, created_at FROM appointments
+    UNION ALL
+    SELECT patient_tc, created_at FROM appointments_archive
+) v
+WHERE v.patient_tc IS NOT NULL
+GROUP BY v.patient_tc;
+
+UPDATE patient_history_summary AS s SET
+    last_triage_level = (
+        SELECT t.triage_level FROM (
+            SELECT a.patient_tc, tr.triage_level, tr.created_at FROM triage_records tr
+            JOIN appointments a ON a.id = tr.appointment_id
+            UNION ALL
+            SELECT a.patient_tc, tr.triage_level, tr.created_at FROM triage_records_archive tr
+            JOIN appointments_archive a ON a.id = tr.appointment_id
+        ) t
+        WHERE t.patient_tc = s.patient_tc
+        ORDER BY t.created_at DESC
+        LIMIT 1),
+    last_triage_at = (
+        SELECT MAX(t.created_at) FROM (
+            SELECT a.patient_tc, tr.created_at FROM triage_records tr
+            JOIN appointments a ON a.id = tr.appointment_id
+            UNION ALL
+            SELECT a.patient_tc, tr.created_at FROM triage_records_archive tr
+            JOIN appointments_archive a ON a.id = tr.appointment_id
+        ) t
+        WHERE t.patient_tc = s.patient_tc);
@@ -0,0 +1,33 @@
+-- Repository sorgularının indeksleri. CONCURRENTLY yazmaları kilitlemez (Flyway bu betiği
+-- transaction dışında çalıştırır). Yarıda kalan CONCURRENTLY kurulumu INVALID bir indeks
+-- bırakır ve IF NOT EXISTS onu atlardı; bu yüzden her indeks önce düşürülüp yeniden kurulur.
+-- Başarısız çalıştırmadan sonra: `flyway repair` ile kaydı temizleyip migrate'i yeniden çalıştırın.
+
+-- Günün kuyruğu: tarih + durum filtreleri, sıra numarasına göre (LiveQueue, pano özeti)
+DROP INDEX CONCURRENTLY IF EXISTS ix_appointments_date_status_queue;
+CREATE INDEX CONCURRENTLY ix_appointments_date_status_queue
+    ON appointments (appointment_date, status, queue_number);
+
+-- Hastanın bugünkü aktif randevusu; yalnızca aktif satırlar tutulur, geçmiş büyüdükçe indeks büyümez
+DROP INDEX CONCURRENTLY IF EXISTS ix_appointments_active_patient;
+CREATE INDEX CONCURRENTLY ix_appointments_active_patient
+    ON appointments (patient_tc, appointment_date)
+    WHERE status IN ('WAITING', 'CALLED', 'IN_PROGRESS');
+
+-- Hasta geçmişi (en yeni önce)
+DROP INDEX CONCURRENTLY IF EXISTS ix_appointments_patient_created;
+CREATE INDEX CONCURRENTLY ix_appointments_patient_created
+    ON appointments (patient_tc, created_at DESC);
+
+-- Son tamamlananlar: pano saatlik sayacı ve bekleme tahmincisi
+DROP INDEX CONCURRENTLY IF EXISTS ix_appointments_status_completed;
+CREATE INDEX CONCURRENTLY ix_appointments_status_completed
+    ON appointments (status, completed_at);
+
+DROP INDEX CONCURRENTLY IF EXISTS ix_triage_records_appointment_created;
+CREATE INDEX CONCURRENTLY ix_triage_records_appointment_created
+    ON triage_records (appointment_id, created_at);
+
+DROP INDEX CONCURRENTLY IF EXISTS ix_doctor_notes_appointment_created;
+CREATE INDEX CONCURRENTLY ix_doctor_notes_appointment_created
+    ON doctor_notes (appointment_id, created_at);
@@ -0,0 +1,5 @@
+-- Hasta adı araması: Türkçe küçük harfe çevrilmiş ad uygulamada (Patient.foldName)
+-- hesaplanır; veritabanının lower() fonksiyonu I/İ harflerini doğru çevirmez.
+-- "C" harmanlaması önek aramasının (LIKE 'ab%') ve sıralamanın aynı B-tree
+-- indeksiyle yapılabilmesi içindir. Mevcut satırlar V6 ile doldurulur.
+ALTER TABLE patients ADD COLUMN name_folded VARCHAR(255) COLLATE "C";
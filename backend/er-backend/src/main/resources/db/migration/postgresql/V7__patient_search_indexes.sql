@@ -0,0 +1,13 @@
+-- Hasta listesi ve arama (PatientSearchRepository). V2 gibi CONCURRENTLY ile
+-- transaction dışında kurulur; kayıt alımı indeks kurulurken durmaz. Yarıda kalırsa
+-- INVALID indeks kalmasın diye V2'deki gibi önce düşürülür (bkz. V2 başlığı).
+
+-- Ad önekiyle arama, (ad, tc) sırasıyla imleçli sayfalama
+DROP INDEX CONCURRENTLY IF EXISTS ix_patients_name_folded_tc;
+CREATE INDEX CONCURRENTLY ix_patients_name_folded_tc
+    ON patients (name_folded, tc);
+
+-- Doğum yılı (+ cinsiyet) süzgeci; eşitlikten sonra tc sırası indeksten gelir
+DROP INDEX CONCURRENTLY IF EXISTS ix_patients_birth_year_gender_tc;
+CREATE INDEX CONCURRENTLY ix_patients_birth_year_gender_tc
+    ON patients (birth_year, gender, tc);
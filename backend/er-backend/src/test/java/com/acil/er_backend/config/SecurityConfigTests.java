@@ -0,0 +1,61 @@
+package com.acil.er_backend.config;
+
+import com.acil.er_backend.controller.MedicalController;
+import com.acil.er_backend.service.BatchInferenceService;
+import com.acil.er_backend.service.CustomUserDetailsService;
+import com.acil.er_backend.service.MedicalDataService;
+import com.acil.er_backend.service.MedicalDataset;
+import com.acil.er_backend.service.MedicalInferenceService;
+import com.acil.er_backend.service.MedicalPayloadCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MedicalController.class)
+@Import({ SecurityConfig.class, CorsConfig.class })
+class SecurityConfigTests {
+
+	@Autowired
+	private MockMvc mvc;
+	@MockBean
+	private MedicalDataService medicalDataService;
+	@MockBean
+	private MedicalInferenceService inferenceService;
+	@MockBean
+	private BatchInferenceService batchInferenceService;
+	@MockBean
+	private MedicalPayloadCache payloadCache;
+	@MockBean
+	private CustomUserDetailsService userDetailsService;
+
+	@Test
+	void datasetReloadIsDoctorOnly() throws Exception {
+		mvc.perform(post("/api/medical/reload")).andExpect(status().isUnauthorized());
+		verify(medicalDataService, never()).reload();
+	}
+
+	@Test
+	@WithMockUser(roles = "NURSE")
+	void nurseCannotReloadDataset() throws Exception {
+		mvc.perform(post("/api/medical/reload")).andExpect(status().isForbidden());
+		verify(medicalDataService, never()).reload();
+	}
+
+	@Test
+	@WithMockUser(roles = "DOCTOR")
+	void doctorCanReloadDataset() throws Exception {
+		when(medicalDataService.reload()).thenReturn(mock(MedicalDataset.class));
+		mvc.perform(post("/api/medical/reload")).andExpect(status().isOk());
+	}
+}
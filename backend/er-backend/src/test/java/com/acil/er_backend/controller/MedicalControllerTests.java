@@ -0,0 +1,125 @@
+package com.acil.er_backend.controller;
+
+import com.acil.er_backend.service.BatchInferenceService;
+import com.acil.er_backend.service.MedicalDataService;
+import com.acil.er_backend.service.MedicalDataset;
+import com.acil.er_backend.service.MedicalInferenceService;
+import com.acil.er_backend.service.MedicalPayloadCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MedicalControllerTests {
+
+	private MockMvc mvc;
+	private MedicalPayloadCache.Payload data;
+
+	@BeforeEach
+	void setUp() {
+		ObjectMapper mapper = new ObjectMapper();
+		MedicalDataService dataService = new MedicalDataService(new ClassPathResource("medical_data.json"), null, false);
+		dataService.init();
+		MedicalPayloadCache cache = new MedicalPayloadCache(dataService, mapper);
+		data = cache.data();
+		mvc = MockMvcBuilders.standaloneSetup(new MedicalController(dataService, mock(MedicalInferenceService.class),
+				mock(BatchInferenceService.class), cache, mapper)).build();
+	}
+
+	@Test
+	void negotiatesGzipWithItsOwnEtag() throws Exception {
+		MvcResult gzip = mvc.perform(get("/api/medical/data").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andReturn();
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray()))) {
+			assertThat(in.readAllBytes()).isEqualTo(data.getJson());
+		}
+
+		MvcResult identity = mvc.perform(get("/api/medical/data"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andExpect(content().bytes(data.getJson()))
+				.andReturn();
+
+		assertThat(gzip.getResponse().getHeader(HttpHeaders.ETAG))
+				.isEqualTo(data.getGzipEtag())
+				.isNotEqualTo(identity.getResponse().getHeader(HttpHeaders.ETAG));
+		assertThat(identity.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(data.getEtag());
+	}
+
+	@Test
+	void zeroQualityRefusesGzip() throws Exception {
+		for (String refused : new String[] { "gzip;q=0", "gzip; q=0.0, identity", "*;q=0", "deflate" }) {
+			mvc.perform(get("/api/medical/data").header(HttpHeaders.ACCEPT_ENCODING, refused))
+					.andExpect(status().isOk())
+					.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+					.andExpect(header().string(HttpHeaders.ETAG, data.getEtag()));
+		}
+		mvc.perform(get("/api/medical/data").header(HttpHeaders.ACCEPT_ENCODING, "*"))
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+	}
+
+	@Test
+	void matchingIfNoneMatchReturnsNotModifiedPerEncoding() throws Exception {
+		mvc.perform(get("/api/medical/data").header(HttpHeaders.IF_NONE_MATCH, data.getEtag()))
+				.andExpect(status().isNotModified())
+				.andExpect(content().bytes(new byte[0]));
+		mvc.perform(get("/api/medical/data")
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.header(HttpHeaders.IF_NONE_MATCH, data.getGzipEtag()))
+				.andExpect(status().isNotModified());
+
+		// Düz gövdenin ETag'i sıkıştırılmış gövdeyi doğrulamaz
+		mvc.perform(get("/api/medical/data")
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.header(HttpHeaders.IF_NONE_MATCH, data.getEtag()))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+	}
+
+	@Test
+	void failedReloadKeepsServingPreviousSnapshot(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("medical_data.json");
+		Files.writeString(file, "[{\"id\": 1, \"symptoms\": [\"ateş\"], \"urgency_level\": 3}]");
+		ObjectMapper mapper = new ObjectMapper();
+		MedicalDataService dataService = new MedicalDataService(new FileSystemResource(file), null, false);
+		dataService.init();
+		MockMvc fileMvc = MockMvcBuilders.standaloneSetup(new MedicalController(dataService,
+				mock(MedicalInferenceService.class), mock(BatchInferenceService.class),
+				new MedicalPayloadCache(dataService, mapper), mapper)).build();
+		MedicalDataset served = dataService.current();
+
+		Files.writeString(file, "[{\"id\": 1, \"symptoms\": [\"ateş\"], \"urgency_level\": 9}]");
+		fileMvc.perform(post("/api/medical/reload"))
+				.andExpect(status().isUnprocessableEntity())
+				.andExpect(jsonPath("$.success").value(false))
+				.andExpect(jsonPath("$.message").value(containsString("önceki sürüm (" + served.getVersion() + ")")));
+		Files.writeString(file, "{ bozuk json");
+		fileMvc.perform(post("/api/medical/reload"))
+				.andExpect(status().isInternalServerError())
+				.andExpect(jsonPath("$.message").value(containsString("kullanılmaya devam ediyor")));
+		assertThat(dataService.current()).isSameAs(served);
+	}
+}
@@ -0,0 +1,63 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.model.TriageRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class AppointmentRepositoryTests {
+
+	@Autowired
+	private AppointmentRepository appointmentRepo;
+	@Autowired
+	private TestEntityManager em;
+
+	@Test
+	void serviceTimesUseMostRecentTriageRegardlessOfIdOrder() {
+		Patient patient = new Patient();
+		patient.setTc("70000000000");
+		patient.setName("Sıra Hasta");
+		em.persist(patient);
+		LocalDateTime now = LocalDateTime.now();
+		Appointment ap = new Appointment();
+		ap.setPatient(patient);
+		ap.setAppointmentDate(LocalDate.now());
+		ap.setQueueNumber(1);
+		ap.setStatus(AppointmentStatus.DONE);
+		ap.setCalledAt(now.minusMinutes(30));
+		ap.setStartedAt(now.minusMinutes(25));
+		ap.setCompletedAt(now.minusMinutes(5));
+		em.persist(ap);
+
+		// Başka bir örneğin dizi bloğundan gelen daha büyük kimlik, daha eski triyaja ait olabilir
+		TriageRecord latest = triage(ap, 100, "KIRMIZI", now.minusMinutes(20));
+		TriageRecord superseded = triage(ap, 5000, "YESIL", now.minusMinutes(40));
+		assertThat(superseded.getId()).isGreaterThan(latest.getId());
+		em.flush();
+		em.clear();
+
+		List<Object[]> rows = appointmentRepo.findServiceTimesSince(AppointmentStatus.DONE, now.minusHours(1),
+				PageRequest.of(0, 10));
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0)[3]).isEqualTo("KIRMIZI");
+	}
+
+	private TriageRecord triage(Appointment ap, long id, String level, LocalDateTime at) {
+		em.getEntityManager().createNativeQuery("INSERT INTO triage_records (id, appointment_id, triage_level, created_at) "
+				+ "VALUES (?, ?, ?, ?)")
+				.setParameter(1, id).setParameter(2, ap.getId()).setParameter(3, level).setParameter(4, at)
+				.executeUpdate();
+		return em.find(TriageRecord.class, id);
+	}
+}
@@ -0,0 +1,145 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.model.TriageRecord;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BatchedInsertTests {
+
+	private static final Logger log = LoggerFactory.getLogger(BatchedInsertTests.class);
+
+	@Autowired
+	private TestEntityManager em;
+	@Autowired
+	private AppointmentRepository appointmentRepo;
+
+	@Test
+	void insertsAreBatchedWithIdsFromPooledSequence() {
+		Patient patient = patient("50000000000");
+		em.flush();
+		Statistics stats = statistics();
+		stats.clear();
+
+		List<Appointment> saved = appointmentRepo.saveAll(appointments(patient, LocalDate.now(), 120));
+		// Henüz tek satır yazılmadı ama kimlikler atandı: yalnızca birkaç dizi okuması
+		assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+		assertThat(saved).extracting(Appointment::getId).doesNotContainNull().doesNotHaveDuplicates();
+
+		for (Appointment ap : saved) {
+			TriageRecord tr = new TriageRecord();
+			tr.setAppointment(ap);
+			tr.setTriageLevel("YESIL");
+			em.persist(tr);
+		}
+		em.flush();
+
+		// 240 satır: üç randevu ve üç triyaj partisi, artı blok başına birer dizi okuması
+		assertThat(stats.getPrepareStatementCount()).isLessThan(15);
+		assertThat(appointmentRepo.count()).isEqualTo(120);
+	}
+
+	/**
+	 * Toplu yazımı satır satır yazımla karşılaştırır. "Önce" tarafı IDENTITY'yi taklit eder: her
+	 * persist hemen kendi INSERT'iyle veritabanına gider (batch boyutu 1, satır başına flush).
+	 * Satır flush'tan sonra ayrılır ki her flush'ın kirli denetimi büyüyüp IDENTITY'nin ödemediği
+	 * bir maliyet eklemesin. Kimlikler yine de diziden gelir (50 satırda bir okuma).
+	 *
+	 * <p>Varsayılan çalıştırma bellek içi H2'dedir ve ölçülen tek sonuç oradandır (yaklaşık 1.9x).
+	 * H2'de ağ gidiş-dönüşü olmadığından bu sayı PostgreSQL'deki kazancı göstermez; batch ve
+	 * {@code reWriteBatchedInserts} kazancı PostgreSQL'de henüz ölçülmedi. Ölçmek için:
+	 * <pre>
+	 * SPRING_TEST_DATABASE_REPLACE=none DB_URL=jdbc:postgresql://localhost:5432/er_bench \
+	 *   ./gradlew test --tests '*BatchedInsertTests' -Dbenchmark=true
+	 * </pre>
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmarkBatchedAgainstRowByRowInserts() {
+		Patient patient = patient("50000000001");
+		em.flush();
+		Session session = em.getEntityManager().unwrap(Session.class);
+		int rows = 2000;
+		LocalDate day = LocalDate.now().plusYears(1);
+		for (int warmup = 0; warmup < 3; warmup++) {
+			insertRowByRow(session, patient, day, rows);
+			day = day.plusDays(1);
+			insertBatched(patient, day, rows);
+			day = day.plusDays(1);
+		}
+
+		long rowByRow = insertRowByRow(session, patient, day, rows);
+		long batched = insertBatched(patient, day.plusDays(1), rows);
+		String report = String.format("satır satır: %.0f kayıt/sn, toplu: %.0f kayıt/sn (%.1fx)",
+				rows / (rowByRow / 1e9), rows / (batched / 1e9), (double) rowByRow / batched);
+		log.info("{} [{}]", report,
+				session.doReturningWork(connection -> connection.getMetaData().getDatabaseProductName()));
+		assertThat(batched).as(report).isLessThan(rowByRow);
+	}
+
+	private long insertRowByRow(Session session, Patient patient, LocalDate day, int rows) {
+		session.setJdbcBatchSize(1);
+		long start = System.nanoTime();
+		for (Appointment ap : appointments(patient, day, rows)) {
+			appointmentRepo.save(ap);
+			em.flush();
+			em.detach(ap);
+		}
+		long elapsed = System.nanoTime() - start;
+		session.setJdbcBatchSize(null);
+		return elapsed;
+	}
+
+	private long insertBatched(Patient patient, LocalDate day, int rows) {
+		long start = System.nanoTime();
+		appointmentRepo.saveAll(appointments(patient, day, rows));
+		em.flush();
+		long elapsed = System.nanoTime() - start;
+		em.clear();
+		return elapsed;
+	}
+
+	private List<Appointment> appointments(Patient patient, LocalDate day, int count) {
+		List<Appointment> list = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			Appointment ap = new Appointment();
+			ap.setPatient(patient);
+			ap.setAppointmentDate(day);
+			ap.setQueueNumber(i);
+			ap.setStatus(AppointmentStatus.WAITING);
+			ap.setChiefComplaint("toplu kayıt");
+			ap.setCreatedAt(LocalDateTime.now());
+			list.add(ap);
+		}
+		return list;
+	}
+
+	private Patient patient(String tc) {
+		Patient patient = new Patient();
+		patient.setTc(tc);
+		patient.setName("Toplu Hasta");
+		em.persist(patient);
+		return patient;
+	}
+
+	private Statistics statistics() {
+		return em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+}
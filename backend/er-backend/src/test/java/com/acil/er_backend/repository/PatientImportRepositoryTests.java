@@ -0,0 +1,149 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.dto.ImportEvent;
+import com.acil.er_backend.dto.TimelineEntry;
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.service.ImportRowReader;
+import com.acil.er_backend.service.PatientImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({ PatientImportRepository.class, PatientTimelineRepository.class })
+class PatientImportRepositoryTests {
+
+	private static final String CSV = """
+			tc,name,birthYear,gender
+			80000000001,Ayşe Kaya,1980,K
+			123,Kısa Tc,1990,E
+			80000000000,Zaten Kayıtlı,1970,E
+
+			80000000002,"Demir, Ali ""Usta""\",1965,E
+			80000000001,Ayşe Tekrar,1980,K
+			80000000003,Cinsiyet Yanlış,1990,X
+			80000000004,"Kapanmamış,1990,E
+			80000000005,Yaşı Yok,,
+			80000000006,Yıl Bozuk,19x0,K
+			""";
+
+	@Autowired
+	private PatientImportRepository imports;
+	@Autowired
+	private PatientTimelineRepository timeline;
+	@Autowired
+	private AppointmentRepository appointmentRepo;
+	@Autowired
+	private TestEntityManager em;
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private PatientImportService service;
+
+	@BeforeEach
+	void setUp() {
+		Patient existing = new Patient();
+		existing.setTc("80000000000");
+		existing.setName("Zaten Kayıtlı");
+		em.persist(existing);
+		em.flush();
+		// İki satırlık partiler: parti sınırları ve ilerleme olayları da sınanır
+		service = new PatientImportService(imports, Validation.buildDefaultValidatorFactory().getValidator(), 2);
+	}
+
+	@Test
+	void importsPatientsReportingEveryBadOrDuplicateLine() throws IOException {
+		List<ImportEvent> events = new ArrayList<>();
+		ImportEvent done = service.importPatients(csv(CSV, "tc", "name"), events::add);
+
+		assertThat(events).filteredOn(e -> e.getType() == ImportEvent.Type.ERROR)
+				.extracting(ImportEvent::getLine).containsExactly(3, 8, 9, 11);
+		assertThat(events).filteredOn(e -> e.getType() == ImportEvent.Type.DUPLICATE)
+				.extracting(ImportEvent::getLine).containsExactlyInAnyOrder(4, 7);
+		assertThat(events).filteredOn(e -> e.getLine() != null && e.getLine() == 8)
+				.extracting(ImportEvent::getMessage).containsExactly("Cinsiyet E veya K olmalıdır");
+		assertThat(events).filteredOn(e -> e.getType() == ImportEvent.Type.PROGRESS).hasSize(2);
+		assertThat(events.get(events.size() - 1)).isSameAs(done);
+		assertThat(done.getProcessed()).isEqualTo(9);
+		assertThat(done.getImported()).isEqualTo(3);
+		assertThat(done.getDuplicates()).isEqualTo(2);
+		assertThat(done.getFailed()).isEqualTo(4);
+
+		assertThat(jdbc.queryForObject("SELECT name_folded FROM patients WHERE tc = '80000000002'", String.class))
+				.isEqualTo("demir, ali \"usta\"");
+		assertThat(jdbc.queryForObject("SELECT name FROM patients WHERE tc = '80000000001'", String.class))
+				.isEqualTo("Ayşe Kaya");
+
+		// Aynı dosya yeniden: hiçbir şey yazılmaz, geçerli satırların hepsi mükerrer
+		ImportEvent again = service.importPatients(csv(CSV, "tc", "name"), e -> { });
+		assertThat(again.getImported()).isZero();
+		assertThat(again.getDuplicates()).isEqualTo(5);
+	}
+
+	@Test
+	void importsVisitsIntoArchiveAndKeepsSequenceIdsApart() throws IOException {
+		LocalDate past = LocalDate.now().minusYears(2);
+		String ndjson = String.join("\n",
+				"{\"tc\":\"80000000000\",\"arrivedAt\":\"" + past + "T09:15\",\"completedAt\":\"" + past + "T10:00\","
+						+ "\"chiefComplaint\":\"Baş ağrısı\"}",
+				"{\"tc\":\"80000000000\",\"arrivedAt\":\"" + past.plusDays(3) + "T22:40:00.123456789\"}",
+				"{\"tc\":\"80000000000\",\"arrivedAt\":\"" + past + "T09:15\"}",
+				"{\"tc\":\"89999999999\",\"arrivedAt\":\"" + past + "T09:15\"}",
+				"{\"tc\":\"80000000000\",\"arrivedAt\":\"" + LocalDate.now() + "T08:00\"}",
+				"{\"tc\":\"80000000000\",\"arrivedAt\":",
+				"[1, 2]");
+		List<ImportEvent> events = new ArrayList<>();
+		ImportEvent done = service.importVisits(
+				ImportRowReader.open(new StringReader(ndjson), ImportRowReader.Format.NDJSON, objectMapper), events::add);
+
+		assertThat(done.getImported()).isEqualTo(2);
+		assertThat(done.getDuplicates()).isEqualTo(1);
+		assertThat(events).filteredOn(e -> e.getType() == ImportEvent.Type.ERROR)
+				.extracting(ImportEvent::getLine).containsExactlyInAnyOrder(4, 5, 6, 7);
+
+		List<TimelineEntry> history = timeline.findPage("80000000000", null, 10);
+		assertThat(history).extracting(TimelineEntry::getType).containsOnly(TimelineEntry.Type.APPOINTMENT);
+		assertThat(history).extracting(e -> e.getAppointment().getChiefComplaint()).containsExactly(null, "Baş ağrısı");
+		assertThat(timeline.findSummary("80000000000").orElseThrow().getVisitCount()).isEqualTo(2);
+
+		// Nanosaniyeli geliş zamanı da ikinci aktarımda eşleşir
+		ImportEvent again = service.importVisits(
+				ImportRowReader.open(new StringReader(ndjson), ImportRowReader.Format.NDJSON, objectMapper), e -> { });
+		assertThat(again.getImported()).isZero();
+		assertThat(again.getDuplicates()).isEqualTo(3);
+
+		// Hibernate'in sonraki kimlik bloğu aktarılanlarla çakışmaz
+		Appointment live = new Appointment();
+		live.setPatient(em.find(Patient.class, "80000000000"));
+		live.setQueueNumber(1);
+		assertThat(appointmentRepo.saveAndFlush(live).getId())
+				.isNotIn(history.stream().map(TimelineEntry::getId).toList());
+	}
+
+	@Test
+	void csvHeaderMustNameRequiredFields() {
+		assertThatThrownBy(() -> csv("tc,isim\n80000000009,Ad\n", "tc", "name"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("name");
+	}
+
+	private ImportRowReader csv(String text, String... required) throws IOException {
+		return ImportRowReader.open(new StringReader(text), ImportRowReader.Format.CSV, objectMapper, required);
+	}
+}
@@ -0,0 +1,107 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.dto.PatientPage;
+import com.acil.er_backend.dto.PatientSearchCriteria;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.service.PatientService;
+import com.acil.er_backend.service.PatientServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "app.patients.stream-fetch-size=2")
+@Import(PatientSearchRepository.class)
+class PatientSearchRepositoryTests {
+
+	@Autowired
+	private PatientSearchRepository search;
+	@Autowired
+	private TestEntityManager em;
+
+	private PatientService service;
+
+	@BeforeEach
+	void setUp() {
+		patient("70000000005", "IŞIK Yılmaz", 1980, "E");
+		patient("70000000004", "ılgaz  Demir", 1990, "K");
+		patient("70000000003", "İsmail Kaya", 1980, "E");
+		patient("70000000002", "iclal Su", 1980, "K");
+		patient("70000000001", "Işıl_Tan", 1975, "K");
+		em.flush();
+		service = new PatientServiceImpl(null, null, search);
+	}
+
+	@Test
+	void namePrefixFollowsTurkishCaseRules() {
+		// Türkçede I'nın küçüğü ı, İ'nin küçüğü i'dir
+		assertThat(names(new PatientSearchCriteria("ı", null, null)))
+				.containsExactly("ılgaz  Demir", "IŞIK Yılmaz", "Işıl_Tan");
+		assertThat(names(new PatientSearchCriteria("İ", null, null)))
+				.containsExactly("iclal Su", "İsmail Kaya");
+		// Boşluklar tekilleşir; _ joker değil, harfin kendisidir
+		assertThat(names(new PatientSearchCriteria("ILGAZ D", null, null))).containsExactly("ılgaz  Demir");
+		assertThat(names(new PatientSearchCriteria("ışıl_", null, null))).containsExactly("Işıl_Tan");
+		assertThat(names(new PatientSearchCriteria("ış_l", null, null))).isEmpty();
+	}
+
+	@Test
+	void pagesWithCursorInNameAndTcOrder() {
+		PatientSearchCriteria byName = new PatientSearchCriteria("i", null, null);
+		List<String> seen = new ArrayList<>();
+		PatientPage page = service.searchPatients(byName, null, 1);
+		while (true) {
+			page.getItems().forEach(p -> seen.add(p.getTc()));
+			if (page.getNextCursor() == null) break;
+			page = service.searchPatients(byName, page.getNextCursor(), 1);
+		}
+		assertThat(seen).containsExactly("70000000002", "70000000003");
+
+		PatientSearchCriteria all = new PatientSearchCriteria(null, null, null);
+		PatientPage first = service.searchPatients(all, null, 3);
+		assertThat(first.getItems()).extracting(Patient::getTc)
+				.containsExactly("70000000001", "70000000002", "70000000003");
+		PatientPage second = service.searchPatients(all, first.getNextCursor(), 3);
+		assertThat(second.getItems()).extracting(Patient::getTc).containsExactly("70000000004", "70000000005");
+		assertThat(second.getNextCursor()).isNull();
+
+		// Ada göre sıralı aramanın imleci süzgeçsiz listede kullanılamaz
+		String nameCursor = service.searchPatients(byName, null, 1).getNextCursor();
+		assertThatThrownBy(() -> service.searchPatients(all, nameCursor, 3))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void filtersByBirthYearAndGenderAndStreamsEverything() {
+		assertThat(names(new PatientSearchCriteria(null, 1980, "k"))).containsExactly("iclal Su");
+		assertThat(names(new PatientSearchCriteria(null, 1980, null))).hasSize(3);
+		assertThatThrownBy(() -> new PatientSearchCriteria(null, null, "X"))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		// Fetch size 2: beş satır imleçten üç parçada gelir, hepsi sırayla akar
+		List<String> streamed = new ArrayList<>();
+		search.forEach(new PatientSearchCriteria(null, null, null), p -> streamed.add(p.getTc()));
+		assertThat(streamed).containsExactly("70000000001", "70000000002", "70000000003", "70000000004",
+				"70000000005");
+	}
+
+	private List<String> names(PatientSearchCriteria criteria) {
+		return search.findPage(criteria, null, 100).stream().map(Patient::getName).toList();
+	}
+
+	private void patient(String tc, String name, int birthYear, String gender) {
+		Patient p = new Patient();
+		p.setTc(tc);
+		p.setName(name);
+		p.setBirthYear(birthYear);
+		p.setGender(gender);
+		em.persist(p);
+	}
+}
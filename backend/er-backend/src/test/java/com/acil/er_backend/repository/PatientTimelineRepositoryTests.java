@@ -0,0 +1,174 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.dto.PatientHistorySummary;
+import com.acil.er_backend.dto.PatientTimelinePage;
+import com.acil.er_backend.dto.TimelineEntry;
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.DoctorNote;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.model.TriageRecord;
+import com.acil.er_backend.service.AppointmentService;
+import com.acil.er_backend.service.AppointmentServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({ PatientTimelineRepository.class, ArchiveRepository.class })
+class PatientTimelineRepositoryTests {
+
+	private static final String TC = "60000000000";
+
+	@Autowired
+	private PatientTimelineRepository timeline;
+	@Autowired
+	private ArchiveRepository archive;
+	@Autowired
+	private TestEntityManager em;
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Test
+	void pagesThroughHotAndArchivedHistoryWithoutGapsOrRepeats() {
+		LocalDate today = LocalDate.now();
+		Patient patient = patient();
+		Appointment old = visit(patient, today.minusDays(200), AppointmentStatus.DONE);
+		Appointment mid = visit(patient, today.minusDays(10), AppointmentStatus.DONE);
+		Appointment now = visit(patient, today, AppointmentStatus.WAITING);
+		// Aynı anda yazılmış iki kayıt: sıralama türe ve kimliğe göre kararlı olmalı
+		TriageRecord tie = triage(mid, mid.getCreatedAt().plusMinutes(30));
+		note(mid, tie.getCreatedAt());
+		em.flush();
+		assertThat(archive.moveCompletedBefore(today.minusDays(90), 10)).isEqualTo(1);
+		em.clear();
+
+		AppointmentService service = new AppointmentServiceImpl(null, null, null, null, null, null, null, null,
+				null, timeline);
+		List<TimelineEntry> all = timeline.findPage(TC, null, 100);
+		assertThat(all).hasSize(11);
+		assertThat(all).extracting(TimelineEntry::getAppointmentId).first().isEqualTo(now.getId());
+		assertThat(all).extracting(TimelineEntry::getAppointmentId).last().isEqualTo(old.getId());
+		assertThat(all.get(all.size() - 1).getType()).isEqualTo(TimelineEntry.Type.APPOINTMENT);
+
+		// 5'lik sayfalarda eş zamanlı not/triyaj çifti iki sayfaya bölünür
+		List<String> paged = new ArrayList<>();
+		PatientTimelinePage page = service.getPatientTimeline(TC, null, 5);
+		assertThat(page.getSummary().getName()).isEqualTo("Zaman Hasta");
+		int pages = 1;
+		while (true) {
+			page.getEntries().forEach(e -> paged.add(e.getType() + "#" + e.getId()));
+			if (page.getNextCursor() == null) break;
+			page = service.getPatientTimeline(TC, page.getNextCursor(), 5);
+			assertThat(page.getSummary()).isNull();
+			pages++;
+		}
+		assertThat(pages).isEqualTo(3);
+		assertThat(paged).containsExactlyElementsOf(all.stream().map(e -> e.getType() + "#" + e.getId()).toList());
+	}
+
+	@Test
+	void summaryIsMaintainedOnWrite() {
+		patient();
+		em.flush();
+		assertThat(timeline.findSummary(TC)).get().extracting(PatientHistorySummary::getVisitCount).isEqualTo(0);
+
+		LocalDateTime first = LocalDateTime.of(2026, 3, 1, 9, 0);
+		timeline.recordVisit(TC, first);
+		timeline.recordVisit(TC, first.plusHours(1));
+		timeline.recordTriage(TC, "KIRMIZI", first.plusHours(1).plusMinutes(5));
+
+		PatientHistorySummary summary = timeline.findSummary(TC).orElseThrow();
+		assertThat(summary.getVisitCount()).isEqualTo(2);
+		assertThat(summary.getLastTriageLevel()).isEqualTo("KIRMIZI");
+		assertThat(summary.getLastVisitAt()).isEqualTo(first.plusHours(1));
+
+		AppointmentService service = new AppointmentServiceImpl(null, null, null, null, null, null, null, null,
+				null, timeline);
+		assertThatThrownBy(() -> service.getPatientTimeline("00000000000", null, 20))
+				.isInstanceOf(NoSuchElementException.class);
+		assertThatThrownBy(() -> service.getPatientTimeline(TC, "bozuk", 20))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void firstWriteRacingAnotherFirstWriteFallsBackToUpdate() {
+		patient();
+		em.flush();
+		LocalDateTime at = LocalDateTime.of(2026, 3, 1, 9, 0);
+		// Bu depo UPDATE'inde satır bulamadıktan hemen sonra başka bir işlem satırı açmış olsun
+		NamedParameterJdbcTemplate racing = new NamedParameterJdbcTemplate(jdbc.getJdbcTemplate()) {
+			@Override
+			public int update(String sql, SqlParameterSource params) {
+				int updated = super.update(sql, params);
+				if (updated == 0 && sql.startsWith("UPDATE patient_history_summary")) {
+					jdbc.update("INSERT INTO patient_history_summary (patient_tc, visit_count, last_visit_at) "
+							+ "VALUES (:tc, 1, :at)", new MapSqlParameterSource("tc", TC).addValue("at", at));
+				}
+				return updated;
+			}
+		};
+		PatientTimelineRepository raced = new PatientTimelineRepository(racing);
+
+		raced.recordVisit(TC, at.plusHours(1));
+		raced.recordTriage(TC, "SARI", at.plusHours(2));
+
+		PatientHistorySummary summary = timeline.findSummary(TC).orElseThrow();
+		assertThat(summary.getVisitCount()).isEqualTo(2);
+		assertThat(summary.getLastVisitAt()).isEqualTo(at.plusHours(1));
+		assertThat(summary.getLastTriageLevel()).isEqualTo("SARI");
+	}
+
+	private Patient patient() {
+		Patient patient = new Patient();
+		patient.setTc(TC);
+		patient.setName("Zaman Hasta");
+		em.persist(patient);
+		return patient;
+	}
+
+	private Appointment visit(Patient patient, LocalDate day, AppointmentStatus status) {
+		Appointment ap = new Appointment();
+		ap.setPatient(patient);
+		ap.setAppointmentDate(day);
+		ap.setQueueNumber(1);
+		ap.setStatus(status);
+		em.persist(ap);
+		ap.setCreatedAt(day.atTime(9, 0));
+		if (status == AppointmentStatus.DONE) ap.setCompletedAt(day.atTime(10, 0));
+		triage(ap, day.atTime(9, 10));
+		note(ap, day.atTime(9, 40));
+		return ap;
+	}
+
+	private TriageRecord triage(Appointment ap, LocalDateTime at) {
+		TriageRecord tr = new TriageRecord();
+		tr.setAppointment(ap);
+		tr.setTriageLevel("SARI");
+		em.persist(tr);
+		tr.setCreatedAt(at);
+		return tr;
+	}
+
+	private DoctorNote note(Appointment ap, LocalDateTime at) {
+		DoctorNote note = new DoctorNote();
+		note.setAppointment(ap);
+		note.setDiagnosis("Grip");
+		em.persist(note);
+		note.setCreatedAt(at);
+		return note;
+	}
+}
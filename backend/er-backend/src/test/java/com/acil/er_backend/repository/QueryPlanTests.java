@@ -0,0 +1,139 @@
+package com.acil.er_backend.repository;
+
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.DoctorNote;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.model.TriageRecord;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sık çalışan repository sorgularının planlarını EXPLAIN ile denetler: migration'lardaki
+ * indeksler sayesinde hiçbiri tabloyu baştan sona taramamalı.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.acil.er_backend.repository.QueryPlanTests$Recorder")
+class QueryPlanTests {
+
+	@Autowired
+	private AppointmentRepository appointmentRepo;
+	@Autowired
+	private TriageRecordRepository triageRepo;
+	@Autowired
+	private DoctorNoteRepository noteRepo;
+	@Autowired
+	private TestEntityManager em;
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void hotFindersDoNotScanTables() throws Exception {
+		LocalDate today = LocalDate.now();
+		LocalDateTime hourAgo = LocalDateTime.now().minusHours(1);
+		String tc = seed(today);
+
+		Map<String, Runnable> finders = new LinkedHashMap<>();
+		finders.put("appointments by date", () -> appointmentRepo.findByAppointmentDateOrderByQueueNumberAsc(today));
+		finders.put("appointment by id", () -> appointmentRepo.findById(1L));
+		finders.put("today's list", () -> appointmentRepo.findSummariesByDate(today));
+		finders.put("today's list by status",
+				() -> appointmentRepo.findSummariesByDateAndStatus(today, AppointmentStatus.WAITING));
+		finders.put("appointment summary", () -> appointmentRepo.findSummaryById(1L));
+		finders.put("max queue number", () -> appointmentRepo.findTodayMaxQueueNumber(today));
+		finders.put("active appointment of patient", () -> appointmentRepo.findTodayActiveByTc(tc, today));
+		finders.put("waiting ahead", () -> appointmentRepo.countWaitingAhead(today, AppointmentStatus.WAITING, 10));
+		finders.put("appointment history", () -> appointmentRepo.findSummariesByPatientTc(tc));
+		finders.put("status summary", () -> appointmentRepo.summarizeByStatus(today));
+		finders.put("completed since", () -> appointmentRepo.findCompletedAtAfter(AppointmentStatus.DONE, hourAgo));
+		finders.put("service times", () -> appointmentRepo.findServiceTimesSince(AppointmentStatus.DONE, hourAgo, PageRequest.of(0, 10)));
+		finders.put("triage by appointment", () -> triageRepo.findViewsByAppointmentId(1L));
+		finders.put("triage history", () -> triageRepo.findViewsByPatientTc(tc));
+		finders.put("triage levels of day", () -> triageRepo.findLevelsForDate(today));
+		finders.put("triage level counts", () -> triageRepo.countByLevelForDate(today));
+		finders.put("notes by appointment", () -> noteRepo.findViewsByAppointmentId(1L));
+		finders.put("note history", () -> noteRepo.findViewsByPatientTc(tc));
+
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		for (Map.Entry<String, Runnable> finder : finders.entrySet()) {
+			em.clear();
+			Recorder.SQL.clear();
+			finder.getValue().run();
+			assertThat(Recorder.SQL).as(finder.getKey()).isNotEmpty();
+			for (String sql : Recorder.SQL) {
+				String plan = explain(connection, sql);
+				assertThat(plan).as("%s:%n%s", finder.getKey(), plan).doesNotContain("tableScan");
+			}
+		}
+	}
+
+	private String seed(LocalDate today) {
+		List<Patient> patients = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Patient patient = new Patient();
+			patient.setTc(String.format("%011d", 40_000_000_000L + i));
+			patient.setName("Hasta " + i);
+			patients.add(em.persist(patient));
+		}
+		AppointmentStatus[] statuses = AppointmentStatus.values();
+		for (int i = 0; i < 200; i++) {
+			Appointment ap = new Appointment();
+			ap.setPatient(patients.get(i % patients.size()));
+			ap.setAppointmentDate(today.minusDays(i / 20));
+			ap.setQueueNumber(i % 20 + 1);
+			ap.setStatus(statuses[i % statuses.length]);
+			if (ap.getStatus() == AppointmentStatus.DONE) ap.setCompletedAt(LocalDateTime.now().minusDays(i / 20));
+			em.persist(ap);
+
+			TriageRecord tr = new TriageRecord();
+			tr.setAppointment(ap);
+			tr.setTriageLevel(i % 3 == 0 ? "KIRMIZI" : "YESIL");
+			em.persist(tr);
+
+			DoctorNote note = new DoctorNote();
+			note.setAppointment(ap);
+			note.setDiagnosis("Tanı " + i);
+			em.persist(note);
+		}
+		em.flush();
+		return patients.get(0).getTc();
+	}
+
+	private static String explain(Connection connection, String sql) throws Exception {
+		try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+			for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) ps.setObject(i, null);
+			StringBuilder plan = new StringBuilder();
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) plan.append(rs.getString(1)).append('\n');
+			}
+			return plan.toString();
+		}
+	}
+
+	public static class Recorder implements StatementInspector {
+		static final List<String> SQL = new ArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			SQL.add(sql);
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.AppointmentDetailResponse;
+import com.acil.er_backend.dto.DoctorNoteView;
+import com.acil.er_backend.dto.PatientHistoryResponse;
+import com.acil.er_backend.dto.TriageRecordView;
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.DoctorNote;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.model.TriageRecord;
+import com.acil.er_backend.repository.AppointmentRepository;
+import com.acil.er_backend.repository.ArchiveRepository;
+import com.acil.er_backend.repository.DoctorNoteRepository;
+import com.acil.er_backend.repository.PatientRepository;
+import com.acil.er_backend.repository.TriageRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ArchiveRepository.class)
+class AppointmentArchiverTests {
+
+	private static final String TC = "50000000000";
+
+	@Autowired
+	private ArchiveRepository archive;
+	@Autowired
+	private AppointmentRepository appointmentRepo;
+	@Autowired
+	private PatientRepository patientRepo;
+	@Autowired
+	private TriageRecordRepository triageRepo;
+	@Autowired
+	private DoctorNoteRepository noteRepo;
+	@Autowired
+	private TestEntityManager em;
+
+	@Test
+	void movesOldCompletedVisitsAndHistoryReadsBothStores() {
+		LocalDate today = LocalDate.now();
+		Patient patient = new Patient();
+		patient.setTc(TC);
+		patient.setName("Arşiv Hasta");
+		em.persist(patient);
+		Appointment oldDone = appointment(patient, today.minusDays(200), AppointmentStatus.DONE, "SARI", "Grip");
+		appointment(patient, today.minusDays(120), AppointmentStatus.NO_SHOW, null, null);
+		Appointment oldStale = appointment(patient, today.minusDays(150), AppointmentStatus.WAITING, null, null);
+		Appointment recent = appointment(patient, today, AppointmentStatus.DONE, "YESIL", "Kontrol");
+		em.flush();
+		em.clear();
+
+		// Parti boyutu 1: döngü her partiyi ayrı taşır
+		AppointmentArchiver archiver = new AppointmentArchiver(archive, 90, 1);
+		assertThat(archiver.archiveBefore(today.minusDays(90))).isEqualTo(2);
+		assertThat(archiver.archiveBefore(today.minusDays(90))).isZero();
+		em.clear();
+
+		// Sıcak tabloda yalnızca ufuk içindekiler ve kapanmamış kayıtlar kalır
+		assertThat(appointmentRepo.findAll()).extracting(Appointment::getId)
+				.containsExactlyInAnyOrder(oldStale.getId(), recent.getId());
+		assertThat(triageRepo.findAll()).hasSize(1);
+		assertThat(noteRepo.findAll()).hasSize(1);
+
+		AppointmentService service = new AppointmentServiceImpl(appointmentRepo, patientRepo, triageRepo, noteRepo,
+				null, null, null, null, archive, null);
+		PatientHistoryResponse history = service.getPatientHistory(TC);
+		assertThat(history.getTotalAppointments()).isEqualTo(4);
+		assertThat(history.getAppointments().get(0).getId()).isEqualTo(recent.getId());
+		assertThat(history.getAppointments().get(3).getId()).isEqualTo(oldDone.getId());
+		assertThat(history.getAppointments()).allSatisfy(ap -> assertThat(ap.getPatient()).isNull());
+		assertThat(history.getTriageRecords()).extracting(TriageRecordView::getTriageLevel).containsExactly("YESIL", "SARI");
+		assertThat(history.getTriageRecords().get(1).getAppointmentId()).isEqualTo(oldDone.getId());
+		assertThat(history.getTriageRecords().get(1).getSuggestionsJson()).isNull();
+		assertThat(history.getDoctorNotes()).extracting(DoctorNoteView::getDiagnosis).containsExactly("Kontrol", "Grip");
+
+		AppointmentDetailResponse detail = service.getDetail(oldDone.getId());
+		assertThat(detail.getAppointment().getStatus()).isEqualTo(AppointmentStatus.DONE);
+		assertThat(detail.getPatient().getTc()).isEqualTo(TC);
+		assertThat(detail.getPatient().getName()).isEqualTo("Arşiv Hasta");
+		assertThat(detail.getTriageRecords()).extracting(TriageRecordView::getSuggestionsJson).containsExactly("[]");
+		assertThat(detail.getDoctorNotes()).hasSize(1);
+	}
+
+	private Appointment appointment(Patient patient, LocalDate day, AppointmentStatus status, String level, String diagnosis) {
+		Appointment ap = new Appointment();
+		ap.setPatient(patient);
+		ap.setAppointmentDate(day);
+		ap.setQueueNumber(1);
+		ap.setStatus(status);
+		em.persist(ap);
+		// createdAt kayıtta atanır; geçmişte oluşmuş gibi göster
+		ap.setCreatedAt(day.atTime(9, 0));
+		if (status == AppointmentStatus.DONE) ap.setCompletedAt(day.atTime(10, 0));
+		if (level != null) {
+			TriageRecord tr = new TriageRecord();
+			tr.setAppointment(ap);
+			tr.setTriageLevel(level);
+			tr.setSuggestionsJson("[]");
+			em.persist(tr);
+			tr.setCreatedAt(day.atTime(9, 10));
+		}
+		if (diagnosis != null) {
+			DoctorNote note = new DoctorNote();
+			note.setAppointment(ap);
+			note.setDiagnosis(diagnosis);
+			em.persist(note);
+			note.setCreatedAt(day.atTime(9, 30));
+		}
+		return ap;
+	}
+}
@@ -0,0 +1,161 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.BatchInferRequest;
+import com.acil.er_backend.dto.MedicalSuggestion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchInferenceServiceTests {
+
+	private static final Logger log = LoggerFactory.getLogger(BatchInferenceServiceTests.class);
+
+	private MedicalDataService dataService;
+	private MedicalInferenceService inferenceService;
+	private BatchInferenceService batchService;
+
+	@BeforeEach
+	void setUp() {
+		dataService = new MedicalDataService(new ClassPathResource("medical_data.json"), null, false);
+		dataService.init();
+		inferenceService = new MedicalInferenceService(dataService, new SuggestionCache(0), SymptomMatchMode.EXACT);
+		batchService = new BatchInferenceService(dataService, inferenceService, 4, 500);
+	}
+
+	@AfterEach
+	void tearDown() {
+		batchService.shutdown();
+	}
+
+	@Test
+	void batchMatchesSingleCallsInInputOrder() {
+		List<BatchInferRequest.Item> items = randomItems(new Random(7), 120);
+		items.add(complaint(dataService.getRecords().get(0).getInputText()));
+		items.add(symptoms(List.of("olmayan semptom")));
+		items.add(new BatchInferRequest.Item());
+
+		List<CompletableFuture<List<MedicalSuggestion>>> results = batchService.submit(items, SymptomMatchMode.EXACT, 5);
+
+		assertThat(results).hasSize(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			BatchInferRequest.Item item = items.get(i);
+			List<MedicalSuggestion> expected = item.getSymptoms() != null
+					? inferenceService.suggestTop5(item.getSymptoms())
+					: inferenceService.suggestByComplaint(item.getComplaint(), 5);
+			assertThat(ids(results.get(i).join())).as("kalem %d", i).containsExactlyElementsOf(ids(expected));
+		}
+	}
+
+	@Test
+	void identicalInputsShareOneComputation() {
+		List<CompletableFuture<List<MedicalSuggestion>>> results = batchService.submit(List.of(
+				symptoms(List.of("ateş", "öksürük")),
+				symptoms(List.of(" Öksürük", "ateş")),
+				symptoms(List.of("ateş")),
+				complaint("Göğsümde ağrı var"),
+				complaint("göğsümde AĞRI var!")), SymptomMatchMode.EXACT, 5);
+
+		assertThat(results.get(1)).isSameAs(results.get(0));
+		assertThat(results.get(2)).isNotSameAs(results.get(0));
+		assertThat(results.get(4)).isSameAs(results.get(3));
+	}
+
+	@Test
+	void invalidBatchIsRejectedBeforeAnyWork() {
+		BatchInferenceService small = new BatchInferenceService(dataService, inferenceService, 1, 2);
+		try {
+			assertThatThrownBy(() -> small.submit(List.of(), SymptomMatchMode.EXACT, 5))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> small.submit(randomItems(new Random(1), 3), SymptomMatchMode.EXACT, 5))
+					.isInstanceOf(IllegalArgumentException.class);
+
+			BatchInferRequest.Item badMode = symptoms(List.of("ateş"));
+			badMode.setMode("YAKLASIK");
+			assertThatThrownBy(() -> small.submit(List.of(symptoms(List.of("ateş")), badMode), SymptomMatchMode.EXACT, 5))
+					.isInstanceOf(IllegalArgumentException.class);
+		} finally {
+			small.shutdown();
+		}
+	}
+
+	// ./gradlew test --tests '*BatchInferenceServiceTests' -Dbenchmark=true
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmarkBatchAgainstSingleCalls() {
+		BatchInferenceService batch = new BatchInferenceService(dataService, inferenceService, 0, 500);
+		try {
+			List<BatchInferRequest.Item> items = randomItems(new Random(11), 500);
+			for (int warmup = 0; warmup < 20; warmup++) {
+				single(items);
+				batch.submit(items, SymptomMatchMode.EXACT, 5).forEach(CompletableFuture::join);
+			}
+
+			int rounds = 50;
+			long start = System.nanoTime();
+			for (int r = 0; r < rounds; r++) single(items);
+			long singleNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int r = 0; r < rounds; r++) {
+				batch.submit(items, SymptomMatchMode.EXACT, 5).forEach(CompletableFuture::join);
+			}
+			long batchNanos = System.nanoTime() - start;
+
+			double total = (double) rounds * items.size();
+			int cores = Runtime.getRuntime().availableProcessors();
+			String report = String.format("tekil: %.0f girdi/sn, toplu: %.0f girdi/sn (%.1fx, %d çekirdek)",
+					total / (singleNanos / 1e9), total / (batchNanos / 1e9), (double) singleNanos / batchNanos, cores);
+			log.info(report);
+			// Tek çekirdekte paralellikten kazanç beklenmez
+			if (cores > 1) assertThat(batchNanos).as(report).isLessThan(singleNanos);
+		} finally {
+			batch.shutdown();
+		}
+	}
+
+	private void single(List<BatchInferRequest.Item> items) {
+		for (BatchInferRequest.Item item : items) inferenceService.suggestTop5(item.getSymptoms());
+	}
+
+	// Tatbikattaki gibi: çoğu hasta az sayıda yaygın semptomla gelir, tekrarlar olağan
+	private List<BatchInferRequest.Item> randomItems(Random random, int count) {
+		List<String> vocabulary = new ArrayList<>(dataService.getAllSymptoms());
+		List<BatchInferRequest.Item> items = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			List<String> input = new ArrayList<>();
+			int n = 1 + random.nextInt(3);
+			for (int j = 0; j < n; j++) input.add(vocabulary.get(random.nextInt(Math.min(60, vocabulary.size()))));
+			items.add(symptoms(input));
+		}
+		return items;
+	}
+
+	private static BatchInferRequest.Item symptoms(List<String> symptoms) {
+		BatchInferRequest.Item item = new BatchInferRequest.Item();
+		item.setSymptoms(symptoms);
+		return item;
+	}
+
+	private static BatchInferRequest.Item complaint(String complaint) {
+		BatchInferRequest.Item item = new BatchInferRequest.Item();
+		item.setComplaint(complaint);
+		return item;
+	}
+
+	private static List<String> ids(List<MedicalSuggestion> suggestions) {
+		return suggestions.stream()
+				.map(s -> s.getRecord().getId() + ":" + s.getMatchScore())
+				.toList();
+	}
+}
@@ -0,0 +1,150 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.DashboardStats;
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.TriageRecord;
+import com.acil.er_backend.repository.AppointmentRepository;
+import com.acil.er_backend.repository.TriageRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardAggregatorTests {
+
+	private static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+	private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+	private AppointmentRepository appointmentRepo;
+	private TriageRecordRepository triageRepo;
+	private MutableClock clock;
+	private DashboardAggregator dashboard;
+
+	@BeforeEach
+	void setUp() {
+		appointmentRepo = mock(AppointmentRepository.class);
+		triageRepo = mock(TriageRecordRepository.class);
+		clock = new MutableClock(DAY.atTime(10, 0).atZone(ZONE).toInstant());
+		List<Object[]> summary = new ArrayList<>();
+		summary.add(new Object[]{AppointmentStatus.DONE, 1L, 20L, 1L});
+		summary.add(new Object[]{AppointmentStatus.CALLED, 1L, 10L, 1L});
+		summary.add(new Object[]{AppointmentStatus.WAITING, 1L, 0L, 0L});
+		when(appointmentRepo.summarizeByStatus(DAY)).thenReturn(summary);
+		List<Object[]> levels = new ArrayList<>();
+		levels.add(new Object[]{"KIRMIZI", 1L});
+		levels.add(new Object[]{null, 2L});
+		when(triageRepo.countByLevelForDate(DAY)).thenReturn(levels);
+		when(appointmentRepo.findCompletedAtAfter(any(), any())).thenReturn(List.of(DAY.atTime(9, 30)));
+		dashboard = new DashboardAggregator(appointmentRepo, new DashboardQueries(appointmentRepo, triageRepo), true, clock);
+	}
+
+	@Test
+	void snapshotIsServedFromCountersAfterFirstLoad() {
+		DashboardStats first = dashboard.snapshot();
+		DashboardStats second = dashboard.snapshot();
+
+		assertThat(second.getTotalToday()).isEqualTo(3);
+		assertThat(second.getWaiting()).isEqualTo(1);
+		assertThat(second.getCalled()).isEqualTo(1);
+		assertThat(second.getDone()).isEqualTo(1);
+		assertThat(second.getTriageLevels()).containsEntry("KIRMIZI", 1).containsEntry("BELIRSIZ", 2);
+		assertThat(second.getAvgWaitTime()).isEqualTo(15.0);
+		assertThat(second.getDoneLastHour()).isEqualTo(1);
+		assertThat(first.getTriageLevels()).isEqualTo(second.getTriageLevels());
+		verify(appointmentRepo, times(1)).summarizeByStatus(DAY);
+	}
+
+	@Test
+	void appliesQueueChangesAndTriageIncrementally() {
+		dashboard.snapshot();
+
+		Appointment waiting = appointment(3L, AppointmentStatus.WAITING, null, null);
+		Appointment called = appointment(3L, AppointmentStatus.CALLED, 30, null);
+		Appointment doneNow = appointment(2L, AppointmentStatus.DONE, 10, DAY.atTime(9, 55));
+		dashboard.onQueueChange(new LiveQueue.Change(LiveQueue.Entry.of(waiting), LiveQueue.Entry.of(called)));
+		dashboard.onQueueChange(new LiveQueue.Change(
+				LiveQueue.Entry.of(appointment(2L, AppointmentStatus.CALLED, 10, null)), LiveQueue.Entry.of(doneNow)));
+		dashboard.onQueueChange(new LiveQueue.Change(null,
+				LiveQueue.Entry.of(appointment(4L, AppointmentStatus.WAITING, null, null))));
+		TriageRecord triage = new TriageRecord();
+		triage.setAppointment(called);
+		triage.setTriageLevel("SARI");
+		dashboard.recordTriage(triage);
+
+		DashboardStats stats = dashboard.snapshot();
+		assertThat(stats.getTotalToday()).isEqualTo(4);
+		assertThat(stats.getWaiting()).isEqualTo(1);
+		assertThat(stats.getCalled()).isEqualTo(1);
+		assertThat(stats.getDone()).isEqualTo(2);
+		assertThat(stats.getAvgWaitTime()).isEqualTo(20.0);
+		assertThat(stats.getTriageLevels()).containsEntry("SARI", 1);
+		assertThat(stats.getDoneLastHour()).isEqualTo(2);
+
+		// Bir saatlik pencere kayar
+		clock.instant = DAY.atTime(10, 40).atZone(ZONE).toInstant();
+		assertThat(dashboard.snapshot().getDoneLastHour()).isEqualTo(1);
+		verify(appointmentRepo, times(1)).summarizeByStatus(DAY);
+	}
+
+	@Test
+	void scheduledReconcileRepairsDrift() {
+		dashboard.snapshot();
+		// Veritabanına yansımamış bir değişiklik sayaçları kaydırır
+		dashboard.onQueueChange(new LiveQueue.Change(null,
+				LiveQueue.Entry.of(appointment(9L, AppointmentStatus.WAITING, null, null))));
+		assertThat(dashboard.snapshot().getWaiting()).isEqualTo(2);
+
+		dashboard.reconcileScheduled();
+
+		assertThat(dashboard.snapshot().getWaiting()).isEqualTo(1);
+		assertThat(dashboard.snapshot().getTotalToday()).isEqualTo(3);
+	}
+
+	private static Appointment appointment(Long id, AppointmentStatus status, Integer waitMinutes, LocalDateTime completedAt) {
+		Appointment ap = new Appointment();
+		ap.setId(id);
+		ap.setQueueNumber(id.intValue());
+		ap.setAppointmentDate(DAY);
+		ap.setStatus(status);
+		ap.setCreatedAt(DAY.atTime(8, 0));
+		if (waitMinutes != null) ap.setCalledAt(DAY.atTime(8, 0).plusMinutes(waitMinutes));
+		ap.setCompletedAt(completedAt);
+		return ap;
+	}
+
+	private static final class MutableClock extends Clock {
+		Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZONE;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
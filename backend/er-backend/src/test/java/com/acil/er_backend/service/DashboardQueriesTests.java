@@ -0,0 +1,91 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.DashboardStats;
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.model.TriageRecord;
+import com.acil.er_backend.repository.AppointmentRepository;
+import com.acil.er_backend.repository.PatientRepository;
+import com.acil.er_backend.repository.TriageRecordRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(DashboardQueries.class)
+class DashboardQueriesTests {
+
+	private static final String[] LEVELS = {"KIRMIZI", "SARI", "YESIL", null};
+	private static final AppointmentStatus[] STATUSES = {AppointmentStatus.WAITING, AppointmentStatus.CALLED, AppointmentStatus.DONE};
+
+	@Autowired
+	private DashboardQueries queries;
+	@Autowired
+	private AppointmentRepository appointmentRepo;
+	@Autowired
+	private PatientRepository patientRepo;
+	@Autowired
+	private TriageRecordRepository triageRepo;
+	@Autowired
+	private TestEntityManager em;
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Test
+	void statementCountDoesNotGrowWithAppointments() {
+		LocalDate today = LocalDate.now();
+		Patient patient = new Patient();
+		patient.setTc("30000000000");
+		patient.setName("Test Hasta");
+		patientRepo.save(patient);
+
+		int created = 0;
+		for (int batch : new int[]{5, 60}) {
+			// clear() sonrası hasta ayrık kalır; ertelenen INSERT'ler yönetilen bir referans ister
+			Patient managed = patientRepo.getReferenceById(patient.getTc());
+			for (int i = 0; i < batch; i++) add(managed, ++created);
+			em.flush();
+			em.clear();
+
+			Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+			stats.clear();
+			DashboardStats result = queries.compute(today, LocalDateTime.now());
+
+			assertThat(stats.getPrepareStatementCount()).as("%d randevu", created).isEqualTo(3);
+			assertThat(stats.getEntityLoadCount()).isZero();
+			assertThat(result.getTotalToday()).isEqualTo(created);
+			assertThat(result.getWaiting() + result.getCalled() + result.getDone()).isEqualTo(created);
+			assertThat(result.getTriageLevels().values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(created);
+			assertThat(result.getTriageLevels()).containsKey("BELIRSIZ");
+			// Tüm çağrılanlar 7,5 dakika bekledi; Java tarafıyla aynı şekilde tam dakikaya yuvarlanır
+			assertThat(result.getAvgWaitTime()).isEqualTo(7.0);
+			assertThat(result.getDoneLastHour()).isEqualTo(result.getDone());
+		}
+	}
+
+	private void add(Patient patient, int n) {
+		Appointment ap = new Appointment();
+		ap.setPatient(patient);
+		ap.setQueueNumber(n);
+		ap = appointmentRepo.save(ap);
+		AppointmentStatus status = STATUSES[n % STATUSES.length];
+		ap.setStatus(status);
+		if (status != AppointmentStatus.WAITING) ap.setCalledAt(ap.getCreatedAt().plusSeconds(450));
+		if (status == AppointmentStatus.DONE) ap.setCompletedAt(LocalDateTime.now());
+
+		TriageRecord tr = new TriageRecord();
+		tr.setAppointment(ap);
+		tr.setTriageLevel(LEVELS[n % LEVELS.length]);
+		triageRepo.save(tr);
+	}
+}
@@ -0,0 +1,209 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.model.TriageRecord;
+import com.acil.er_backend.repository.AppointmentRepository;
+import com.acil.er_backend.repository.TriageRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LiveQueueTests {
+
+	private static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+	private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+	private final List<Object> changes = new ArrayList<>();
+	private AppointmentRepository repo;
+	private MutableClock clock;
+	private LiveQueue queue;
+
+	@BeforeEach
+	void setUp() {
+		repo = mock(AppointmentRepository.class);
+		clock = new MutableClock(DAY.atTime(9, 0).atZone(ZONE).toInstant());
+		when(repo.findByAppointmentDateOrderByQueueNumberAsc(DAY)).thenReturn(List.of(
+				appointment(1L, 1, AppointmentStatus.DONE, "111"),
+				appointment(2L, 2, AppointmentStatus.CALLED, "222"),
+				appointment(3L, 3, AppointmentStatus.WAITING, "333"),
+				appointment(4L, 4, AppointmentStatus.WAITING, "444")));
+		queue = new LiveQueue(repo, mock(TriageRecordRepository.class),
+				new TriagePriority(TriagePriority.DEFAULT_HEAD_STARTS), changes::add, clock);
+		queue.rebuild();
+	}
+
+	@Test
+	void answersQueueQuestionsFromMemory() {
+		assertThat(queue.currentCall()).map(LiveQueue.Entry::queueNumber).contains(2);
+		assertThat(queue.list(AppointmentStatus.WAITING)).extracting(LiveQueue.Entry::queueNumber).containsExactly(3, 4);
+		assertThat(queue.count(AppointmentStatus.DONE)).isEqualTo(1);
+		assertThat(queue.countAhead(AppointmentStatus.WAITING, 4)).isEqualTo(1);
+		assertThat(queue.activeByTc("333")).map(LiveQueue.Entry::id).contains(3L);
+		assertThat(queue.activeByTc("111")).isEmpty();
+		verify(repo, times(1)).findByAppointmentDateOrderByQueueNumberAsc(any());
+	}
+
+	@Test
+	void statusChangesMoveEntriesBetweenLists() {
+		queue.apply(LiveQueue.Entry.of(appointment(3L, 3, AppointmentStatus.CALLED, "333")));
+		queue.apply(LiveQueue.Entry.of(appointment(2L, 2, AppointmentStatus.IN_PROGRESS, "222")));
+		queue.apply(LiveQueue.Entry.of(appointment(5L, 5, AppointmentStatus.WAITING, "555")));
+
+		assertThat(queue.currentCall()).map(LiveQueue.Entry::queueNumber).contains(3);
+		assertThat(queue.list(AppointmentStatus.WAITING)).extracting(LiveQueue.Entry::queueNumber).containsExactly(4, 5);
+		assertThat(queue.countAhead(AppointmentStatus.WAITING, 5)).isEqualTo(1);
+		assertThat(queue.all()).hasSize(5);
+
+		queue.renamePatient("555", "Ayşe Yılmaz");
+		assertThat(queue.activeByTc("555")).map(LiveQueue.Entry::patientName).contains("Ayşe Yılmaz");
+
+		assertThat(changes).hasSize(5);
+		assertThat(((LiveQueue.Change) changes.get(0)).isReset()).isTrue();
+		LiveQueue.Change call = (LiveQueue.Change) changes.get(1);
+		assertThat(call.before().status()).isEqualTo(AppointmentStatus.WAITING);
+		assertThat(call.after().status()).isEqualTo(AppointmentStatus.CALLED);
+		assertThat(((LiveQueue.Change) changes.get(3)).before()).isNull();
+	}
+
+	@Test
+	void countAheadMatchesLinearCountWhileQueueGrows() {
+		Random random = new Random(3);
+		List<LiveQueue.Entry> entries = new ArrayList<>(queue.all());
+		for (int n = 5; n <= 400; n++) {
+			AppointmentStatus status = random.nextInt(3) == 0 ? AppointmentStatus.DONE : AppointmentStatus.WAITING;
+			LiveQueue.Entry e = LiveQueue.Entry.of(appointment((long) n, n, status, "tc" + n));
+			queue.apply(e);
+			entries.removeIf(x -> x.id().equals(e.id()));
+			entries.add(e);
+		}
+		for (int q = 1; q <= 401; q += 7) {
+			int limit = q;
+			long expected = entries.stream()
+					.filter(e -> e.status() == AppointmentStatus.WAITING && e.queueNumber() < limit).count();
+			assertThat(queue.countAhead(AppointmentStatus.WAITING, q)).as("q=%d", q).isEqualTo((int) expected);
+		}
+	}
+
+	@Test
+	void rebuildsFromDatabaseOnDayRollover() {
+		LocalDate next = DAY.plusDays(1);
+		when(repo.findByAppointmentDateOrderByQueueNumberAsc(next))
+				.thenReturn(List.of(appointment(10L, 1, AppointmentStatus.WAITING, "333", next)));
+		clock.instant = next.atTime(0, 5).atZone(ZONE).toInstant();
+
+		assertThat(queue.list(AppointmentStatus.WAITING)).extracting(LiveQueue.Entry::id).containsExactly(10L);
+		assertThat(queue.currentCall()).isEmpty();
+
+		// Dünden kalan bir randevunun geç gelen güncellemesi bugünün sırasına girmez
+		queue.apply(LiveQueue.Entry.of(appointment(4L, 4, AppointmentStatus.CALLED, "444")));
+		assertThat(queue.currentCall()).isEmpty();
+	}
+
+	@Test
+	void waitingOrderUsesTriageHeadStartAndAging() {
+		queue.apply(LiveQueue.Entry.of(appointment(5L, 5, AppointmentStatus.WAITING, "555", DAY, LocalTime.of(9, 0))));
+		queue.apply(LiveQueue.Entry.of(appointment(6L, 6, AppointmentStatus.WAITING, "666", DAY, LocalTime.of(9, 0))));
+		queue.apply(LiveQueue.Entry.of(appointment(7L, 7, AppointmentStatus.WAITING, "777", DAY, LocalTime.of(6, 30))));
+		assertThat(queue.waitingByPriority()).extracting(LiveQueue.Entry::id).containsExactly(7L, 3L, 4L, 5L, 6L);
+
+		// 09:00 KIRMIZI -> 07:00 gibi; 09:00 SARI -> 08:30 gibi. 06:30'dan beri bekleyen YESIL yine önde
+		queue.recordTriage(triage(5L, "KIRMIZI", null));
+		queue.recordTriage(triage(6L, null, "Sarı"));
+		assertThat(queue.waitingByPriority()).extracting(LiveQueue.Entry::id).containsExactly(7L, 5L, 3L, 4L, 6L);
+		assertThat(queue.nextWaiting()).map(LiveQueue.Entry::id).contains(7L);
+		assertThat(queue.waitingAhead(queue.activeByTc("666").orElseThrow())).isEqualTo(4);
+
+		// Durum değişikliği triyaj seviyesini düşürmez
+		queue.apply(LiveQueue.Entry.of(appointment(7L, 7, AppointmentStatus.CALLED, "777", DAY, LocalTime.of(6, 30))));
+		queue.apply(LiveQueue.Entry.of(appointment(5L, 5, AppointmentStatus.WAITING, "555", DAY, LocalTime.of(9, 0))));
+		assertThat(queue.nextWaiting()).map(LiveQueue.Entry::triageLevel).contains("KIRMIZI");
+	}
+
+	@Test
+	void waitingAheadMatchesPriorityListPosition() {
+		Random random = new Random(11);
+		String[] levels = {"KIRMIZI", "SARI", "YESIL", null};
+		for (int n = 5; n <= 300; n++) {
+			LocalTime created = LocalTime.of(8, 0).plusMinutes(random.nextInt(240)).plusSeconds(random.nextInt(60));
+			queue.apply(LiveQueue.Entry.of(appointment((long) n, n, AppointmentStatus.WAITING, "tc" + n, DAY, created)));
+			if (random.nextBoolean()) queue.recordTriage(triage((long) n, levels[random.nextInt(levels.length)], null));
+		}
+		List<LiveQueue.Entry> order = queue.waitingByPriority();
+		for (int i = 0; i < order.size(); i++) {
+			assertThat(queue.waitingAhead(order.get(i))).as("id=%d", order.get(i).id()).isEqualTo(i);
+		}
+	}
+
+	private static TriageRecord triage(Long appointmentId, String level, String aiLevel) {
+		Appointment ap = new Appointment();
+		ap.setId(appointmentId);
+		TriageRecord tr = new TriageRecord();
+		tr.setAppointment(ap);
+		tr.setTriageLevel(level);
+		tr.setAiSuggestedLevel(aiLevel);
+		return tr;
+	}
+
+	private static Appointment appointment(Long id, int queueNumber, AppointmentStatus status, String tc) {
+		return appointment(id, queueNumber, status, tc, DAY);
+	}
+
+	private static Appointment appointment(Long id, int queueNumber, AppointmentStatus status, String tc, LocalDate day) {
+		return appointment(id, queueNumber, status, tc, day, LocalTime.of(8, 0));
+	}
+
+	private static Appointment appointment(Long id, int queueNumber, AppointmentStatus status, String tc,
+			LocalDate day, LocalTime createdAt) {
+		Patient patient = new Patient();
+		patient.setTc(tc);
+		patient.setName("Hasta " + tc);
+		Appointment ap = new Appointment();
+		ap.setId(id);
+		ap.setPatient(patient);
+		ap.setQueueNumber(queueNumber);
+		ap.setAppointmentDate(day);
+		ap.setStatus(status);
+		ap.setCreatedAt(LocalDateTime.of(day, createdAt));
+		return ap;
+	}
+
+	private static final class MutableClock extends Clock {
+		Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZONE;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.MedicalSuggestion;
+import com.acil.er_backend.model.MedicalRecord;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MedicalDataServiceTests {
+
+	private MedicalDataService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new MedicalDataService(new ClassPathResource("medical_data.json"), null, false);
+		service.init();
+	}
+
+	@Test
+	void datasetIsLoaded() {
+		assertThat(service.getRecords()).isNotEmpty();
+		assertThat(service.getAllSymptoms()).contains("göğüs ağrısı", "ateş");
+	}
+
+	@Test
+	void indexedSearchMatchesLinearScan() {
+		List<String> input = List.of("Ateş", " öksürük ", "göğüs ağrısı");
+
+		List<MedicalRecord> expected = service.getRecords().stream()
+				.filter(rec -> rec.getSymptoms().stream()
+						.anyMatch(s -> input.stream().anyMatch(i -> i.toLowerCase().trim()
+								.equals(s.toLowerCase().trim()))))
+				.toList();
+
+		assertThat(expected).isNotEmpty();
+		assertThat(service.searchBySymptoms(input)).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void recordsAreTypedAndKeepDatasetJsonShape() throws Exception {
+		MedicalRecord first = service.getRecords().get(0);
+		assertThat(first.getUrgencyLevel()).isBetween(1, 5);
+		assertThat(first.getSymptomCount()).isEqualTo(first.getSymptoms().size());
+
+		JsonNode json = new ObjectMapper().valueToTree(first);
+		assertThat(json.fieldNames()).toIterable()
+				.containsExactly("id", "input_text", "symptoms", "urgency_level", "urgency_label", "response", "reasoning");
+		assertThat(json.get("urgency_level").isInt()).isTrue();
+
+		JsonNode suggestion = new ObjectMapper().valueToTree(new MedicalSuggestion(first, 2));
+		assertThat(suggestion.get("match_score").asInt()).isEqualTo(2);
+		assertThat(suggestion.get("input_text").asText()).isEqualTo(first.getInputText());
+	}
+
+	@Test
+	void matchCountIntersectsSymptomIds() {
+		MedicalRecord first = service.getRecords().get(0);
+		int[] ids = service.resolveSymptomIds(List.of(first.getSymptoms().get(0), "olmayan semptom"));
+		assertThat(ids).hasSize(1);
+		assertThat(first.matchCount(ids)).isEqualTo(1);
+		assertThat(first.matchCount(service.resolveSymptomIds(first.getSymptoms()))).isEqualTo(first.getSymptomCount());
+	}
+
+	@Test
+	void normalizationUsesTurkishCaseRules() {
+		assertThat(MedicalDataset.normalize(" GİS Kanama ")).isEqualTo("gis kanama");
+		assertThat(service.searchBySymptoms(List.of("GİS KANAMA"))).isNotEmpty();
+	}
+
+	@Test
+	void fuzzyIndexFindsNearestSpelling() {
+		FuzzySymptomIndex index = new FuzzySymptomIndex(List.of("göğüs ağrısı", "baş ağrısı", "ateş"));
+		assertThat(index.lookup("gögüs agrisi")).containsExactly(0);
+		assertThat(index.lookup("bas agirsi")).containsExactly(1);
+		assertThat(index.lookup("ates")).containsExactly(2);
+		assertThat(index.lookup("ateşş")).containsExactly(2);
+		assertThat(index.lookup("böbrek")).isEmpty();
+		assertThat(index.lookup("at")).isEmpty();
+	}
+
+	@Test
+	void reloadSwapsInValidFileAndRejectsBrokenOne(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("medical_data.json");
+		Files.writeString(file, """
+				[{"id": 1, "input_text": "Başım ağrıyor", "symptoms": ["baş ağrısı"], "urgency_level": 2,
+				  "urgency_label": "NORMAL", "response": "r", "reasoning": "g"}]
+				""");
+		MedicalDataService fileService = new MedicalDataService(new FileSystemResource(file), null, true);
+		fileService.init();
+		MedicalDataset first = fileService.current();
+		assertThat(first.getRecords()).hasSize(1);
+
+		Files.writeString(file, "[{\"id\": 1, \"symptoms\": \"baş ağrısı\", \"urgency_level\": 9}]");
+		assertThatThrownBy(fileService::reload)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("urgency_level");
+		Files.writeString(file, "{ bozuk json");
+		assertThatThrownBy(fileService::reload).isInstanceOf(IllegalStateException.class);
+		assertThat(fileService.current()).isSameAs(first);
+
+		Files.writeString(file, """
+				[{"id": 1, "symptoms": ["baş ağrısı"], "urgency_level": 2},
+				 {"id": 2, "symptoms": ["ateş"], "urgency_level": 3}]
+				""");
+		MedicalDataset second = fileService.reload();
+		assertThat(fileService.current()).isSameAs(second);
+		assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+		assertThat(fileService.searchBySymptoms(List.of("ateş"))).hasSize(1);
+	}
+
+	@Test
+	void binaryDatasetRoundTripsAndRejectsStaleBuild() throws Exception {
+		MedicalDataset source = service.current();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] digest = MedicalDatasetCodec.digest(new ByteArrayInputStream("kaynak".getBytes()));
+		MedicalDatasetCodec.write(source, digest, new DataOutputStream(bytes));
+
+		MedicalDataset copy = MedicalDatasetCodec.read(
+				new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), digest, 7);
+		ObjectMapper mapper = new ObjectMapper();
+		assertThat(copy.getVersion()).isEqualTo(7);
+		assertThat(mapper.writeValueAsString(copy.getRecords())).isEqualTo(mapper.writeValueAsString(source.getRecords()));
+		assertThat(copy.getAllSymptoms()).containsExactlyElementsOf(source.getAllSymptoms());
+		List<String> input = List.of("ateş", "göğüs ağrısı", "ates");
+		assertThat(copy.searchBySymptoms(input, SymptomMatchMode.FUZZY))
+				.extracting(MedicalRecord::getId)
+				.containsExactlyElementsOf(source.searchBySymptoms(input, SymptomMatchMode.FUZZY).stream()
+						.map(MedicalRecord::getId).toList());
+
+		assertThatThrownBy(() -> MedicalDatasetCodec.read(
+				new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+				MedicalDatasetCodec.digest(new ByteArrayInputStream("kaynaK".getBytes())), 8))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void binaryBuiltFromSameLengthEditIsIgnored(@TempDir Path dir) throws Exception {
+		Path json = dir.resolve("medical_data.json");
+		Path bin = dir.resolve("medical_data.bin");
+		Files.writeString(json, "[{\"id\": 1, \"symptoms\": [\"ateş\"], \"urgency_level\": 3}]");
+		MedicalDatasetCodec.main(new String[] { json.toString(), bin.toString() });
+
+		MedicalDataService fresh = new MedicalDataService(new FileSystemResource(json), new FileSystemResource(bin), false);
+		fresh.init();
+		assertThat(fresh.getRecords()).extracting(MedicalRecord::getUrgencyLevel).containsExactly(3);
+
+		// Aynı uzunlukta düzenleme: yalnızca içerik özeti eskimiş derlemeyi yakalar
+		long size = Files.size(json);
+		Files.writeString(json, "[{\"id\": 1, \"symptoms\": [\"ateş\"], \"urgency_level\": 4}]");
+		assertThat(Files.size(json)).isEqualTo(size);
+		MedicalDataService stale = new MedicalDataService(new FileSystemResource(json), new FileSystemResource(bin), false);
+		stale.init();
+		assertThat(stale.getRecords()).extracting(MedicalRecord::getUrgencyLevel).containsExactly(4);
+	}
+
+	@Test
+	void unknownOrEmptyInputReturnsNothing() {
+		assertThat(service.searchBySymptoms(List.of())).isEmpty();
+		assertThat(service.searchBySymptoms(null)).isEmpty();
+		assertThat(service.searchBySymptoms(List.of("olmayan semptom"))).isEmpty();
+	}
+}
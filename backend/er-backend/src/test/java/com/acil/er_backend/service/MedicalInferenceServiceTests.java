@@ -0,0 +1,167 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.dto.MedicalSuggestion;
+import com.acil.er_backend.model.MedicalRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MedicalInferenceServiceTests {
+
+	private MedicalDataService dataService;
+	private SuggestionCache cache;
+	private MedicalInferenceService inferenceService;
+
+	@BeforeEach
+	void setUp() {
+		dataService = new MedicalDataService(new ClassPathResource("medical_data.json"), null, false);
+		dataService.init();
+		cache = new SuggestionCache(2);
+		inferenceService = new MedicalInferenceService(dataService, cache, SymptomMatchMode.EXACT);
+	}
+
+	@Test
+	void topKMatchesStableSortOfAllMatches() {
+		List<String> vocabulary = new ArrayList<>(dataService.getAllSymptoms());
+		Random random = new Random(42);
+
+		for (int round = 0; round < 200; round++) {
+			List<String> input = new ArrayList<>();
+			int n = 1 + random.nextInt(4);
+			for (int i = 0; i < n; i++) input.add(vocabulary.get(random.nextInt(vocabulary.size())));
+			input.add("olmayan semptom");
+
+			for (int k : new int[] {1, 5}) {
+				assertThat(ids(inferenceService.suggest(input, k)))
+						.as("input=%s k=%d", input, k)
+						.containsExactlyElementsOf(ids(reference(input, k)));
+			}
+		}
+	}
+
+	@Test
+	void scoresCountOverlappingSymptoms() {
+		MedicalRecord first = dataService.getRecords().get(0);
+		List<MedicalSuggestion> top = inferenceService.suggestTop5(first.getSymptoms());
+
+		assertThat(top).hasSizeLessThanOrEqualTo(5);
+		assertThat(top.get(0).getMatchScore()).isEqualTo(first.getSymptoms().size());
+	}
+
+	@Test
+	void emptyOrUnknownInputHasNoSuggestions() {
+		assertThat(inferenceService.suggestTop5(List.of())).isEmpty();
+		assertThat(inferenceService.suggestTop5(List.of("olmayan semptom"))).isEmpty();
+		assertThat(inferenceService.suggest(List.of("ateş"), 0)).isEmpty();
+	}
+
+	@Test
+	void fuzzyModeToleratesTyposAndMissingDiacritics() {
+		assertThat(inferenceService.suggestTop5(List.of("göğüs agrısı"), SymptomMatchMode.EXACT)).isEmpty();
+
+		List<MedicalSuggestion> typo = inferenceService.suggestTop5(List.of("göğüs agrısı"), SymptomMatchMode.FUZZY);
+		List<MedicalSuggestion> exact = inferenceService.suggestTop5(List.of("göğüs ağrısı"), SymptomMatchMode.EXACT);
+		assertThat(ids(typo)).isNotEmpty().containsExactlyElementsOf(ids(exact));
+
+		assertThat(ids(inferenceService.suggestTop5(List.of("GOGUS AGRISI"), SymptomMatchMode.FUZZY)))
+				.containsExactlyElementsOf(ids(exact));
+	}
+
+	@Test
+	void fuzzyModeFindsAdjacentTranspositions() {
+		// Tek bir yer değiştirme dört trigramı birden bozar; aday süzgeci bunları elememeli
+		List<MedicalSuggestion> exact = inferenceService.suggestTop5(List.of("kusma"), SymptomMatchMode.EXACT);
+		assertThat(ids(inferenceService.suggestTop5(List.of("ksuma"), SymptomMatchMode.FUZZY)))
+				.isNotEmpty().containsExactlyElementsOf(ids(exact));
+		// Dört harfte ortada yer değiştirme hiç ortak trigram bırakmaz
+		assertThat(ids(inferenceService.suggestTop5(List.of("aetş"), SymptomMatchMode.FUZZY)))
+				.isNotEmpty().containsExactlyElementsOf(ids(inferenceService.suggestTop5(List.of("ateş"))));
+	}
+
+	@Test
+	void complaintTextIsRankedWithBm25() {
+		MedicalRecord first = dataService.getRecords().get(0);
+		List<MedicalSuggestion> top = inferenceService.suggestByComplaint(first.getInputText(), 5);
+
+		assertThat(top).isNotEmpty().hasSizeLessThanOrEqualTo(5);
+		assertThat(top.get(0).getRecord().getInputText()).isEqualTo(first.getInputText());
+		assertThat(top.get(0).getTextScore()).isPositive();
+		for (int i = 1; i < top.size(); i++) {
+			assertThat(top.get(i).getTextScore()).isLessThanOrEqualTo(top.get(i - 1).getTextScore());
+		}
+
+		assertThat(inferenceService.suggestByComplaint("GÖĞSÜMDE ağrı var, nefes alamıyorum", 3)).isNotEmpty();
+		assertThat(inferenceService.suggestByComplaint("   ", 3)).isEmpty();
+		assertThat(inferenceService.suggestByComplaint("xyzzy qwerty", 3)).isEmpty();
+	}
+
+	@Test
+	void complaintTermsAreFoldedAndStemmed() {
+		assertThat(ComplaintTextIndex.terms("Göğsümde çok şiddetli ağrı VAR"))
+				.containsExactly("gogsu", "sidde", "agri");
+	}
+
+	@Test
+	void repeatedSymptomSetsAreServedFromCache() {
+		List<MedicalSuggestion> first = inferenceService.suggestTop5(List.of("ateş", "öksürük"));
+		List<MedicalSuggestion> second = inferenceService.suggestTop5(List.of(" Öksürük", "ateş", "ateş"));
+
+		assertThat(second).isSameAs(first);
+		assertThat(cache.stats().getMisses()).isEqualTo(1);
+		assertThat(cache.stats().getHits()).isEqualTo(1);
+	}
+
+	@Test
+	void cacheIsBoundedAndDroppedOnDatasetChange() {
+		inferenceService.suggestTop5(List.of("ateş"));
+		inferenceService.suggestTop5(List.of("öksürük"));
+		inferenceService.suggestTop5(List.of("göğüs ağrısı"));
+		assertThat(cache.stats().getSize()).isEqualTo(2);
+		assertThat(cache.stats().getEvictions()).isEqualTo(1);
+
+		dataService.init();
+		inferenceService.suggestTop5(List.of("göğüs ağrısı"));
+		assertThat(cache.stats().getSize()).isEqualTo(1);
+		assertThat(cache.stats().getHits()).isZero();
+	}
+
+	@Test
+	void requestsOnPreviousSnapshotDoNotWipeNewerEntries() {
+		int[] ids = { 1, 2 };
+		List<MedicalSuggestion> fresh = List.of();
+		cache.put(8, ids, 5, fresh);
+
+		// Yeniden yüklemeden önce başlamış istek: eski sürümle okur ve yazar
+		assertThat(cache.get(7, ids, 5)).isNull();
+		cache.put(7, ids, 5, List.of());
+		cache.put(7, new int[] { 3 }, 5, List.of());
+
+		assertThat(cache.stats().getDatasetVersion()).isEqualTo(8);
+		assertThat(cache.stats().getSize()).isEqualTo(1);
+		assertThat(cache.get(8, ids, 5)).isSameAs(fresh);
+	}
+
+	// Önceki kopyala-yapıştır sıralamanın birebir karşılığı
+	private List<MedicalSuggestion> reference(List<String> input, int k) {
+		return dataService.searchBySymptoms(input).stream()
+				.map(rec -> new MedicalSuggestion(rec, (int) rec.getSymptoms().stream()
+						.filter(s -> input.stream().anyMatch(i -> MedicalDataset.normalize(i).equals(MedicalDataset.normalize(s))))
+						.count()))
+				.sorted(Comparator.comparingInt(MedicalSuggestion::getMatchScore).reversed()
+						.thenComparing(Comparator.comparingInt((MedicalSuggestion s) -> s.getRecord().getUrgencyLevel()).reversed()))
+				.limit(k)
+				.toList();
+	}
+
+	private static List<String> ids(List<MedicalSuggestion> suggestions) {
+		return suggestions.stream()
+				.map(s -> s.getRecord().getId() + ":" + s.getMatchScore())
+				.toList();
+	}
+}
@@ -0,0 +1,71 @@
+package com.acil.er_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MedicalPayloadCacheTests {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private MedicalDataService dataService;
+	private MedicalPayloadCache cache;
+
+	@BeforeEach
+	void setUp() {
+		dataService = new MedicalDataService(new ClassPathResource("medical_data.json"), null, false);
+		dataService.init();
+		cache = new MedicalPayloadCache(dataService, mapper);
+	}
+
+	@Test
+	void fullBodiesArePreSerializedOncePerSnapshot() throws Exception {
+		MedicalPayloadCache.Payload data = cache.data();
+		assertThat(cache.data()).isSameAs(data);
+		assertThat(data.getJson()).isEqualTo(mapper.writeValueAsBytes(dataService.getRecords()));
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data.getGzip()))) {
+			assertThat(in.readAllBytes()).isEqualTo(data.getJson());
+		}
+		assertThat(mapper.readTree(cache.symptoms().getJson())).hasSize(dataService.getAllSymptoms().size());
+
+		String etag = data.getEtag();
+		dataService.init();
+		assertThat(cache.data()).isNotSameAs(data);
+		assertThat(cache.data().getEtag()).as("aynı içerik, aynı ETag").isEqualTo(etag);
+	}
+
+	@Test
+	void cursorPagesWalkWholeDatasetWithSelectedFields() throws Exception {
+		List<Integer> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			JsonNode page = mapper.readTree(cache.page(cursor, 128, List.of("id", "urgency_level")).getJson());
+			for (JsonNode item : page.get("items")) {
+				assertThat(item.fieldNames()).toIterable().containsExactly("id", "urgency_level");
+				ids.add(item.get("id").asInt());
+			}
+			cursor = page.get("next_cursor").isNull() ? null : page.get("next_cursor").asText();
+		} while (cursor != null);
+
+		assertThat(ids).containsExactlyElementsOf(dataService.getRecords().stream().map(r -> r.getId()).toList());
+	}
+
+	@Test
+	void invalidPageRequestsAreRejected() throws Exception {
+		assertThatThrownBy(() -> cache.page(null, 0, null)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> cache.page(null, 10, List.of("password"))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> cache.page("bozuk!", 10, null)).isInstanceOf(IllegalArgumentException.class);
+
+		String next = mapper.readTree(cache.page(null, 10, null).getJson()).get("next_cursor").asText();
+		assertThat(cache.page(next, 10, null).getEtag()).isNotEqualTo(cache.page(null, 10, null).getEtag());
+		assertThatThrownBy(() -> cache.page(next.substring(2), 10, null)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,85 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.repository.AppointmentRepository;
+import com.acil.er_backend.repository.TriageRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MobileQueueWatcherTests {
+
+	private LiveQueue queue;
+	private MobileQueueWatcher watcher;
+
+	@BeforeEach
+	void setUp() {
+		AppointmentRepository repo = mock(AppointmentRepository.class);
+		when(repo.findByAppointmentDateOrderByQueueNumberAsc(any())).thenReturn(List.of(
+				appointment(1L, 1, AppointmentStatus.WAITING, "111"),
+				appointment(2L, 2, AppointmentStatus.WAITING, "222")));
+		MobileQueueWatcher[] holder = new MobileQueueWatcher[1];
+		queue = new LiveQueue(repo, mock(TriageRecordRepository.class),
+				new TriagePriority(TriagePriority.DEFAULT_HEAD_STARTS), event -> {
+			if (holder[0] != null) holder[0].onQueueChange((LiveQueue.Change) event);
+		});
+		queue.rebuild();
+		AppointmentService service = new AppointmentServiceImpl(repo, null, null, null, queue, null, null,
+				new WaitTimeEstimator(queue, repo, 0.2, 15), null, null);
+		watcher = holder[0] = new MobileQueueWatcher(service, 25_000, Runnable::run);
+	}
+
+	@Test
+	void answersImmediatelyWhenClientIsBehind() {
+		DeferredResult<AppointmentService.MobileQueueStatus> result = watcher.watch("222", null, null);
+
+		assertThat(result.hasResult()).isTrue();
+		AppointmentService.MobileQueueStatus status = (AppointmentService.MobileQueueStatus) result.getResult();
+		assertThat(status.getWaitingAhead()).isEqualTo(1);
+		assertThat(status.getVersion()).isNotBlank();
+		assertThat(watcher.getWaiterCount()).isZero();
+	}
+
+	@Test
+	void parksUntilPatientsOwnPositionChanges() {
+		String version = ((AppointmentService.MobileQueueStatus) watcher.watch("222", null, null).getResult()).getVersion();
+		DeferredResult<AppointmentService.MobileQueueStatus> result = watcher.watch("222", version, null);
+		assertThat(result.hasResult()).isFalse();
+		assertThat(watcher.getWaiterCount()).isEqualTo(1);
+
+		// Arkaya yeni hasta gelmesi 222'nin durumunu değiştirmez
+		queue.apply(LiveQueue.Entry.of(appointment(3L, 3, AppointmentStatus.WAITING, "333")));
+		assertThat(result.hasResult()).isFalse();
+
+		// Öndeki hasta çağrılınca sıra bir öne kayar
+		queue.apply(LiveQueue.Entry.of(appointment(1L, 1, AppointmentStatus.CALLED, "111")));
+		assertThat(result.hasResult()).isTrue();
+		AppointmentService.MobileQueueStatus status = (AppointmentService.MobileQueueStatus) result.getResult();
+		assertThat(status.getWaitingAhead()).isZero();
+		assertThat(status.getVersion()).isNotEqualTo(version);
+	}
+
+	private static Appointment appointment(Long id, int queueNumber, AppointmentStatus status, String tc) {
+		Patient patient = new Patient();
+		patient.setTc(tc);
+		patient.setName("Hasta " + tc);
+		Appointment ap = new Appointment();
+		ap.setId(id);
+		ap.setPatient(patient);
+		ap.setQueueNumber(queueNumber);
+		ap.setAppointmentDate(LocalDate.now());
+		ap.setStatus(status);
+		ap.setCreatedAt(LocalDateTime.now());
+		return ap;
+	}
+}
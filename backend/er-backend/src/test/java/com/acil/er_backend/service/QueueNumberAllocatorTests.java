@@ -0,0 +1,178 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.repository.AppointmentRepository;
+import com.acil.er_backend.repository.ArchiveRepository;
+import com.acil.er_backend.repository.PatientRepository;
+import com.acil.er_backend.repository.PatientTimelineRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({AppointmentServiceImpl.class, LiveQueue.class, QueueNumberAllocator.class, DashboardAggregator.class, DashboardQueries.class, TriagePriority.class,
+		WaitTimeEstimator.class, ArchiveRepository.class, PatientTimelineRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueueNumberAllocatorTests {
+
+	@Autowired
+	private AppointmentService appointmentService;
+	@Autowired
+	private AppointmentRepository appointmentRepo;
+	@Autowired
+	private PatientRepository patientRepo;
+	@Autowired
+	private LiveQueue liveQueue;
+	@Autowired
+	private WaitTimeEstimator waitTimes;
+	@Autowired
+	private PatientTimelineRepository timeline;
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@AfterEach
+	void cleanUp() {
+		appointmentRepo.deleteAll();
+		patientRepo.deleteAll();
+	}
+
+	@Test
+	void concurrentRegistrationsGetUniqueQueueNumbers() throws Exception {
+		int threads = 16;
+		int perThread = 25;
+		List<String> tcs = new ArrayList<>();
+		for (int i = 0; i < threads; i++) tcs.add(patient(String.format("%011d", 10_000_000_000L + i)));
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (String tc : tcs) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < perThread; i++) appointmentService.createAppointment(tc, "yük testi", null);
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : futures) f.get();
+		pool.shutdown();
+
+		List<Integer> numbers = appointmentRepo.findByAppointmentDateOrderByQueueNumberAsc(LocalDate.now())
+				.stream().map(Appointment::getQueueNumber).toList();
+		assertThat(numbers).hasSize(threads * perThread).doesNotHaveDuplicates();
+		assertThat(numbers.get(numbers.size() - 1)).isEqualTo(threads * perThread);
+	}
+
+	@Test
+	void databaseRejectsDuplicateQueueNumberForSameDay() {
+		String tc = patient("20000000000");
+		Appointment first = appointmentService.createAppointment(tc, null, null);
+
+		Appointment duplicate = new Appointment();
+		duplicate.setPatient(patientRepo.findByTc(tc).orElseThrow());
+		duplicate.setAppointmentDate(first.getAppointmentDate());
+		duplicate.setQueueNumber(first.getQueueNumber());
+		assertThatThrownBy(() -> appointmentRepo.saveAndFlush(duplicate))
+				.isInstanceOf(DataIntegrityViolationException.class);
+
+		Appointment yesterday = new Appointment();
+		yesterday.setPatient(duplicate.getPatient());
+		yesterday.setAppointmentDate(first.getAppointmentDate().minusDays(1));
+		yesterday.setQueueNumber(first.getQueueNumber());
+		assertThat(appointmentRepo.saveAndFlush(yesterday).getId()).isNotNull();
+	}
+
+	@Test
+	void secondInstanceCollidesOnMigratedConstraintAndResyncs() {
+		// Şema Hibernate'ten değil Flyway'den gelmeli; kısıt V9 ile eklenir
+		assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM \"flyway_schema_history\" "
+				+ "WHERE \"version\" = '9' AND \"success\"", Integer.class)).isEqualTo(1);
+
+		String tc = patient("40000000000");
+		LocalDate today = LocalDate.now();
+		// İki örnek de sayacını henüz kimse numara vermeden tohumlar
+		AppointmentService first = instance(today);
+		AppointmentService other = instance(today);
+
+		assertThat(first.createAppointment(tc, null, null).getQueueNumber()).isEqualTo(1);
+		assertThatThrownBy(() -> other.createAppointment(tc, null, null))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("tekrar deneyin");
+		assertThat(other.createAppointment(tc, null, null).getQueueNumber()).isEqualTo(2);
+		assertThat(appointmentRepo.findByAppointmentDateOrderByQueueNumberAsc(today)).hasSize(2);
+	}
+
+	@Test
+	void legacyDatabaseIsRenumberedBeforeConstraintIsAdded() throws Exception {
+		// ddl-auto=update döneminden kalma, sürüm 1 kabul edilmiş ve çift numaralı bir veritabanı
+		String url = "jdbc:h2:mem:legacy-queue;DB_CLOSE_DELAY=-1";
+		Flyway flyway = Flyway.configure().dataSource(url, "sa", "")
+				.locations("classpath:db/migration/common", "classpath:db/migration/h2")
+				.target("8").load();
+		flyway.migrate();
+		LocalDate today = LocalDate.now();
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+			 Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO patients (tc, name) VALUES ('30000000000', 'Eski Hasta')");
+			statement.execute("INSERT INTO appointments (id, patient_tc, appointment_date, queue_number, created_at) VALUES "
+					+ "(1, '30000000000', '" + today + "', 1, '" + today + " 08:00'), "
+					+ "(2, '30000000000', '" + today + "', 1, '" + today + " 08:05'), "
+					+ "(3, '30000000000', '" + today + "', 2, '" + today + " 08:10'), "
+					+ "(4, '30000000000', '" + today + "', 1, '" + today + " 08:15'), "
+					+ "(5, '30000000000', '" + today.minusDays(1) + "', 1, '" + today.minusDays(1) + " 08:00')");
+
+			Flyway.configure().dataSource(url, "sa", "")
+					.locations("classpath:db/migration/common", "classpath:db/migration/h2").load().migrate();
+
+			List<String> numbers = new ArrayList<>();
+			try (ResultSet rs = statement.executeQuery("SELECT id, queue_number FROM appointments ORDER BY id")) {
+				while (rs.next()) numbers.add(rs.getLong(1) + ":" + rs.getInt(2));
+			}
+			// En erken kayıt numarasını korur, diğerleri günün sonuna taşınır; başka günler etkilenmez
+			assertThat(numbers).containsExactly("1:1", "2:3", "3:2", "4:4", "5:1");
+			assertThatThrownBy(() -> statement.execute("INSERT INTO appointments (id, patient_tc, appointment_date, "
+					+ "queue_number) VALUES (6, '30000000000', '" + today + "', 4)"))
+					.isInstanceOf(SQLException.class)
+					.hasMessageContaining("UK_APPOINTMENTS_DATE_QUEUE");
+			statement.execute("DROP ALL OBJECTS");
+		}
+	}
+
+	private AppointmentService instance(LocalDate day) {
+		QueueNumberAllocator numbers = new QueueNumberAllocator(appointmentRepo);
+		numbers.resync(day);
+		return new AppointmentServiceImpl(appointmentRepo, patientRepo, null, null, liveQueue, numbers, null, waitTimes,
+				null, timeline);
+	}
+
+	private String patient(String tc) {
+		Patient p = new Patient();
+		p.setTc(tc);
+		p.setName("Test Hasta");
+		patientRepo.save(p);
+		return tc;
+	}
+}
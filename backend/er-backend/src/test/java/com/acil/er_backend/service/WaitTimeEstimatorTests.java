@@ -0,0 +1,143 @@
+package com.acil.er_backend.service;
+
+import com.acil.er_backend.model.Appointment;
+import com.acil.er_backend.model.AppointmentStatus;
+import com.acil.er_backend.model.Patient;
+import com.acil.er_backend.model.TriageRecord;
+import com.acil.er_backend.repository.AppointmentRepository;
+import com.acil.er_backend.repository.TriageRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WaitTimeEstimatorTests {
+
+	private static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+	private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+	private AppointmentRepository repo;
+	private MutableClock clock;
+	private LiveQueue queue;
+	private WaitTimeEstimator estimator;
+
+	@BeforeEach
+	void setUp() {
+		repo = mock(AppointmentRepository.class);
+		clock = new MutableClock(DAY.atTime(10, 0));
+		when(repo.findByAppointmentDateOrderByQueueNumberAsc(DAY)).thenReturn(List.of());
+		List<Object[]> history = new ArrayList<>();
+		// Geçmişte YESIL muayeneler ~10 dk sürmüş (yeniden eskiye)
+		for (int i = 0; i < 5; i++) {
+			LocalDateTime called = DAY.minusDays(1).atTime(10, 0).minusHours(i);
+			history.add(new Object[]{called, null, called.plusMinutes(10), "YESIL"});
+		}
+		when(repo.findServiceTimesSince(any(), any(), any())).thenReturn(history);
+
+		WaitTimeEstimator[] holder = new WaitTimeEstimator[1];
+		queue = new LiveQueue(repo, mock(TriageRecordRepository.class),
+				new TriagePriority(TriagePriority.DEFAULT_HEAD_STARTS), event -> {
+			if (holder[0] != null) holder[0].onQueueChange((LiveQueue.Change) event);
+		}, clock);
+		estimator = holder[0] = new WaitTimeEstimator(queue, repo, 0.5, 15, clock);
+		queue.rebuild();
+	}
+
+	@Test
+	void learnsServiceTimesBySeverityWithFallback() {
+		assertThat(estimator.expectedServiceMinutes("YESIL", 10)).isEqualTo(10.0);
+		// Hiç KIRMIZI örneği yok: genel ortalamaya düşer
+		assertThat(estimator.expectedServiceMinutes("KIRMIZI", 10)).isEqualTo(10.0);
+
+		for (int i = 0; i < 3; i++) {
+			long id = 100 + i;
+			queue.apply(LiveQueue.Entry.of(appointment(id, AppointmentStatus.WAITING, null, null)));
+			queue.recordTriage(triage(id, "KIRMIZI"));
+			queue.apply(LiveQueue.Entry.of(appointment(id, AppointmentStatus.CALLED, DAY.atTime(9, 0), null)));
+			queue.apply(LiveQueue.Entry.of(appointment(id, AppointmentStatus.DONE, DAY.atTime(9, 0), DAY.atTime(9, 40))));
+		}
+		assertThat(estimator.expectedServiceMinutes("KIRMIZI", 9)).isEqualTo(40.0);
+		assertThat(estimator.expectedServiceMinutes("YESIL", 9)).isEqualTo(10.0);
+	}
+
+	@Test
+	void estimatesFollowQueueAndElapsedServiceTime() {
+		for (long id = 1; id <= 3; id++) {
+			queue.apply(LiveQueue.Entry.of(appointment(id, AppointmentStatus.WAITING, null, null)));
+		}
+		assertThat(estimator.estimate(1L)).isZero();
+		assertThat(estimator.estimate(3L)).isEqualTo(20);
+		assertThat(estimator.estimateForNewArrival()).isEqualTo(30);
+
+		// 1 çağrıldı: muayenesinin 10 dakikası önde; 4 dakika sonra kalan 6 dakika
+		queue.apply(LiveQueue.Entry.of(appointment(1L, AppointmentStatus.CALLED, DAY.atTime(10, 0), null)));
+		assertThat(estimator.estimate(1L)).isNull();
+		assertThat(estimator.estimate(2L)).isEqualTo(10);
+		clock.set(DAY.atTime(10, 4));
+		estimator.tick();
+		assertThat(estimator.estimate(2L)).isEqualTo(6);
+		assertThat(estimator.estimate(3L)).isEqualTo(16);
+	}
+
+	private static TriageRecord triage(Long appointmentId, String level) {
+		Appointment ap = new Appointment();
+		ap.setId(appointmentId);
+		TriageRecord tr = new TriageRecord();
+		tr.setAppointment(ap);
+		tr.setTriageLevel(level);
+		return tr;
+	}
+
+	private static Appointment appointment(Long id, AppointmentStatus status, LocalDateTime calledAt, LocalDateTime completedAt) {
+		Patient patient = new Patient();
+		patient.setTc("tc" + id);
+		patient.setName("Hasta " + id);
+		Appointment ap = new Appointment();
+		ap.setId(id);
+		ap.setPatient(patient);
+		ap.setQueueNumber(id.intValue());
+		ap.setAppointmentDate(DAY);
+		ap.setStatus(status);
+		ap.setCreatedAt(DAY.atTime(8, 0).plusMinutes(id));
+		ap.setCalledAt(calledAt);
+		ap.setCompletedAt(completedAt);
+		return ap;
+	}
+
+	private static final class MutableClock extends Clock {
+		Instant instant;
+
+		MutableClock(LocalDateTime time) {
+			set(time);
+		}
+
+		void set(LocalDateTime time) {
+			instant = time.atZone(ZONE).toInstant();
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZONE;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
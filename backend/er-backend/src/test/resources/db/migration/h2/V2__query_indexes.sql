@@ -0,0 +1,14 @@
+-- postgresql/V2__query_indexes.sql'in H2 karşılığı. H2 kısmi indeks desteklemez;
+-- aktif randevu indeksi durum sütunuyla tam indeks olarak kurulur.
+
+CREATE INDEX ix_appointments_date_status_queue ON appointments (appointment_date, status, queue_number);
+
+CREATE INDEX ix_appointments_active_patient ON appointments (patient_tc, appointment_date, status);
+
+CREATE INDEX ix_appointments_patient_created ON appointments (patient_tc, created_at DESC);
+
+CREATE INDEX ix_appointments_status_completed ON appointments (status, completed_at);
+
+CREATE INDEX ix_triage_records_appointment_created ON triage_records (appointment_id, created_at);
+
+CREATE INDEX ix_doctor_notes_appointment_created ON doctor_notes (appointment_id, created_at);
@@ -0,0 +1,2 @@
+-- postgresql/V5__patient_name_folded.sql'in H2 karşılığı; H2 zaten kod noktasına göre karşılaştırır.
+ALTER TABLE patients ADD COLUMN name_folded VARCHAR(255);
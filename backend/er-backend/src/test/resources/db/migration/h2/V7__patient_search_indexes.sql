@@ -0,0 +1,5 @@
+-- postgresql/V7__patient_search_indexes.sql'in H2 karşılığı.
+
+CREATE INDEX ix_patients_name_folded_tc ON patients (name_folded, tc);
+
+CREATE INDEX ix_patients_birth_year_gender_tc ON patients (birth_year, gender, tc);
@@ -60,6 +60,63 @@ export const apiPatch = (path, body) =>
 export const apiDelete = (path) =>
     fetch(`${BASE}${path}`, { method: 'DELETE', headers: authHeader() }).then(handleResponse);
 
+// EventSource Authorization başlığı gönderemediği için SSE akışı fetch ile okunur.
+// Bağlantı koparsa birkaç saniye sonra yeniden bağlanır; dönen fonksiyon akışı kapatır.
+export const apiStream = (path, onEvent, retryMs = 3000) => {
+    let controller = null;
+    let timer = null;
+    let closed = false;
+
+    const dispatch = (block) => {
+        let event = 'message';
+        const data = [];
+        for (const line of block.split('\n')) {
+            if (line.startsWith('event:')) event = line.slice(6).trim();
+            else if (line.startsWith('data:')) data.push(line.slice(5));
+        }
+        if (data.length) onEvent(event, data.join('\n'));
+    };
+
+    const connect = async () => {
+        controller = new AbortController();
+        try {
+            const res = await fetch(`${BASE}${path}`, {
+                headers: { Accept: 'text/event-stream', ...authHeader() },
+                signal: controller.signal
+            });
+            if (!res.ok || !res.body) {
+                await handleResponse(res);
+                return;
+            }
+            onEvent('open', null);
+            const reader = res.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            for (;;) {
+                const { value, done } = await reader.read();
+                if (done) break;
+                buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, '\n');
+                let idx;
+                while ((idx = buffer.indexOf('\n\n')) >= 0) {
+                    dispatch(buffer.slice(0, idx));
+                    buffer = buffer.slice(idx + 2);
+                }
+            }
+        } catch (err) {
+            if (closed) return;
+            console.error('Canlı akış koptu:', err);
+        }
+        if (!closed) timer = setTimeout(connect, retryMs);
+    };
+
+    connect();
+    return () => {
+        closed = true;
+        clearTimeout(timer);
+        controller?.abort();
+    };
+};
+
 export const validateCredentials = async (username, password) => {
     const encoded = encodeCredentials(username, password);
     const res = await fetch(`${BASE}/auth/me`, {
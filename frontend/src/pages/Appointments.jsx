@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { apiGet, apiPatch } from '../api';
+import { apiGet, apiPatch, apiPost, apiStream } from '../api';
 import { useAuth } from '../auth/AuthContext';
 
 const statusLabels = {
@@ -40,8 +40,23 @@ const Appointments = () => {
 
     useEffect(() => {
         fetchAppointments();
-        const interval = setInterval(fetchAppointments, 10000);
-        return () => clearInterval(interval);
+        // Durum değişikliği yerinde uygulanır; yeni kayıt, sıradan çıkma ve yeniden bağlanmada liste yeniden çekilir
+        let reconnect = false;
+        return apiStream('/appointments/stream', (event, payload) => {
+            if (event === 'open') {
+                if (reconnect) fetchAppointments();
+                reconnect = true;
+                return;
+            }
+            if (event !== 'queue') return;
+            const change = JSON.parse(payload);
+            if (change.type === 'UPDATED') {
+                setAppointments(prev => prev.map(a =>
+                    a.id === change.appointmentId ? { ...a, status: change.status } : a));
+            } else {
+                fetchAppointments();
+            }
+        });
     }, []);
 
     const updateStatus = async (id, status) => {
@@ -53,6 +68,16 @@ const Appointments = () => {
         }
     };
 
+    // Sunucu triyaj önceliği ve bekleme süresine göre sıradakini seçer
+    const callNext = async () => {
+        try {
+            await apiPost('/appointments/call-next', {});
+            fetchAppointments();
+        } catch (err) {
+            alert('Hasta çağrılamadı: ' + err.message);
+        }
+    };
+
     const byStatus = filter === 'ALL' 
         ? appointments 
         : appointments.filter(a => a.status === filter);
@@ -77,6 +102,13 @@ const Appointments = () => {
         <div className="appointments-page">
             <div className="page-header">
                 <h1>📋 Randevular</h1>
+                <button
+                    className="btn btn-call"
+                    onClick={callNext}
+                    disabled={!appointments.some(a => a.status === 'WAITING')}
+                >
+                    📢 Sıradakini Çağır
+                </button>
                 <div className="date-filters">
                     {['TODAY', '7D', 'ALL'].map((d) => (
                         <button
@@ -9,15 +9,24 @@ const statusLabels = {
     NO_SHOW: 'Gelmedi'
 };
 
+const PAGE_SIZE = 20;
+
 const PatientHistory = () => {
     const [tc, setTc] = useState('');
-    const [history, setHistory] = useState(null);
+    const [summary, setSummary] = useState(null);
+    const [entries, setEntries] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(false);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [error, setError] = useState('');
-    const [statusFilter, setStatusFilter] = useState('ALL');
-    const [sortDesc, setSortDesc] = useState(true);
     const [showNotes, setShowNotes] = useState(true);
 
+    const timelineUrl = (cursor) => {
+        const params = new URLSearchParams({ limit: PAGE_SIZE });
+        if (cursor) params.set('cursor', cursor);
+        return `/appointments/history/${tc}/timeline?${params}`;
+    };
+
     const searchHistory = async () => {
         if (!tc.trim() || tc.length !== 11) {
             setError('Geçerli bir TC kimlik numarası girin (11 haneli)');
@@ -25,10 +34,14 @@ const PatientHistory = () => {
         }
         setLoading(true);
         setError('');
-        setHistory(null);
+        setSummary(null);
+        setEntries([]);
+        setNextCursor(null);
         try {
-            const data = await apiGet(`/appointments/history/${tc}`);
-            setHistory(data);
+            const page = await apiGet(timelineUrl(null));
+            setSummary(page.summary);
+            setEntries(page.entries || []);
+            setNextCursor(page.nextCursor || null);
         } catch (err) {
             setError('Hasta bulunamadı veya bir hata oluştu');
         } finally {
@@ -36,30 +49,96 @@ const PatientHistory = () => {
         }
     };
 
+    // Sonraki sayfa imleçle istenir; önceki kayıtlar yeniden indirilmez
+    const loadMore = async () => {
+        if (!nextCursor) return;
+        setLoadingMore(true);
+        try {
+            const page = await apiGet(timelineUrl(nextCursor));
+            setEntries(prev => [...prev, ...(page.entries || [])]);
+            setNextCursor(page.nextCursor || null);
+        } catch (err) {
+            setError('Geçmişin devamı yüklenemedi');
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleKeyPress = (e) => {
         if (e.key === 'Enter') searchHistory();
     };
 
-    const getTriageForAppointment = (appointmentId) => {
-        return history?.triageRecords?.filter(t => t.appointment?.id === appointmentId) || [];
-    };
+    const visibleEntries = entries.filter(e => showNotes || e.type !== 'NOTE');
+
+    const renderAppointment = (ap) => (
+        <>
+            <div className="timeline-header">
+                <span className="date">
+                    {new Date(ap.createdAt).toLocaleDateString('tr-TR')}
+                </span>
+                <span className="queue">Sıra: {ap.queueNumber}</span>
+                <span className={`status ${ap.status.toLowerCase()}`}>
+                    {statusLabels[ap.status]}
+                </span>
+            </div>
+            {ap.chiefComplaint && (
+                <div className="complaint">
+                    <strong>Şikayet:</strong> {ap.chiefComplaint}
+                </div>
+            )}
+        </>
+    );
 
-    const getNotesForAppointment = (appointmentId) => {
-        return history?.doctorNotes?.filter(n => n.appointment?.id === appointmentId) || [];
-    };
+    const renderTriage = (tr) => (
+        <div className="triage-record">
+            <h4>📋 Triaj</h4>
+            <div className="record-grid">
+                <span className={`level ${tr.triageLevel?.toLowerCase()}`}>
+                    {tr.triageLevel}
+                </span>
+                {tr.temperature && <span>Ateş: {tr.temperature}°C</span>}
+                {tr.pulse && <span>Nabız: {tr.pulse}</span>}
+                {tr.bpHigh && tr.bpLow && (
+                    <span>Tansiyon: {tr.bpHigh}/{tr.bpLow}</span>
+                )}
+                {tr.oxygenSaturation && <span>SpO2: {tr.oxygenSaturation}%</span>}
+            </div>
+            {tr.nurseSymptomsCsv && (
+                <div className="symptoms">
+                    <strong>Semptomlar:</strong> {tr.nurseSymptomsCsv}
+                </div>
+            )}
+            {tr.notes && <div className="notes">{tr.notes}</div>}
+        </div>
+    );
 
-    const filteredAppointments = () => {
-        if (!history?.appointments) return [];
-        const filtered = history.appointments.filter(ap => {
-            if (statusFilter === 'ALL') return true;
-            return (ap.status || '').toUpperCase() === statusFilter;
-        });
-        return filtered.sort((a, b) => {
-            const aDate = new Date(a.createdAt || 0);
-            const bDate = new Date(b.createdAt || 0);
-            return sortDesc ? bDate - aDate : aDate - bDate;
-        });
-    };
+    const renderNote = (note) => (
+        <div className="doctor-record">
+            <h4>🩺 Doktor Notu</h4>
+            <div className="diagnosis">
+                <strong>Tanı:</strong> {note.diagnosis}
+                {note.secondaryDiagnosis && ` / ${note.secondaryDiagnosis}`}
+            </div>
+            <div className="plan">
+                <strong>Plan:</strong> {note.plan}
+            </div>
+            {note.prescription && (
+                <div className="prescription">
+                    <strong>Reçete:</strong> {note.prescription}
+                </div>
+            )}
+            {note.followUpDate && (
+                <div className="followup">
+                    <strong>Kontrol:</strong> {note.followUpDate}
+                </div>
+            )}
+            {note.restDays && (
+                <div className="rest">
+                    <strong>İstirahat:</strong> {note.restDays} gün
+                </div>
+            )}
+        </div>
+    );
 
     return (
         <div className="history-page">
@@ -83,31 +162,37 @@ const PatientHistory = () => {
 
             {error && <div className="error-box">{error}</div>}
 
-            {history && (
+            {summary && (
                 <div className="history-content">
                     <div className="patient-card">
-                        <h2>{history.patient?.name}</h2>
+                        <h2>{summary.name}</h2>
                         <div className="patient-meta">
-                            <span>TC: {history.patient?.tc}</span>
-                            {history.patient?.birthYear && (
-                                <span>Doğum Yılı: {history.patient.birthYear}</span>
+                            <span>TC: {summary.tc}</span>
+                            {summary.birthYear && (
+                                <span>Doğum Yılı: {summary.birthYear}</span>
                             )}
-                            {history.patient?.gender && (
-                                <span>Cinsiyet: {history.patient.gender === 'E' ? 'Erkek' : 'Kadın'}</span>
+                            {summary.gender && (
+                                <span>Cinsiyet: {summary.gender === 'E' ? 'Erkek' : 'Kadın'}</span>
                             )}
                         </div>
                         <div className="stats-row">
                             <div className="stat">
-                                <span className="value">{history.totalAppointments}</span>
+                                <span className="value">{summary.visitCount}</span>
                                 <span className="label">Randevu</span>
                             </div>
                             <div className="stat">
-                                <span className="value">{history.totalTriageRecords}</span>
-                                <span className="label">Triaj</span>
+                                <span className={`value level ${summary.lastTriageLevel?.toLowerCase() || ''}`}>
+                                    {summary.lastTriageLevel || '-'}
+                                </span>
+                                <span className="label">Son Triaj</span>
                             </div>
                             <div className="stat">
-                                <span className="value">{history.totalDoctorNotes}</span>
-                                <span className="label">Muayene</span>
+                                <span className="value">
+                                    {summary.lastVisitAt
+                                        ? new Date(summary.lastVisitAt).toLocaleDateString('tr-TR')
+                                        : '-'}
+                                </span>
+                                <span className="label">Son Ziyaret</span>
                             </div>
                         </div>
                     </div>
@@ -115,17 +200,6 @@ const PatientHistory = () => {
                     <div className="timeline">
                         <h3>📅 Randevu Geçmişi</h3>
                         <div className="history-filters">
-                            <select value={statusFilter} onChange={(e) => setStatusFilter(e.target.value)}>
-                                <option value="ALL">Tümü</option>
-                                <option value="WAITING">Bekleyen</option>
-                                <option value="CALLED">Çağrılan</option>
-                                <option value="IN_PROGRESS">Muayenede</option>
-                                <option value="DONE">Tamamlanan</option>
-                                <option value="NO_SHOW">Gelmedi</option>
-                            </select>
-                            <button className="btn-link" onClick={() => setSortDesc(!sortDesc)}>
-                                Tarih: {sortDesc ? 'Yeni → Eski' : 'Eski → Yeni'}
-                            </button>
                             <button className="btn-link" onClick={() => window.print()}>
                                 Yazdır / PDF
                             </button>
@@ -138,80 +212,22 @@ const PatientHistory = () => {
                                 <span>Doktor notlarını göster</span>
                             </label>
                         </div>
-                        {history.appointments?.length === 0 ? (
+                        {entries.length === 0 ? (
                             <p className="no-data">Henüz randevu kaydı yok</p>
                         ) : (
-                            filteredAppointments().map(ap => (
-                                <div key={ap.id} className="timeline-item">
-                                    <div className="timeline-header">
-                                        <span className="date">
-                                            {new Date(ap.createdAt).toLocaleDateString('tr-TR')}
-                                        </span>
-                                        <span className="queue">Sıra: {ap.queueNumber}</span>
-                                        <span className={`status ${ap.status.toLowerCase()}`}>
-                                            {statusLabels[ap.status]}
-                                        </span>
-                                    </div>
-
-                                    {ap.chiefComplaint && (
-                                        <div className="complaint">
-                                            <strong>Şikayet:</strong> {ap.chiefComplaint}
-                                        </div>
-                                    )}
-
-                                    {getTriageForAppointment(ap.id).map(tr => (
-                                        <div key={tr.id} className="triage-record">
-                                            <h4>📋 Triaj</h4>
-                                            <div className="record-grid">
-                                                <span className={`level ${tr.triageLevel?.toLowerCase()}`}>
-                                                    {tr.triageLevel}
-                                                </span>
-                                                {tr.temperature && <span>Ateş: {tr.temperature}°C</span>}
-                                                {tr.pulse && <span>Nabız: {tr.pulse}</span>}
-                                                {tr.bpHigh && tr.bpLow && (
-                                                    <span>Tansiyon: {tr.bpHigh}/{tr.bpLow}</span>
-                                                )}
-                                                {tr.oxygenSaturation && <span>SpO2: {tr.oxygenSaturation}%</span>}
-                                            </div>
-                                            {tr.nurseSymptomsCsv && (
-                                                <div className="symptoms">
-                                                    <strong>Semptomlar:</strong> {tr.nurseSymptomsCsv}
-                                                </div>
-                                            )}
-                                            {tr.notes && <div className="notes">{tr.notes}</div>}
-                                        </div>
-                                    ))}
-
-                                    {showNotes && getNotesForAppointment(ap.id).map(note => (
-                                        <div key={note.id} className="doctor-record">
-                                            <h4>🩺 Doktor Notu</h4>
-                                            <div className="diagnosis">
-                                                <strong>Tanı:</strong> {note.diagnosis}
-                                                {note.secondaryDiagnosis && ` / ${note.secondaryDiagnosis}`}
-                                            </div>
-                                            <div className="plan">
-                                                <strong>Plan:</strong> {note.plan}
-                                            </div>
-                                            {note.prescription && (
-                                                <div className="prescription">
-                                                    <strong>Reçete:</strong> {note.prescription}
-                                                </div>
-                                            )}
-                                            {note.followUpDate && (
-                                                <div className="followup">
-                                                    <strong>Kontrol:</strong> {note.followUpDate}
-                                                </div>
-                                            )}
-                                            {note.restDays && (
-                                                <div className="rest">
-                                                    <strong>İstirahat:</strong> {note.restDays} gün
-                                                </div>
-                                            )}
-                                        </div>
-                                    ))}
+                            visibleEntries.map(entry => (
+                                <div key={`${entry.type}-${entry.id}`} className="timeline-item">
+                                    {entry.type === 'APPOINTMENT' && renderAppointment(entry.appointment)}
+                                    {entry.type === 'TRIAGE' && renderTriage(entry.triage)}
+                                    {entry.type === 'NOTE' && renderNote(entry.note)}
                                 </div>
                             ))
                         )}
+                        {nextCursor && (
+                            <button className="btn-link" onClick={loadMore} disabled={loadingMore}>
+                                {loadingMore ? 'Yükleniyor...' : 'Daha eski kayıtlar'}
+                            </button>
+                        )}
                     </div>
                 </div>
             )}
@@ -1,5 +1,5 @@
 import { useState, useEffect } from 'react';
-import { apiGet } from '../api';
+import { apiGet, apiStream } from '../api';
 
 const WaitingRoom = () => {
     const [data, setData] = useState(null);
@@ -22,10 +22,16 @@ const WaitingRoom = () => {
 
     useEffect(() => {
         fetchData();
-        const dataInterval = setInterval(fetchData, 5000);
+        // Sıra değiştikçe sunucu güncel ekranı gönderir; yeniden bağlanınca ilk olay yine tam görünümdür
+        const close = apiStream('/appointments/waiting-room/stream', (event, payload) => {
+            if (event !== 'waiting-room') return;
+            setData(JSON.parse(payload));
+            setError(null);
+            setLoading(false);
+        });
         const timeInterval = setInterval(() => setTime(new Date()), 1000);
         return () => {
-            clearInterval(dataInterval);
+            close();
             clearInterval(timeInterval);
         };
     }, []);
@@ -86,6 +92,9 @@ const WaitingRoom = () => {
                             data.waitingList.map((w, i) => (
                                 <div key={i} className="queue-item">
                                     {w.queueNumber}
+                                    {w.estimatedWaitMinutes != null && (
+                                        <small className="queue-eta">~{w.estimatedWaitMinutes} dk</small>
+                                    )}
                                 </div>
                             ))
                         ) : (
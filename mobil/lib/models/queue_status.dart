@@ -6,6 +6,7 @@ class QueueStatus {
   final int? waitingAhead;
   final String? message;
   final String? patientName;
+  final String? version;
 
   const QueueStatus({
     this.queueNumber,
@@ -15,17 +16,21 @@ class QueueStatus {
     this.waitingAhead,
     this.message,
     this.patientName,
+    this.version,
   });
 
   factory QueueStatus.fromJson(Map<String, dynamic> json) => QueueStatus(
         queueNumber: _asInt(json['queueNumber'] ?? json['queue_number']),
         estimatedWaitMinutes:
-            _asInt(json['estimatedWait'] ?? json['estimated_wait_minutes']),
+            _asInt(json['estimatedWaitMinutes'] ??
+                json['estimatedWait'] ??
+                json['estimated_wait_minutes']),
         status: json['status']?.toString(),
         found: json['found'] as bool?,
         waitingAhead: _asInt(json['waitingAhead'] ?? json['waiting_ahead']),
         message: json['message']?.toString(),
         patientName: json['patientName']?.toString(),
+        version: json['version']?.toString(),
       );
 
   static int? _asInt(dynamic v) {
@@ -363,7 +363,7 @@ class _PatientCardPageState extends State<PatientCardPage> {
           final status = apt['status']?.toString() ?? '';
           final isDone = status == 'DONE';
           final aptId = apt['id'];
-          final aptNotes = doctorNotes.where((note) => note['appointment']?['id'] == aptId).toList();
+          final aptNotes = doctorNotes.where((note) => note['appointmentId'] == aptId).toList();
           final triageRecords = apt['triageRecords'] as List<dynamic>? ?? [];
 
           return Card(
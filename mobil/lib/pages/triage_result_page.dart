@@ -5,6 +5,7 @@ import '../constants/app_strings.dart';
 import '../services/storage_service.dart';
 import '../services/triage_service.dart';
 import '../models/patient.dart';
+import '../models/queue_status.dart';
 import '../utils/urgency_helper.dart';
 
 class TriageResultPage extends StatefulWidget {
@@ -20,6 +21,8 @@ class _TriageResultPageState extends State<TriageResultPage> {
   bool _notifyOnUpdate = true;
   int? _lastWait;
   String? _lastStatusText;
+  String? _queueVersion;
+  bool _watching = false;
 
   bool get _isFinished {
     final status = (_p?.status ?? '').toUpperCase();
@@ -29,7 +32,37 @@ class _TriageResultPageState extends State<TriageResultPage> {
   @override
   void initState() {
     super.initState();
-    _load();
+    _load().then((_) => _watchQueue());
+  }
+
+  @override
+  void dispose() {
+    _watching = false;
+    super.dispose();
+  }
+
+  /// Keeps a long-poll open while the page is visible; the server replies
+  /// only when the patient's position or status changes.
+  Future<void> _watchQueue() async {
+    if (_watching) return;
+    _watching = true;
+    while (_watching && mounted && !_isFinished) {
+      final current = await StorageService.getLastPatient();
+      if (current == null) break;
+      final status =
+          await TriageService().watchQueueStatus(current.nationalId, _queueVersion);
+      if (!_watching || !mounted) break;
+      if (status == null) {
+        await Future.delayed(const Duration(seconds: 5));
+        continue;
+      }
+      if (status.found == false) break;
+      if (status.version != _queueVersion) {
+        _queueVersion = status.version;
+        await _applyStatus(current, status);
+      }
+    }
+    _watching = false;
   }
 
   Future<void> _load() async {
@@ -51,31 +84,36 @@ class _TriageResultPageState extends State<TriageResultPage> {
     try {
       final status = await TriageService().fetchQueueStatus(current.nationalId);
       if (status == null) return;
+      _queueVersion = status.version;
+      await _applyStatus(current, status);
+    } finally {
+      if (mounted) setState(() => _refreshing = false);
+    }
+  }
 
-      final newWait = status.estimatedWaitMinutes ?? current.estimatedWaitMinutes;
-      final newStatusText = status.message ?? status.status ?? current.status;
-      final hasChange = (_lastWait != null && newWait != _lastWait) ||
-          (_lastStatusText != null && newStatusText != _lastStatusText);
+  Future<void> _applyStatus(Patient current, QueueStatus status) async {
+    final newWait = status.estimatedWaitMinutes ?? current.estimatedWaitMinutes;
+    final newStatusText = status.message ?? status.status ?? current.status;
+    final hasChange = (_lastWait != null && newWait != _lastWait) ||
+        (_lastStatusText != null && newStatusText != _lastStatusText);
 
-      final updated = current.copyWith(
-        queueNumber: status.queueNumber ?? current.queueNumber,
-        estimatedWaitMinutes:
-            status.estimatedWaitMinutes ?? current.estimatedWaitMinutes,
-        status: status.status ?? current.status,
-        statusMessage: status.message ?? current.statusMessage,
-      );
-      await StorageService.saveLastPatient(updated);
-      setState(() {
-        _p = updated;
-        _lastWait = updated.estimatedWaitMinutes;
-        _lastStatusText = updated.statusMessage ?? updated.status;
-      });
+    final updated = current.copyWith(
+      queueNumber: status.queueNumber ?? current.queueNumber,
+      estimatedWaitMinutes:
+          status.estimatedWaitMinutes ?? current.estimatedWaitMinutes,
+      status: status.status ?? current.status,
+      statusMessage: status.message ?? current.statusMessage,
+    );
+    await StorageService.saveLastPatient(updated);
+    if (!mounted) return;
+    setState(() {
+      _p = updated;
+      _lastWait = updated.estimatedWaitMinutes;
+      _lastStatusText = updated.statusMessage ?? updated.status;
+    });
 
-      if (_notifyOnUpdate && hasChange) {
-        _playAlert();
-      }
-    } finally {
-      if (mounted) setState(() => _refreshing = false);
+    if (_notifyOnUpdate && hasChange) {
+      _playAlert();
     }
   }
 
@@ -69,6 +69,26 @@ class TriageService {
     }
   }
 
+  /// Long-poll queue status: the server answers only when the status differs
+  /// from [version] (or after its timeout). Returns null on network errors.
+  Future<QueueStatus?> watchQueueStatus(String tc, String? version) async {
+    if (tc.isEmpty) return null;
+    try {
+      final res = await ApiClient().client.get(
+            '/appointments/mobile/queue/$tc/watch',
+            queryParameters: {if (version != null) 'version': version},
+            options: Options(receiveTimeout: const Duration(seconds: 45)),
+          );
+      final data = res.data;
+      if (data is Map) {
+        return QueueStatus.fromJson(Map<String, dynamic>.from(data));
+      }
+      return null;
+    } catch (_) {
+      return null;
+    }
+  }
+
   /// Fetch patient history with appointments, triage records, and doctor notes
   Future<Map<String, dynamic>?> fetchPatientHistory(String tc) async {
     if (tc.isEmpty) return null;